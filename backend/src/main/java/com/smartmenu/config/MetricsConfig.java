@@ -0,0 +1,47 @@
+package com.smartmenu.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.config.MeterFilterReply;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Micrometer configuration
+ *
+ * Latency percentiles for HTTP endpoints are set in application.properties
+ * (management.metrics.distribution.*). JVM, GC, Tomcat thread pool and MongoDB
+ * connection pool metrics are registered by Spring Boot automatically.
+ *
+ * Here we only protect the metrics backend: every distinct tag value is a new
+ * time series, so tenant tags are capped per metric. Past the cap, new tenants
+ * are not recorded (tenants already seen keep counting).
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterFilter tenantTagLimit(@Value("${app.metrics.max-tenants:1000}") int maxTenants) {
+        Map<String, Set<String>> tenantsByMetric = new ConcurrentHashMap<>();
+
+        return new MeterFilter() {
+            @Override
+            public MeterFilterReply accept(Meter.Id id) {
+                String tenant = id.getTag("tenant");
+                if (tenant == null || !id.getName().startsWith("smartmenu.")) {
+                    return MeterFilterReply.NEUTRAL;
+                }
+                Set<String> tenants = tenantsByMetric.computeIfAbsent(id.getName(), name -> ConcurrentHashMap.newKeySet());
+                if (tenants.contains(tenant) || (tenants.size() < maxTenants && tenants.add(tenant))) {
+                    return MeterFilterReply.NEUTRAL;
+                }
+                return MeterFilterReply.DENY;
+            }
+        };
+    }
+}
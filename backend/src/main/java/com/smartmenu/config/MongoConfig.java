@@ -0,0 +1,74 @@
+package com.smartmenu.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientFactory;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MongoDB client configuration
+ * 
+ * Hooks into the Mongo driver's settings before the client is created.
+ */
+@Configuration
+public class MongoConfig {
+    
+    /**
+     * The blocking (sync) MongoClient, as Spring Boot would build it, plus - for
+     * BENCHMARKING ONLY - artificial latency before every command
+     * 
+     * The sync driver calls commandStarted on the thread that runs the query, while
+     * it holds a pooled connection - so sleeping here behaves like a slow network
+     * to a far-away database. Used to compare platform vs virtual threads.
+     * 
+     * Only this client gets it. MongoClientSettingsBuilderCustomizer beans apply
+     * to the reactive client too, whose listeners run on the driver's few I/O
+     * threads: a sleep there stalls every reactive query at once, which is
+     * nothing like a slow network. For reactive vs blocking comparisons use no
+     * injected latency, or a network-level delay (see PERFORMANCE.md).
+     * 
+     * app.mongo.injected-latency-ms=0 (default) disables it.
+     */
+    @Bean
+    public MongoClient mongoClient(
+            ObjectProvider<MongoClientSettingsBuilderCustomizer> builderCustomizers,
+            MongoClientSettings settings,
+            @Value("${app.mongo.injected-latency-ms:0}") long injectedLatencyMs
+    ) {
+        List<MongoClientSettingsBuilderCustomizer> customizers = new ArrayList<>(builderCustomizers.orderedStream().toList());
+        if (injectedLatencyMs > 0) {
+            customizers.add(builder -> builder.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    try {
+                        Thread.sleep(injectedLatencyMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }));
+        }
+        return new MongoClientFactory(customizers).createMongoClient(settings);
+    }
+    
+    /**
+     * Time every command per query shape (see MongoQueryProfiler)
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer queryProfilerCustomizer(MongoQueryProfiler queryProfiler) {
+        return builder -> {
+            if (queryProfiler.isEnabled()) {
+                builder.addCommandListener(queryProfiler);
+            }
+        };
+    }
+}
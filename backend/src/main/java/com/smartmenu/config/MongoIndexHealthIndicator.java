@@ -0,0 +1,30 @@
+package com.smartmenu.config;
+
+import com.smartmenu.service.IndexManagementService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Reports "mongoIndexes" in /actuator/health
+ *
+ * DOWN when an index declared on the models is missing, or a repository query
+ * has no index to use (see IndexManagementService). Reads the last periodic
+ * check, so a probe costs no MongoDB call.
+ */
+@Component
+@RequiredArgsConstructor
+public class MongoIndexHealthIndicator implements HealthIndicator {
+
+    private final IndexManagementService indexManagementService;
+
+    @Override
+    public Health health() {
+        Map<String, Object> report = indexManagementService.report();
+        Health.Builder builder = (boolean) report.get("healthy") ? Health.up() : Health.down();
+        return builder.withDetails(report).build();
+    }
+}
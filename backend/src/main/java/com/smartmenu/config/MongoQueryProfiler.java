@@ -0,0 +1,461 @@
+package com.smartmenu.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mongo Query Profiler - Times every MongoDB command, grouped by query shape
+ *
+ * TEACHING MOMENT - What is a "query shape"?
+ *
+ * findByUserId("abc") and findByUserId("xyz") are the same query with different
+ * values. We replace every value with "?" so both become:
+ *
+ *   find orders {userId: ?}
+ *
+ * That's the shape. Latency is tracked per shape, so "this query is slow" is one
+ * line instead of a million log entries. Like MySQL's slow query log with
+ * "mysqldumpslow" grouping, but always on.
+ *
+ * How it works:
+ * - The Mongo driver calls commandStarted / commandSucceeded for every command
+ *   (registered in MongoConfig).
+ * - RepositoryMethodTagger remembers which repository method is running on the
+ *   current thread, so each shape knows who issued it (e.g. OrderRepository.findByUserId).
+ *   Reactive repositories run their commands on driver threads, so those show up
+ *   as "unattributed".
+ * - When a shape is slower than app.mongo.profiler.slow-threshold-ms, its next
+ *   execution is sampled and explain()ed on a background thread. A plan with a
+ *   COLLSCAN stage (full collection scan = no usable index) is flagged.
+ *
+ * Metrics: mongo.query{collection,command,shape}, mongo.query.slow{collection,method},
+ * mongo.query.collscan{collection}. Report: GET /api/admin/mongo/queries.
+ */
+@Component
+public class MongoQueryProfiler implements CommandListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoQueryProfiler.class);
+
+    private static final String UNATTRIBUTED = "unattributed";
+    private static final String OTHER_SHAPE = "other";
+
+    private static final Set<String> TRACKED_COMMANDS = Set.of(
+            "find", "count", "aggregate", "distinct", "update", "delete", "findAndModify", "insert", "getMore");
+    private static final Set<String> EXPLAINABLE_COMMANDS = Set.of(
+            "find", "count", "aggregate", "distinct", "update", "delete", "findAndModify");
+    // Fields the driver adds to a command that explain() doesn't accept
+    private static final Set<String> DRIVER_FIELDS = Set.of(
+            "lsid", "txnNumber", "autocommit", "startTransaction", "writeConcern", "readConcern",
+            "apiVersion", "apiStrict", "apiDeprecationErrors");
+
+    // Repository method running on this thread (set by RepositoryMethodTagger)
+    private static final ThreadLocal<String> CURRENT_METHOD = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<MongoTemplate> mongoTemplate;
+    private final boolean enabled;
+    private final long slowThresholdNanos;
+    private final long explainIntervalNanos;
+    private final int maxShapes;
+
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final Map<Integer, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    // One background thread runs explain(); extra requests are dropped, never queued up
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(
+            1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16),
+            runnable -> {
+                Thread thread = new Thread(runnable, "mongo-explain");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    public MongoQueryProfiler(
+            MeterRegistry meterRegistry,
+            ObjectProvider<MongoTemplate> mongoTemplate,
+            @Value("${app.mongo.profiler.enabled:true}") boolean enabled,
+            @Value("${app.mongo.profiler.slow-threshold-ms:100}") long slowThresholdMs,
+            @Value("${app.mongo.profiler.explain-interval-seconds:300}") long explainIntervalSeconds,
+            @Value("${app.mongo.profiler.max-shapes:500}") int maxShapes
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.explainIntervalNanos = TimeUnit.SECONDS.toNanos(explainIntervalSeconds);
+        this.maxShapes = maxShapes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Mark the repository method running on this thread
+     *
+     * @return the previous value, to hand back to {@link #exitRepositoryMethod}
+     */
+    static String enterRepositoryMethod(String method) {
+        String previous = CURRENT_METHOD.get();
+        CURRENT_METHOD.set(method);
+        return previous;
+    }
+
+    static void exitRepositoryMethod(String previous) {
+        if (previous == null) {
+            CURRENT_METHOD.remove();
+        } else {
+            CURRENT_METHOD.set(previous);
+        }
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String commandName = event.getCommandName();
+        if (!enabled || !TRACKED_COMMANDS.contains(commandName)) {
+            return;
+        }
+
+        // The command document is only valid inside this callback - read what we need now
+        BsonDocument command = event.getCommand();
+        String collection = collectionOf(commandName, command);
+        String shapeKey = commandName + " " + collection + " " + shapeOf(commandName, command);
+
+        ShapeStats stats = shapes.get(shapeKey);
+        if (stats == null) {
+            if (shapes.size() >= maxShapes) {
+                shapeKey = commandName + " " + collection + " " + OTHER_SHAPE;
+            }
+            String key = shapeKey;
+            stats = shapes.computeIfAbsent(key, k -> new ShapeStats(collection, commandName, k));
+        }
+
+        String method = CURRENT_METHOD.get();
+        stats.methods.add(method != null ? method : UNATTRIBUTED);
+
+        // Only copy the command when this shape was slow and is waiting for an explain()
+        BsonDocument sample = null;
+        if (stats.explainRequested && EXPLAINABLE_COMMANDS.contains(commandName)) {
+            sample = forExplain(command);
+        }
+        inFlight.put(event.getRequestId(), new InFlight(stats, method, event.getDatabaseName(), sample));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        InFlight call = inFlight.remove(event.getRequestId());
+        if (call != null) {
+            record(call, event.getElapsedTime(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        InFlight call = inFlight.remove(event.getRequestId());
+        if (call != null) {
+            record(call, event.getElapsedTime(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    private void record(InFlight call, long elapsedNanos) {
+        ShapeStats stats = call.stats();
+        stats.timer(meterRegistry).record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        if (elapsedNanos >= slowThresholdNanos) {
+            stats.slowCount.incrementAndGet();
+            String method = call.method() != null ? call.method() : UNATTRIBUTED;
+            Counter.builder("mongo.query.slow")
+                    .tag("collection", stats.collection)
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn("Slow Mongo query ({} ms) from {}: {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), method, stats.shape);
+
+            long now = System.nanoTime();
+            if (stats.lastExplainNanos == 0 || now - stats.lastExplainNanos > explainIntervalNanos) {
+                stats.explainRequested = true;
+            }
+        }
+
+        if (call.sample() != null) {
+            stats.explainRequested = false;
+            stats.lastExplainNanos = System.nanoTime();
+            explainExecutor.execute(() -> explain(stats, call.database(), call.sample()));
+        }
+    }
+
+    private void explain(ShapeStats stats, String database, BsonDocument command) {
+        MongoTemplate template = mongoTemplate.getIfAvailable();
+        if (template == null) {
+            return;
+        }
+        try {
+            Document explainCommand = new Document("explain", command).append("verbosity", "queryPlanner");
+            Document result = template.getMongoDatabaseFactory().getMongoDatabase(database).runCommand(explainCommand);
+
+            Document winningPlan = findWinningPlan(result);
+            stats.plan = winningPlan != null ? describePlan(winningPlan) : "unknown";
+            stats.collectionScan = result.toJson().contains("\"COLLSCAN\"");
+            stats.lastExplainAt = Instant.now();
+
+            if (stats.collectionScan) {
+                Counter.builder("mongo.query.collscan")
+                        .tag("collection", stats.collection)
+                        .register(meterRegistry)
+                        .increment();
+                logger.warn("COLLSCAN detected for {} (called from {}) - plan: {}",
+                        stats.shape, stats.methods, stats.plan);
+            }
+        } catch (RuntimeException e) {
+            logger.debug("explain() failed for {}: {}", stats.shape, e.getMessage());
+        }
+    }
+
+    /**
+     * Report for the admin endpoint, slowest total time first
+     */
+    public List<Map<String, Object>> report() {
+        List<ShapeStats> all = new ArrayList<>(shapes.values());
+        all.sort(Comparator.comparingDouble((ShapeStats s) -> s.timer(meterRegistry).totalTime(TimeUnit.MILLISECONDS))
+                .reversed());
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (ShapeStats stats : all) {
+            Timer timer = stats.timer(meterRegistry);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("shape", stats.shape);
+            row.put("collection", stats.collection);
+            row.put("command", stats.command);
+            row.put("methods", stats.methods);
+            row.put("count", timer.count());
+            row.put("totalMs", timer.totalTime(TimeUnit.MILLISECONDS));
+            row.put("meanMs", timer.mean(TimeUnit.MILLISECONDS));
+            row.put("maxMs", timer.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+                row.put("p" + Math.round(percentile.percentile() * 100) + "Ms",
+                        percentile.value(TimeUnit.MILLISECONDS));
+            }
+            row.put("slowCount", stats.slowCount.get());
+            row.put("collectionScan", stats.collectionScan);
+            row.put("plan", stats.plan);
+            row.put("explainedAt", stats.lastExplainAt);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // ========== SHAPE HELPERS ==========
+
+    private static String collectionOf(String commandName, BsonDocument command) {
+        BsonValue value = command.get(commandName);
+        if ("getMore".equals(commandName)) {
+            value = command.get("collection");
+        }
+        return value != null && value.isString() ? value.asString().getValue() : "?";
+    }
+
+    private static String shapeOf(String commandName, BsonDocument command) {
+        switch (commandName) {
+            case "find":
+                return filterShape(command.get("filter")) + sortShape(command.get("sort"));
+            case "count":
+            case "distinct":
+            case "findAndModify":
+                return filterShape(command.get("query")) + sortShape(command.get("sort"));
+            case "update":
+                return filterShape(firstStatement(command, "updates"));
+            case "delete":
+                return filterShape(firstStatement(command, "deletes"));
+            case "aggregate":
+                return pipelineShape(command.get("pipeline"));
+            default:
+                return "";
+        }
+    }
+
+    private static BsonValue firstStatement(BsonDocument command, String field) {
+        BsonValue statements = command.get(field);
+        if (statements == null || !statements.isArray() || statements.asArray().isEmpty()) {
+            return null;
+        }
+        BsonValue first = statements.asArray().get(0);
+        return first.isDocument() ? first.asDocument().get("q") : null;
+    }
+
+    private static String filterShape(BsonValue filter) {
+        return filter == null ? "{}" : valueShape(filter);
+    }
+
+    private static String sortShape(BsonValue sort) {
+        return sort == null || !sort.isDocument() || sort.asDocument().isEmpty()
+                ? "" : " sort " + sort.asDocument().toJson();
+    }
+
+    /**
+     * Stage names, with the $match filter shape: [$match {userId: ?}, $group, $sort]
+     */
+    private static String pipelineShape(BsonValue pipeline) {
+        if (pipeline == null || !pipeline.isArray()) {
+            return "[]";
+        }
+        List<String> stages = new ArrayList<>();
+        for (BsonValue stage : pipeline.asArray()) {
+            if (!stage.isDocument() || stage.asDocument().isEmpty()) {
+                continue;
+            }
+            String name = stage.asDocument().getFirstKey();
+            stages.add("$match".equals(name) ? name + " " + valueShape(stage.asDocument().get(name)) : name);
+        }
+        return stages.toString();
+    }
+
+    /**
+     * Keep field names and operators, replace values with "?"
+     */
+    private static String valueShape(BsonValue value) {
+        if (value.isDocument()) {
+            StringBuilder sb = new StringBuilder("{");
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(entry.getKey()).append(": ").append(valueShape(entry.getValue()));
+            }
+            return sb.append("}").toString();
+        }
+        if (value.isArray()) {
+            BsonArray array = value.asArray();
+            // $and / $or hold sub-filters; $in holds values
+            if (!array.isEmpty() && array.get(0).isDocument()) {
+                List<String> parts = new ArrayList<>();
+                for (BsonValue element : array) {
+                    parts.add(valueShape(element));
+                }
+                return parts.toString();
+            }
+            return "[?]";
+        }
+        return "?";
+    }
+
+    private static BsonDocument forExplain(BsonDocument command) {
+        BsonDocument copy = command.clone();
+        copy.keySet().removeIf(key -> key.startsWith("$") || DRIVER_FIELDS.contains(key));
+        return copy;
+    }
+
+    private static Document findWinningPlan(Document document) {
+        for (Map.Entry<String, Object> entry : document.entrySet()) {
+            if ("winningPlan".equals(entry.getKey()) && entry.getValue() instanceof Document plan) {
+                // MongoDB 7 (slot-based engine) nests the classic plan under "queryPlan"
+                return plan.get("queryPlan") instanceof Document queryPlan ? queryPlan : plan;
+            }
+            Document found = null;
+            if (entry.getValue() instanceof Document child) {
+                found = findWinningPlan(child);
+            } else if (entry.getValue() instanceof List<?> list) {
+                for (Object element : list) {
+                    if (element instanceof Document child && (found = findWinningPlan(child)) != null) {
+                        break;
+                    }
+                }
+            }
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * FETCH <- IXSCAN userId_status_createdAt
+     */
+    private static String describePlan(Document plan) {
+        List<String> stages = new ArrayList<>();
+        Document stage = plan;
+        while (stage != null) {
+            String name = stage.getString("stage");
+            String indexName = stage.getString("indexName");
+            stages.add(indexName != null ? name + " " + indexName : name);
+
+            if (stage.get("inputStage") instanceof Document input) {
+                stage = input;
+            } else if (stage.get("inputStages") instanceof List<?> inputs && !inputs.isEmpty()
+                    && inputs.get(0) instanceof Document first) {
+                stage = first;
+            } else {
+                stage = null;
+            }
+        }
+        return String.join(" <- ", stages);
+    }
+
+    // ========== STATE ==========
+
+    private record InFlight(ShapeStats stats, String method, String database, BsonDocument sample) {
+    }
+
+    private static final class ShapeStats {
+        final String collection;
+        final String command;
+        final String shape;
+        final Set<String> methods = ConcurrentHashMap.newKeySet();
+        final AtomicLong slowCount = new AtomicLong();
+        private volatile Timer timer;
+
+        volatile boolean explainRequested;
+        volatile long lastExplainNanos;
+        volatile boolean collectionScan;
+        volatile String plan;
+        volatile Instant lastExplainAt;
+
+        ShapeStats(String collection, String command, String shape) {
+            this.collection = collection;
+            this.command = command;
+            this.shape = shape;
+        }
+
+        Timer timer(MeterRegistry registry) {
+            if (timer == null) {
+                timer = Timer.builder("mongo.query")
+                        .tag("collection", collection)
+                        .tag("command", command)
+                        .tag("shape", shape)
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(registry);
+            }
+            return timer;
+        }
+    }
+}
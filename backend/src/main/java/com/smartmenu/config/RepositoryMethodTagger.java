@@ -0,0 +1,38 @@
+package com.smartmenu.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tags Mongo commands with the repository method that issued them
+ *
+ * Spring Data builds every repository as a proxy. We add one more step to that
+ * proxy: "remember OrderRepository.findByUserId while this call runs", which
+ * MongoQueryProfiler reads when the driver reports the command.
+ */
+@Component
+public class RepositoryMethodTagger implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+                        String repository = repositoryInformation.getRepositoryInterface().getSimpleName();
+                        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                            String previous = MongoQueryProfiler.enterRepositoryMethod(
+                                    repository + "." + invocation.getMethod().getName());
+                            try {
+                                return invocation.proceed();
+                            } finally {
+                                MongoQueryProfiler.exitRepositoryMethod(previous);
+                            }
+                        });
+                    }));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,18 @@
+package com.smartmenu.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration - turns on @Scheduled background jobs
+ *
+ * Like a cron entry calling a PHP script, but inside the running app.
+ * Jobs: OrderArchiveService (hourly), VisitorRollupService (every 15 minutes),
+ * UniqueVisitorService.flush (every minute).
+ * JobLockService keeps the archive, rollup and change log compaction jobs from
+ * running on two instances at once.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -3,20 +3,28 @@ package com.smartmenu.config;
 import com.smartmenu.security.JwtAuthenticationFilter;
 import com.smartmenu.security.UserDetailsServiceImpl;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.List;
+
 /**
  * Security Configuration - JWT Authentication
  * 
@@ -43,6 +51,56 @@ public class SecurityConfig {
     private final UserDetailsServiceImpl userDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     
+    /**
+     * Actuator endpoints (/actuator/**) get their own, stricter rules
+     * 
+     * Only /actuator/health is public (load balancer probes). Metrics are tagged
+     * with each restaurant's owner id (tenant=...) and carry order/revenue
+     * counters, so /actuator/prometheus and /actuator/metrics need either:
+     * - an ADMIN's JWT, or
+     * - HTTP Basic with the scrape account (app.metrics.scrape-username/-password),
+     *   which is what Prometheus sends (basic_auth in its scrape config)
+     * 
+     * The scrape account exists only here (not in the users collection) and only
+     * if a password is set. Basic auth is not accepted anywhere else, so it can't
+     * be used to get around the login throttle.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(
+            HttpSecurity http,
+            @Value("${app.metrics.scrape-username:prometheus}") String scrapeUsername,
+            @Value("${app.metrics.scrape-password:}") String scrapePassword
+    ) throws Exception {
+        http
+            .securityMatcher("/actuator/**")
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session ->
+                session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()  // Probes
+                .anyRequest().hasAnyRole("ADMIN", "METRICS")
+            )
+            .httpBasic(Customizer.withDefaults())
+            .authenticationManager(scrapeAuthenticationManager(scrapeUsername, scrapePassword))
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        
+        return http.build();
+    }
+    
+    private AuthenticationManager scrapeAuthenticationManager(String username, String password) {
+        List<UserDetails> accounts = password.isBlank()
+                ? List.of()  // No scrape account: ADMIN JWT only
+                : List.of(org.springframework.security.core.userdetails.User.withUsername(username)
+                        .password(passwordEncoder().encode(password))
+                        .roles("METRICS")
+                        .build());
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(new InMemoryUserDetailsManager(accounts));
+        provider.setPasswordEncoder(passwordEncoder());
+        return new ProviderManager(provider);
+    }
+    
     /**
      * Configure HTTP security
      * 
@@ -108,7 +166,8 @@ public class SecurityConfig {
      * Authentication manager
      * 
      * This is what actually performs the authentication check.
-     * Used in AuthController when user logs in.
+     * Note: /api/auth/login does NOT use it - AuthService verifies the password
+     * on PasswordHashingService's own thread pool so BCrypt never blocks request threads.
      */
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) 
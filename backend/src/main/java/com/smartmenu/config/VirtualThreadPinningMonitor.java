@@ -0,0 +1,94 @@
+package com.smartmenu.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Virtual Thread Pinning Monitor
+ * 
+ * TEACHING MOMENT - What is "pinning"?
+ * 
+ * A virtual thread normally gives its carrier (OS) thread back while it waits
+ * for I/O. But if it blocks inside a synchronized block or native code, it stays
+ * "pinned" to the carrier - and with only a handful of carriers, a few pinned
+ * threads can stall the whole server.
+ * 
+ * This listens to the JVM's own jdk.VirtualThreadPinned events (Java Flight
+ * Recorder, in-process) and reports WHERE pinning happens - Mongo driver,
+ * logging, Spring Security, or our code:
+ *  - WARN log with the pinning site and duration
+ *  - counter jvm.threads.virtual.pinned{site=...}
+ * 
+ * Only active when spring.threads.virtual.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private RecordingStream recordingStream;
+    
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${app.virtual-threads.pinning-threshold-ms:20}") long thresholdMs
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+    
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        recordingStream.startAsync();
+        logger.info("Virtual threads enabled - reporting carrier pinning longer than {} ms", threshold.toMillis());
+    }
+    
+    private void onPinned(RecordedEvent event) {
+        String site = pinnedSite(event.getStackTrace());
+        meterRegistry.counter("jvm.threads.virtual.pinned", "site", site).increment();
+        logger.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), site);
+        if (logger.isDebugEnabled() && event.getStackTrace() != null) {
+            logger.debug("Pinned stack:\n{}", event.getStackTrace());
+        }
+    }
+    
+    /**
+     * First frame outside the JDK - that's the code that blocked while pinned
+     */
+    private String pinnedSite(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName();
+            }
+        }
+        return "jdk";
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+}
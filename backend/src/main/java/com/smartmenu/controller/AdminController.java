@@ -0,0 +1,85 @@
+package com.smartmenu.controller;
+
+import com.smartmenu.config.MongoQueryProfiler;
+import com.smartmenu.service.IndexManagementService;
+import com.smartmenu.service.OrderArchiveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin Controller - Operational views for system admins
+ */
+@RestController
+@RequestMapping("/api/admin")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final MongoQueryProfiler mongoQueryProfiler;
+    private final OrderArchiveService orderArchiveService;
+    private final IndexManagementService indexManagementService;
+
+    /**
+     * GET /api/admin/mongo/queries
+     * Latency per query shape, slowest total time first
+     *
+     * Response:
+     * {
+     *   "enabled": true,
+     *   "queries": [
+     *     {
+     *       "shape": "find orders {userId: ?, status: ?} sort {\"createdAt\": -1}",
+     *       "methods": ["OrderRepository.findByUserIdAndStatusOrderByCreatedAtDesc"],
+     *       "count": 1200, "meanMs": 3.1, "p50Ms": 2.0, "p99Ms": 18.4, "maxMs": 40.2,
+     *       "slowCount": 0, "collectionScan": false, "plan": "FETCH <- IXSCAN userId_status_createdAt"
+     *     }, ...
+     *   ]
+     * }
+     */
+    @GetMapping("/mongo/queries")
+    public ResponseEntity<Map<String, Object>> getMongoQueries() {
+        List<Map<String, Object>> queries = mongoQueryProfiler.report();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("enabled", mongoQueryProfiler.isEnabled());
+        response.put("queries", queries);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /api/admin/mongo/indexes
+     * The last index check: missing indexes, uncovered queries and index build
+     * failures (MongoDB's messages, which can quote duplicate values - admins only)
+     */
+    @GetMapping("/mongo/indexes")
+    public ResponseEntity<Map<String, Object>> getMongoIndexes() {
+        return ResponseEntity.ok(indexManagementService.report());
+    }
+
+    /**
+     * GET /api/admin/orders/archive
+     * Archival checkpoint (progress of the current pass, totals) and archive collections
+     */
+    @GetMapping("/orders/archive")
+    public ResponseEntity<Map<String, Object>> getOrderArchiveStatus() {
+        return ResponseEntity.ok(orderArchiveService.status());
+    }
+
+    /**
+     * POST /api/admin/orders/archive/run
+     * Run archival now instead of waiting for the hourly job ("ran": false if another instance is running it)
+     */
+    @PostMapping("/orders/archive/run")
+    public ResponseEntity<Map<String, Object>> runOrderArchive() {
+        return ResponseEntity.ok(orderArchiveService.archive());
+    }
+}
@@ -4,9 +4,13 @@ import com.smartmenu.dto.LoginRequest;
 import com.smartmenu.dto.LoginResponse;
 import com.smartmenu.dto.MessageResponse;
 import com.smartmenu.dto.RegisterRequest;
+import com.smartmenu.security.LoginThrottledException;
 import com.smartmenu.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -106,7 +110,12 @@ public class AuthController {
     public ResponseEntity<MessageResponse> register(@Valid @RequestBody RegisterRequest request) {
         
         // Call service to register user
-        String message = authService.register(request);
+        String message;
+        try {
+            message = authService.register(request);
+        } catch (LoginThrottledException e) {
+            return tooManyRequests(e);
+        }
         
         // Wrap message in MessageResponse
         MessageResponse response = new MessageResponse(message);
@@ -145,6 +154,9 @@ public class AuthController {
      * ERROR RESPONSE (if wrong password):
      * Status 401 Unauthorized
      * 
+     * ERROR RESPONSE (too many attempts, or login is overloaded):
+     * Status 429 Too Many Requests, with a Retry-After header
+     * 
      * TEACHING MOMENT - HOW JWT LOGIN WORKS:
      * 
      * 1. Client sends username + password
@@ -170,10 +182,17 @@ public class AuthController {
      * BUT PHP uses sessions (stored on server), JWT uses tokens (stored on client)
      */
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
         
         // Call service to authenticate and generate token
-        LoginResponse response = authService.login(request);
+        LoginResponse response;
+        try {
+            response = authService.login(request, clientIp(httpRequest));
+        } catch (LoginThrottledException e) {
+            return tooManyRequests(e);
+        }
         
         // Return HTTP 200 OK with token and user info
         return ResponseEntity.ok(response);
@@ -227,4 +246,26 @@ public class AuthController {
     public ResponseEntity<String> getCurrentUser() {
         return ResponseEntity.ok("Feature coming soon - will return current user info");
     }
+
+    /**
+     * Build HTTP 429 response with Retry-After header
+     */
+    private ResponseEntity<MessageResponse> tooManyRequests(LoginThrottledException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new MessageResponse(e.getMessage()));
+    }
+
+    /**
+     * Get the caller's IP
+     * 
+     * Never read X-Forwarded-For here: the client sets it, so a bot could send a
+     * new value with every attempt and get a fresh IP bucket each time. Tomcat's
+     * RemoteIpValve (server.forward-headers-strategy=native) already replaced the
+     * remote address with the forwarded one - but only if the request came
+     * through a trusted proxy (server.tomcat.remoteip.internal-proxies).
+     */
+    private String clientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
 }
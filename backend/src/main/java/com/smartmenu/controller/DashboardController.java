@@ -1,16 +1,26 @@
 package com.smartmenu.controller;
 
 import com.smartmenu.model.Feedback;
+import com.smartmenu.model.Table;
+import com.smartmenu.model.VisitorDailyStats;
 import com.smartmenu.repository.FeedbackRepository;
 import com.smartmenu.repository.MenuItemRepository;
 import com.smartmenu.repository.OrderRepository;
 import com.smartmenu.repository.TableRepository;
+import com.smartmenu.repository.VisitorDailyStatsRepository;
 import com.smartmenu.security.UserDetailsImpl;
+import com.smartmenu.service.OrderArchiveService;
+import com.smartmenu.service.TableCacheService;
+import com.smartmenu.service.UniqueVisitorService;
+import com.smartmenu.util.HyperLogLog;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 /**
@@ -29,6 +39,10 @@ public class DashboardController {
     private final MenuItemRepository menuItemRepository;
     private final TableRepository tableRepository;
     private final FeedbackRepository feedbackRepository;
+    private final OrderArchiveService orderArchiveService;
+    private final VisitorDailyStatsRepository visitorDailyStatsRepository;
+    private final UniqueVisitorService uniqueVisitorService;
+    private final TableCacheService tableCacheService;
 
     /**
      * GET /api/dashboard/stats
@@ -42,8 +56,8 @@ public class DashboardController {
         
         Map<String, Object> stats = new HashMap<>();
         
-        // Count total orders for this user
-        long totalOrders = orderRepository.countByUserId(userId);
+        // Count total orders for this user (including archived ones)
+        long totalOrders = orderArchiveService.countByUserId(userId);
         
         // Count pending orders
         long pendingOrders = orderRepository.countByUserIdAndStatus(userId, "pending");
@@ -158,4 +172,74 @@ public class DashboardController {
         
         return ResponseEntity.ok(recentFeedback);
     }
+
+    /**
+     * GET /api/dashboard/visitors?days=30
+     * New vs returning visitors per day (from VisitorDailyStats, kept after sessions expire)
+     * Days without visitors are left out. Today fills in as the rollup runs (every 15 minutes).
+     */
+    @GetMapping("/visitors")
+    public ResponseEntity<?> getVisitors(
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            @RequestParam(defaultValue = "30") int days
+    ) {
+        if (days < 1 || days > 366) {
+            return ResponseEntity.badRequest().body(Map.of("error", "days must be between 1 and 366"));
+        }
+
+        LocalDate today = LocalDate.now();
+        // Between excludes both ends, so widen by a day on each side
+        List<VisitorDailyStats> stats = visitorDailyStatsRepository.findByUserIdAndDayBetweenOrderByDayAsc(
+                currentUser.getId(), today.minusDays(days), today.plusDays(1));
+
+        List<Map<String, Object>> visitors = new ArrayList<>();
+        for (VisitorDailyStats day : stats) {
+            Map<String, Object> dayData = new HashMap<>();
+            dayData.put("day", day.getDay());
+            dayData.put("newVisitors", day.getNewVisitors());
+            dayData.put("returningVisitors", day.getReturningVisitors());
+            visitors.add(dayData);
+        }
+
+        return ResponseEntity.ok(visitors);
+    }
+
+    /**
+     * GET /api/dashboard/unique-visitors?from=2024-06-01&to=2024-06-07&tableId=...
+     * Distinct devices in a date range (inclusive, default today), for the restaurant
+     * or one table. HyperLogLog estimate: ~0.8% error, answered from memory.
+     */
+    @GetMapping("/unique-visitors")
+    public ResponseEntity<?> getUniqueVisitors(
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String tableId
+    ) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end;
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= UniqueVisitorService.MAX_RANGE_DAYS) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "from must not be after to, and the range is at most " + UniqueVisitorService.MAX_RANGE_DAYS + " days"));
+        }
+
+        long uniqueVisitors;
+        if (tableId != null) {
+            Optional<Table> table = tableCacheService.findById(tableId);
+            if (table.isEmpty() || !currentUser.getId().equals(table.get().getUserId())) {
+                return ResponseEntity.notFound().build();
+            }
+            uniqueVisitors = uniqueVisitorService.countForTable(tableId, start, end);
+        } else {
+            uniqueVisitors = uniqueVisitorService.countForTenant(currentUser.getId(), start, end);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("from", start);
+        response.put("to", end);
+        response.put("tableId", tableId);
+        response.put("uniqueVisitors", uniqueVisitors);
+        response.put("standardError", HyperLogLog.STANDARD_ERROR);
+        return ResponseEntity.ok(response);
+    }
 }
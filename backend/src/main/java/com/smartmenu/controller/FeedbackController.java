@@ -3,6 +3,7 @@ package com.smartmenu.controller;
 import com.smartmenu.model.Feedback;
 import com.smartmenu.repository.FeedbackRepository;
 import com.smartmenu.security.UserDetailsImpl;
+import com.smartmenu.service.BusinessMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -29,6 +30,9 @@ public class FeedbackController {
     @Autowired
     private FeedbackRepository feedbackRepository;
     
+    @Autowired
+    private BusinessMetrics businessMetrics;
+    
     /**
      * Get all feedback with filtering and pagination
      */
@@ -108,6 +112,7 @@ public class FeedbackController {
         feedback.setCreatedAt(LocalDateTime.now());
         
         Feedback savedFeedback = feedbackRepository.save(feedback);
+        businessMetrics.feedbackSubmitted(userId, "staff");
         return ResponseEntity.ok(savedFeedback);
     }
     
@@ -1,5 +1,8 @@
 package com.smartmenu.controller;
 
+import com.smartmenu.service.IndexManagementService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -13,14 +16,29 @@ import java.util.Map;
  */
 @RestController
 @RequestMapping("/api")
+@RequiredArgsConstructor
 public class HealthController {
     
+    private final IndexManagementService indexManagementService;
+    
+    /**
+     * GET /api/health
+     * 503 (status DOWN) if MongoDB is missing an index our queries depend on
+     * (as of the last periodic check - a probe doesn't query MongoDB)
+     *
+     * Public, so status and message only: the index report can contain MongoDB
+     * error messages, and a failed unique index build quotes the duplicate values
+     * (emails, usernames). Admins get the details at GET /api/admin/mongo/indexes.
+     */
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
+        Map<String, Object> indexes = indexManagementService.report();
+        boolean healthy = (boolean) indexes.get("healthy");
+        
         Map<String, Object> response = new HashMap<>();
-        response.put("status", "UP");
-        response.put("message", "SmartMenu Backend is running!");
+        response.put("status", healthy ? "UP" : "DOWN");
+        response.put("message", healthy ? "SmartMenu Backend is running!" : "SmartMenu Backend is missing MongoDB indexes");
         response.put("timestamp", System.currentTimeMillis());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.status(healthy ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(response);
     }
 }
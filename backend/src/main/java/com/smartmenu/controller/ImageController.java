@@ -0,0 +1,163 @@
+package com.smartmenu.controller;
+
+import com.smartmenu.service.ImageStore;
+import com.smartmenu.service.MenuImageService;
+import com.smartmenu.util.FileTransfer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Image Controller - Serves uploaded menu photos (public: used in <img src>)
+ *
+ * GET|HEAD /api/public/images/{hash}/{variant}.jpg   variant = thumb | card | full
+ *
+ * TEACHING MOMENT - Serving files like a web server does
+ *
+ * Returning ResponseEntity<byte[]> would read every photo into the Java heap
+ * and copy it out again. Here:
+ *   - Tomcat's sendfile (the same trick nginx uses): we only tell Tomcat which
+ *     file and which bytes; it hands them to the kernel after we return. Zero-copy.
+ *   - otherwise FileChannel.transferTo into the response's OutputStream (see
+ *     FileTransfer). Not zero-copy - the JDK copies through a small buffer - but
+ *     no whole-file byte[] per request.
+ *
+ * HTTP details browsers and CDNs rely on:
+ *   - ETag "hash-variant": strong, because the hash *is* the content.
+ *     If-None-Match → 304 with no body
+ *   - Cache-Control: immutable, 1 year - the URL changes when the photo does
+ *   - Range: bytes=... → 206 with just those bytes (resumed downloads,
+ *     progressive JPEG previews); If-Range is honored
+ */
+@RestController
+@RequiredArgsConstructor
+public class ImageController {
+
+    // Set by Tomcat when its connector can do sendfile (NIO/NIO2 by default)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_CONTROL =
+            CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable().getHeaderValue();
+
+    private final ImageStore imageStore;
+
+    // Small files are cheaper to just write than to hand over to sendfile
+    @Value("${app.images.sendfile-min-bytes:16384}")
+    private long sendfileMinBytes;
+
+    @RequestMapping(value = "/api/public/images/{hash}/{variant}.jpg", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void image(
+            @PathVariable String hash,
+            @PathVariable String variant,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        if (!ImageStore.isHash(hash) || !MenuImageService.VARIANTS.containsKey(variant)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Path file = imageStore.path(hash, variant + ".jpg");
+        long length;
+        try {
+            length = Files.size(file);
+        } catch (NoSuchFileException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String etag = "\"" + hash + "-" + variant + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();  // Malformed Range header: ignore it, send the whole file
+            }
+            // Several ranges would need multipart/byteranges; sending the whole file is also allowed
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (count >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);  // Exclusive
+            return;  // Tomcat sends the bytes after this method returns
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            FileTransfer.transfer(channel, start, count, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    /**
+     * If-None-Match: "*", one ETag, or a comma-separated list (W/ prefix = weak, same content)
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
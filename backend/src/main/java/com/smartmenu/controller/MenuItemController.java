@@ -1,15 +1,37 @@
 package com.smartmenu.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartmenu.dto.BulkAvailabilityRequest;
+import com.smartmenu.dto.MenuItemPatchRequest;
 import com.smartmenu.dto.MenuItemRequest;
 import com.smartmenu.dto.MenuItemResponse;
+import com.smartmenu.model.MenuItem;
+import com.smartmenu.security.UserDetailsImpl;
+import com.smartmenu.service.ImageProcessingException;
+import com.smartmenu.service.MenuImageService;
+import com.smartmenu.service.MenuItemMapper;
 import com.smartmenu.service.MenuItemService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * MenuItem REST Controller - The gateway between HTTP and your business logic
@@ -30,18 +52,104 @@ import java.util.List;
 @RequiredArgsConstructor
 public class MenuItemController {
     
+    private static final Logger logger = LoggerFactory.getLogger(MenuItemController.class);
+    
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    
     private final MenuItemService menuItemService;
+    private final MenuImageService menuImageService;
+    private final ObjectMapper objectMapper;  // Spring's, so the stream's JSON matches the other endpoints
     
     /**
-     * GET /api/menu-items
-     * Get ALL menu items (all users, all restaurants)
+     * GET /api/menu-items?limit=50&after=<cursor>&category=Drinks&fields=name,price
+     * One page of YOUR restaurant's menu items (it used to return every item of
+     * every restaurant, a response that grew with the whole platform)
+     * 
+     * Response:
+     * {
+     *   "items": [ ... ],
+     *   "nextCursor": "65a1..."   send as ?after= for the next page; null on the last page
+     * }
      * 
-     * Use this for admin dashboard or testing
+     * fields = only these fields (plus id) per item, e.g. for a dropdown of names
      */
     @GetMapping
-    public ResponseEntity<List<MenuItemResponse>> getAllMenuItems() {
-        List<MenuItemResponse> items = menuItemService.getAllMenuItems();
-        return ResponseEntity.ok(items);
+    public ResponseEntity<?> listMenuItems(
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) List<String> fields) {
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        ResponseEntity<?> invalidFields = checkFields(fields);
+        if (invalidFields != null) {
+            return invalidFields;
+        }
+        
+        MenuItemService.MenuItemPage page;
+        try {
+            page = menuItemService.listMenuItems(currentUser.getId(), category, after, pageSize, fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("items", page.items().stream().map(item -> toJson(item, fields)).toList());
+        response.put("nextCursor", page.nextCursor());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * GET /api/menu-items/stream?category=Drinks&fields=name,price
+     * ALL of your menu items as NDJSON (one JSON object per line)
+     * 
+     * For exports and scripts that really need everything: items are read from a
+     * MongoDB cursor and written as they arrive, so neither side holds the whole
+     * menu in memory. Runs off the Tomcat thread (StreamingResponseBody).
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<?> streamMenuItems(
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) List<String> fields) {
+        ResponseEntity<?> invalidFields = checkFields(fields);
+        if (invalidFields != null) {
+            return invalidFields;
+        }
+        
+        String userId = currentUser.getId();
+        StreamingResponseBody body = out -> {
+            try (Stream<MenuItem> items = menuItemService.streamMenuItems(userId, category, fields)) {
+                for (MenuItem item : (Iterable<MenuItem>) items::iterator) {
+                    out.write(objectMapper.writeValueAsBytes(toJson(item, fields)));
+                    out.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+    
+    private Object toJson(MenuItem item, List<String> fields) {
+        return fields != null ? menuItemService.toFields(item, fields) : MenuItemMapper.toResponse(item);
+    }
+    
+    private static ResponseEntity<?> checkFields(List<String> fields) {
+        if (fields != null) {
+            for (String field : fields) {
+                if (!MenuItemService.LIST_FIELDS.containsKey(field)) {
+                    return ResponseEntity.badRequest().body(Map.of("error",
+                            "Unknown field '" + field + "'. Allowed: " + String.join(",", MenuItemService.LIST_FIELDS.keySet())));
+                }
+            }
+        }
+        return null;
     }
     
     /**
@@ -124,26 +232,84 @@ public class MenuItemController {
      * PUT = replace entire resource
      * Must send all fields (even unchanged ones)
      * 
-     * Returns: 200 OK with updated item, or 404 if not found
+     * Returns: 200 OK with updated item, 404 if not found,
+     * or 409 if "version" was sent and the item changed since
      */
     @PutMapping("/{id}")
-    public ResponseEntity<MenuItemResponse> updateMenuItem(
+    public ResponseEntity<?> updateMenuItem(
             @PathVariable String id,
             @Valid @RequestBody MenuItemRequest request) {
         try {
             MenuItemResponse updated = menuItemService.updateMenuItem(id, request);
             return ResponseEntity.ok(updated);
+        } catch (OptimisticLockingFailureException e) {
+            return conflict(id);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
     
+    /**
+     * PATCH /api/menu-items/{id}
+     * Change only the fields you send
+     * 
+     * Example: { "price": 9500, "version": 7 }
+     * 
+     * Returns: 200 OK with the updated item, 404 if not found, or
+     * 409 Conflict with the current item if it changed since "version"
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchMenuItem(
+            @PathVariable String id,
+            @Valid @RequestBody MenuItemPatchRequest request) {
+        try {
+            return ResponseEntity.ok(menuItemService.patchMenuItem(id, request));
+        } catch (OptimisticLockingFailureException e) {
+            return conflict(id);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * PATCH /api/menu-items/availability
+     * Mark many of your items available or unavailable at once
+     * 
+     * Body: { "ids": ["...", "..."], "available": false }
+     * 
+     * Returns: 200 OK with the items that changed (items of other restaurants,
+     * and items already in that state, are left alone)
+     */
+    @PatchMapping("/availability")
+    public ResponseEntity<?> setAvailability(
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            @Valid @RequestBody BulkAvailabilityRequest request) {
+        MenuItemService.AvailabilityChange change = menuItemService.setAvailability(
+                currentUser.getId(), request.getIds(), request.getAvailable());
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("requested", request.getIds().size());
+        response.put("updated", change.updated());
+        response.put("items", change.items());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * 409 Conflict with the item as it is now, so the client can show or merge it
+     */
+    private ResponseEntity<?> conflict(String id) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", "This menu item was changed by someone else. Reload it and try again.");
+        menuItemService.getMenuItemById(id).ifPresent(current -> body.put("current", current));
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+    
     /**
      * PATCH /api/menu-items/{id}/toggle
      * Toggle availability: available → unavailable (or vice versa)
      * 
      * PATCH = partial update (just one field)
-     * No request body needed!
+     * No request body needed! The flip happens inside MongoDB in one update,
+     * so two phones toggling at once never lose a toggle.
      * 
      * Use case: Restaurant runs out of an item, mark unavailable
      * 
@@ -159,6 +325,85 @@ public class MenuItemController {
         }
     }
     
+    /**
+     * POST /api/menu-items/images  (multipart/form-data, field "file")
+     * Upload a photo; returns its URLs (use imageUrl in create/update)
+     * 
+     * Response:
+     * {
+     *   "hash": "3fa9...",
+     *   "imageUrl": "http://.../api/public/images/3fa9.../full.jpg",
+     *   "imageVariants": { "thumb": "...", "card": "...", "full": "..." },
+     *   "duplicate": false
+     * }
+     * 
+     * 201 for a new image, 200 if the same photo was already uploaded.
+     * 400 if not an image, 503 if image processing is busy, 500 if it failed.
+     */
+    @PostMapping(value = "/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadImage(@RequestParam("file") MultipartFile file) {
+        try {
+            MenuImageService.StoredImage image = menuImageService.upload(readUpload(file));
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("hash", image.hash());
+            response.put("imageUrl", image.url());
+            response.put("imageVariants", image.variants());
+            response.put("duplicate", image.duplicate());
+            return ResponseEntity.status(image.duplicate() ? HttpStatus.OK : HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return busy(e);
+        } catch (ImageProcessingException | UncheckedIOException e) {
+            return processingFailed(e);
+        }
+    }
+    
+    /**
+     * POST /api/menu-items/{id}/image  (multipart/form-data, field "file")
+     * Upload a photo and make it this item's image
+     * 
+     * Returns: 200 OK with the updated item, 400 if not an image, 404 if no such item,
+     * 503 if image processing is busy, 500 if it failed
+     */
+    @PostMapping(value = "/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadItemImage(@PathVariable String id, @RequestParam("file") MultipartFile file) {
+        try {
+            return ResponseEntity.ok(menuItemService.attachImage(id, readUpload(file)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return busy(e);
+        } catch (ImageProcessingException | UncheckedIOException e) {
+            return processingFailed(e);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    private static byte[] readUpload(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("file is required");
+        }
+        try {
+            return file.getBytes();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read upload", e);
+        }
+    }
+    
+    private static ResponseEntity<?> processingFailed(RuntimeException e) {
+        logger.error("Image upload failed: {}", e.getMessage(), e);
+        String error = e instanceof UncheckedIOException ? "Could not store image" : "Image processing failed";
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", error));
+    }
+    
+    private static ResponseEntity<?> busy(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "2")
+                .body(Map.of("error", e.getMessage()));
+    }
+    
     /**
      * DELETE /api/menu-items/{id}
      * Delete a menu item
@@ -0,0 +1,77 @@
+package com.smartmenu.controller;
+
+import com.smartmenu.model.Table;
+import com.smartmenu.service.MenuItemMapper;
+import com.smartmenu.service.MenuSearchService;
+import com.smartmenu.service.TableCacheService;
+import com.smartmenu.util.MenuSearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Menu Search Controller - Customers search the menu of the table they're at
+ *
+ * GET /api/public/menu/{tableId}/search?q=pilau&exclude=nuts,dairy&category=Main%20Course&maxPrice=10000&limit=50
+ *
+ * Everything is optional. Only available items are returned. Answered from
+ * memory (MenuSearchService), so filters can be applied on every keystroke.
+ * Public, like the rest of /api/public, and served the same way whichever
+ * app.public-api.mode is active.
+ */
+@RestController
+@RequiredArgsConstructor
+public class MenuSearchController {
+
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 200;
+
+    private final TableCacheService tableCacheService;
+    private final MenuSearchService menuSearchService;
+
+    @GetMapping("/api/public/menu/{tableId}/search")
+    public ResponseEntity<?> search(
+            @PathVariable String tableId,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) List<String> exclude,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer limit
+    ) {
+        int resultLimit = limit != null ? limit : DEFAULT_LIMIT;
+        if (resultLimit < 1 || resultLimit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and " + MAX_LIMIT));
+        }
+        if (maxPrice != null && maxPrice.signum() < 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "maxPrice must not be negative"));
+        }
+
+        Optional<Table> table = tableCacheService.findById(tableId);
+        if (table.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Table not found"));
+        }
+
+        String userId = table.get().getUserId();
+        MenuSearchIndex index = menuSearchService.index(userId);
+        MenuSearchIndex.Result result = menuSearchService.search(index,
+                new MenuSearchIndex.Query(q, exclude, category, maxPrice, true, resultLimit));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("tableId", tableId);
+        response.put("items", result.items().stream().map(MenuItemMapper::toResponse).toList());
+        response.put("total", result.total());
+        response.put("allergens", index.allergens());    // For "no nuts / no dairy" filter chips
+        response.put("categories", index.categories());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,75 @@
+package com.smartmenu.controller;
+
+import com.smartmenu.model.Table;
+import com.smartmenu.security.UserDetailsImpl;
+import com.smartmenu.service.MenuItemMapper;
+import com.smartmenu.service.MenuSyncService;
+import com.smartmenu.service.TableCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Menu Sync Controller - Menu changes since the version a client already has
+ *
+ * GET /api/menu-items/changes?since=41               the current user's menu (staff pages)
+ * GET /api/public/menu/{tableId}/changes?since=41    available items only (returning customers)
+ *
+ * Response:
+ * {
+ *   "version": 43,          remember this, send it as since= next time
+ *   "full": false,          true: items is the whole menu (replace what you have)
+ *   "items": [ ... ],       created or changed items (latest state)
+ *   "deleted": ["65a1..."]  remove these
+ * }
+ *
+ * Leave since out the first time. See MenuSyncService for when a full menu is sent.
+ */
+@RestController
+@RequiredArgsConstructor
+public class MenuSyncController {
+
+    private final MenuSyncService menuSyncService;
+    private final TableCacheService tableCacheService;
+
+    @GetMapping("/api/menu-items/changes")
+    public ResponseEntity<?> myMenuChanges(
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            @RequestParam(required = false) Long since
+    ) {
+        return delta(menuSyncService.changesSince(currentUser.getId(), since, false));
+    }
+
+    @GetMapping("/api/public/menu/{tableId}/changes")
+    public ResponseEntity<?> tableMenuChanges(
+            @PathVariable String tableId,
+            @RequestParam(required = false) Long since
+    ) {
+        Optional<Table> table = tableCacheService.findById(tableId);
+        if (table.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Table not found"));
+        }
+        return delta(menuSyncService.changesSince(table.get().getUserId(), since, true));
+    }
+
+    private ResponseEntity<?> delta(MenuSyncService.MenuDelta delta) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("version", delta.version());
+        response.put("full", delta.full());
+        response.put("items", delta.items().stream().map(MenuItemMapper::toResponse).toList());
+        response.put("deleted", delta.deleted());
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())  // Depends on since=, and changes any moment
+                .body(response);
+    }
+}
@@ -2,6 +2,7 @@ package com.smartmenu.controller;
 
 import com.smartmenu.model.Order;
 import com.smartmenu.repository.OrderRepository;
+import com.smartmenu.service.BusinessMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -22,6 +23,9 @@ public class OrderController {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
     /**
      * GET /api/orders
      * Get all orders for the authenticated restaurant owner
@@ -82,6 +86,9 @@ public class OrderController {
         
         // Save updated order
         Order savedOrder = orderRepository.save(order);
+        if (request.getStatus() != null) {
+            businessMetrics.orderStatusChanged(savedOrder.getUserId(), savedOrder.getStatus().name());
+        }
         
         return ResponseEntity.ok(savedOrder);
     }
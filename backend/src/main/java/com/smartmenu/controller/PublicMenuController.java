@@ -9,26 +9,38 @@ import com.smartmenu.repository.CustomerSessionRepository;
 import com.smartmenu.repository.FeedbackRepository;
 import com.smartmenu.repository.MenuItemRepository;
 import com.smartmenu.repository.OrderRepository;
-import com.smartmenu.repository.TableRepository;
+import com.smartmenu.service.BusinessMetrics;
+import com.smartmenu.service.OrderArchiveService;
+import com.smartmenu.service.OrderService;
+import com.smartmenu.service.TableCacheService;
+import com.smartmenu.service.UniqueVisitorService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Public Menu Controller - No authentication required
  * Allows customers to view menu without logging in
+ * 
+ * Active when app.public-api.mode=mvc (the default).
+ * See ReactivePublicMenuController for the reactive version of the same API.
  */
 @RestController
 @RequestMapping("/api/public")
+@ConditionalOnProperty(name = "app.public-api.mode", havingValue = "mvc", matchIfMissing = true)
 public class PublicMenuController {
     
     @Autowired
-    private TableRepository tableRepository;
+    private TableCacheService tableCacheService;  // Cached table lookups (by id / QR code id)
     
     @Autowired
     private MenuItemRepository menuItemRepository;
@@ -39,16 +51,28 @@ public class PublicMenuController {
     @Autowired
     private OrderRepository orderRepository;
     
+    @Autowired
+    private OrderArchiveService orderArchiveService;  // Order lookups that fall back to the archive
+    
     @Autowired
     private FeedbackRepository feedbackRepository;
     
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private BusinessMetrics businessMetrics;
+    
+    @Autowired
+    private UniqueVisitorService uniqueVisitorService;  // Unique visitors per restaurant/table/day (in memory)
+    
     /**
      * GET /api/public/table/{tableId}
      * Get table information (for customer view)
      */
     @GetMapping("/table/{tableId}")
     public ResponseEntity<?> getTableInfo(@PathVariable String tableId) {
-        Optional<Table> tableOpt = tableRepository.findById(tableId);
+        Optional<Table> tableOpt = tableCacheService.findById(tableId);
         
         if (!tableOpt.isPresent()) {
             Map<String, String> error = new HashMap<>();
@@ -56,15 +80,21 @@ public class PublicMenuController {
             return ResponseEntity.notFound().build();
         }
         
-        Table table = tableOpt.get();
-        Map<String, Object> response = new HashMap<>();
-        response.put("id", table.getId());
-        response.put("tableNumber", table.getTableNumber());
-        response.put("userId", table.getUserId());
-        response.put("qrCodeId", table.getQrCodeId());
-        response.put("qrCodeUrl", table.getQrCodeUrl());
-        
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(tableInfo(tableOpt.get()));
+    }
+    
+    /**
+     * GET /api/public/qr/{qrCodeId}
+     * Get table information from the QR code id printed on the table
+     */
+    @GetMapping("/qr/{qrCodeId}")
+    public ResponseEntity<?> getTableByQrCode(@PathVariable String qrCodeId) {
+        return tableCacheService.findByQrCodeId(qrCodeId)
+                .map(table -> {
+                    businessMetrics.menuScanned(table.getUserId(), "qr");
+                    return ResponseEntity.ok(tableInfo(table));
+                })
+                .orElse(ResponseEntity.notFound().build());
     }
     
     /**
@@ -77,7 +107,7 @@ public class PublicMenuController {
             @RequestParam(required = false) String deviceId
     ) {
         // Get table to find the userId (tenant)
-        Optional<Table> tableOpt = tableRepository.findById(tableId);
+        Optional<Table> tableOpt = tableCacheService.findById(tableId);
         
         if (!tableOpt.isPresent()) {
             Map<String, String> error = new HashMap<>();
@@ -87,6 +117,7 @@ public class PublicMenuController {
         
         Table table = tableOpt.get();
         String userId = table.getUserId();
+        businessMetrics.menuScanned(userId, "menu");
         
         // Track customer session if deviceId provided
         if (deviceId != null && !deviceId.isEmpty()) {
@@ -105,6 +136,82 @@ public class PublicMenuController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * GET /api/public/scan/{tableId}
+     * Everything the customer page needs after a QR scan, in ONE request:
+     * table info + available menu + session status (replaces 3 calls)
+     * 
+     * TEACHING MOMENT - Structured concurrency:
+     * Independent lookups run in parallel on virtual threads. The executor lives
+     * only inside the try-with-resources block - when the block ends, every task
+     * has finished (or was cancelled), so nothing leaks past this request.
+     * 
+     *   step 1: table lookup  ||  session lookup
+     *   step 2: menu query    ||  session save   (both need table.userId)
+     */
+    @GetMapping("/scan/{tableId}")
+    public ResponseEntity<?> scan(
+            @PathVariable String tableId,
+            @RequestParam(required = false) String deviceId
+    ) {
+        boolean trackSession = deviceId != null && !deviceId.isEmpty();
+        
+        try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                Callable<Optional<CustomerSession>> sessionLookup = () -> trackSession
+                        ? customerSessionRepository.findByDeviceId(deviceId)
+                        : Optional.empty();
+                Future<Optional<Table>> tableTask = scope.submit(() -> tableCacheService.findById(tableId));
+                Future<Optional<CustomerSession>> sessionTask = scope.submit(sessionLookup);
+                
+                Optional<Table> tableOpt = tableTask.get();
+                if (tableOpt.isEmpty()) {
+                    sessionTask.cancel(true);
+                    return ResponseEntity.notFound().build();
+                }
+                
+                Table table = tableOpt.get();
+                String userId = table.getUserId();
+                businessMetrics.menuScanned(userId, "scan");
+                
+                Future<List<MenuItem>> menuTask = scope.submit(() -> menuItemRepository.findByUserIdAndAvailableTrue(userId));
+                Future<CustomerSession> sessionSaveTask = trackSession
+                        ? scope.submit(() -> customerSessionRepository.save(recordVisit(sessionTask.get(), deviceId, tableId, userId)))
+                        : null;
+                
+                List<MenuItem> menuItems = menuTask.get();
+                CustomerSession session = sessionSaveTask != null ? sessionSaveTask.get() : null;
+                
+                Map<String, Object> sessionInfo = new HashMap<>();
+                sessionInfo.put("isReturningCustomer", session != null && session.getVisitCount() > 1);
+                if (session != null) {
+                    sessionInfo.put("sessionId", session.getId());
+                    sessionInfo.put("visitCount", session.getVisitCount());
+                    sessionInfo.put("customerName", session.getCustomerName());
+                    sessionInfo.put("lastVisit", session.getLastVisit());
+                }
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("table", tableInfo(table));
+                response.put("menuItems", menuItems);
+                response.put("totalItems", menuItems.size());
+                response.put("session", sessionInfo);
+                
+                return ResponseEntity.ok(response);
+                
+            } catch (ExecutionException e) {
+                scope.shutdownNow();  // One lookup failed - cancel the rest
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Failed to load menu: " + e.getCause().getMessage());
+                return ResponseEntity.internalServerError().body(error);
+            } catch (InterruptedException e) {
+                scope.shutdownNow();
+                Thread.currentThread().interrupt();
+                return ResponseEntity.internalServerError().build();
+            }
+        }
+    }
+    
     /**
      * POST /api/public/session
      * Track or update customer session
@@ -123,7 +230,7 @@ public class PublicMenuController {
         }
         
         // Get table to find userId
-        Optional<Table> tableOpt = tableRepository.findById(tableId);
+        Optional<Table> tableOpt = tableCacheService.findById(tableId);
         if (!tableOpt.isPresent()) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Table not found");
@@ -131,6 +238,7 @@ public class PublicMenuController {
         }
         
         String userId = tableOpt.get().getUserId();
+        uniqueVisitorService.record(userId, tableId, deviceId);
         
         // Find or create session
         Optional<CustomerSession> existingSession = customerSessionRepository.findByDeviceId(deviceId);
@@ -140,7 +248,9 @@ public class PublicMenuController {
             session = existingSession.get();
             session.setVisitCount(session.getVisitCount() + 1);
             session.setLastVisit(LocalDateTime.now());
+            session.setPendingRollup(true);
             session.setTableId(tableId);
+            session.setUserId(userId);
             session.setUpdatedAt(LocalDateTime.now());
             
             if (customerName != null) session.setCustomerName(customerName);
@@ -188,21 +298,37 @@ public class PublicMenuController {
         return ResponseEntity.ok(response);
     }
     
+    // Public view of a table (what customers are allowed to see)
+    private Map<String, Object> tableInfo(Table table) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("id", table.getId());
+        info.put("tableNumber", table.getTableNumber());
+        info.put("userId", table.getUserId());
+        info.put("qrCodeId", table.getQrCodeId());
+        info.put("qrCodeUrl", table.getQrCodeUrl());
+        return info;
+    }
+    
     // Helper method to track customer session
     private void trackCustomerSession(String deviceId, String tableId, String userId) {
         Optional<CustomerSession> existingSession = customerSessionRepository.findByDeviceId(deviceId);
-        
-        if (existingSession.isPresent()) {
-            CustomerSession session = existingSession.get();
-            session.setVisitCount(session.getVisitCount() + 1);
-            session.setLastVisit(LocalDateTime.now());
-            session.setTableId(tableId);
-            session.setUpdatedAt(LocalDateTime.now());
-            customerSessionRepository.save(session);
-        } else {
-            CustomerSession newSession = new CustomerSession(deviceId, tableId, userId);
-            customerSessionRepository.save(newSession);
+        customerSessionRepository.save(recordVisit(existingSession, deviceId, tableId, userId));
+    }
+    
+    // Count a visit on an existing session, or start a new one (not saved yet)
+    private CustomerSession recordVisit(Optional<CustomerSession> existingSession, String deviceId, String tableId, String userId) {
+        uniqueVisitorService.record(userId, tableId, deviceId);
+        if (existingSession.isEmpty()) {
+            return new CustomerSession(deviceId, tableId, userId);
         }
+        CustomerSession session = existingSession.get();
+        session.setVisitCount(session.getVisitCount() + 1);
+        session.setLastVisit(LocalDateTime.now());
+        session.setPendingRollup(true);
+        session.setTableId(tableId);
+        session.setUserId(userId);  // Count the visit for the restaurant visited now
+        session.setUpdatedAt(LocalDateTime.now());
+        return session;
     }
     
     /**
@@ -226,7 +352,7 @@ public class PublicMenuController {
             }
             
             // Get table info
-            Optional<Table> tableOpt = tableRepository.findById(tableId);
+            Optional<Table> tableOpt = tableCacheService.findById(tableId);
             if (!tableOpt.isPresent()) {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Table not found");
@@ -235,43 +361,13 @@ public class PublicMenuController {
             
             Table table = tableOpt.get();
             
-            // Create order
-            Order order = new Order();
-            order.setUserId(table.getUserId());
-            order.setTableId(tableId);
-            order.setTableNumber(table.getTableNumber());
-            order.setDeviceId(deviceId);
-            order.setCustomerName(customerName);
-            order.setStatus(Order.OrderStatus.PENDING);
-            
-            // Generate order number
-            String orderNumber = generateOrderNumber();
-            order.setOrderNumber(orderNumber);
-            
-            // Process order items
-            List<Order.OrderItem> orderItems = new ArrayList<>();
-            BigDecimal total = BigDecimal.ZERO;
-            
-            for (Map<String, Object> item : items) {
-                Order.OrderItem orderItem = new Order.OrderItem();
-                orderItem.setMenuItemId((String) item.get("id"));
-                orderItem.setMenuItemName((String) item.get("name"));
-                orderItem.setPrice(BigDecimal.valueOf(((Number) item.get("price")).doubleValue()));
-                orderItem.setQuantity(((Number) item.get("quantity")).intValue());
-                orderItem.setSpecialInstructions((String) item.get("specialInstructions"));
-                
-                orderItems.add(orderItem);
-                total = total.add(orderItem.getPrice().multiply(BigDecimal.valueOf(orderItem.getQuantity())));
-            }
-            
-            order.setItems(orderItems);
-            order.setSubtotal(total);
-            order.setTotal(total);
-            order.setCreatedAt(LocalDateTime.now());
-            order.setUpdatedAt(LocalDateTime.now());
+            // Create order (items, totals and order number)
+            Order order = orderService.buildOrder(table, deviceId, customerName, items);
+            String orderNumber = order.getOrderNumber();
             
             // Save order
             order = orderRepository.save(order);
+            businessMetrics.orderPlaced(order.getUserId());
             
             // Update customer session if customerName provided
             if (customerName != null && deviceId != null) {
@@ -305,7 +401,7 @@ public class PublicMenuController {
      */
     @GetMapping("/order/{orderNumber}")
     public ResponseEntity<?> getOrderStatus(@PathVariable String orderNumber) {
-        Optional<Order> orderOpt = orderRepository.findByOrderNumber(orderNumber);
+        Optional<Order> orderOpt = orderArchiveService.findByOrderNumber(orderNumber);
         
         if (!orderOpt.isPresent()) {
             Map<String, String> error = new HashMap<>();
@@ -330,7 +426,7 @@ public class PublicMenuController {
             String comments = (String) feedbackRequest.get("comments");
             
             // Find the order
-            Optional<Order> orderOpt = orderRepository.findByOrderNumber(orderNumber);
+            Optional<Order> orderOpt = orderArchiveService.findByOrderNumber(orderNumber);
             if (!orderOpt.isPresent()) {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Order not found");
@@ -352,6 +448,7 @@ public class PublicMenuController {
             
             // Save feedback
             feedbackRepository.save(feedback);
+            businessMetrics.feedbackSubmitted(order.getUserId(), "customer");
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -365,12 +462,4 @@ public class PublicMenuController {
             return ResponseEntity.internalServerError().body(error);
         }
     }
-    
-    // Generate unique order number
-    private String generateOrderNumber() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
-        String timestamp = LocalDateTime.now().format(formatter);
-        int random = (int) (Math.random() * 1000);
-        return "ORD" + timestamp + String.format("%03d", random);
-    }
 }
@@ -0,0 +1,248 @@
+package com.smartmenu.controller;
+
+import com.smartmenu.model.Table;
+import com.smartmenu.model.TableQrImage;
+import com.smartmenu.repository.TableRepository;
+import com.smartmenu.security.UserDetailsImpl;
+import com.smartmenu.service.QrCodeService;
+import com.smartmenu.service.QrExportService;
+import com.smartmenu.service.TableCacheService;
+import com.smartmenu.service.TableService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * QR Code Controller - Table QR codes as images
+ *
+ * GET /api/public/table/{tableId}/qr   one table, PNG or SVG, 150/300/600 px (public: used in <img src>)
+ * GET /api/tables/{id}/qr              one of the current user's tables, any size
+ * GET /api/tables/qr-codes             every table of the current user, rendered in parallel
+ * GET /api/tables/qr-codes/export      printable sheet (HTML) or ZIP of PNGs, streamed page by page
+ * GET /api/tables/{id}/qr-image        the table's stored PNG (table_qr_images, created on first use)
+ *
+ * Images carry an ETag (a hash of what's encoded), so browsers and print dialogs
+ * re-requesting the same code get "304 Not Modified" and no image bytes.
+ */
+@RestController
+@RequiredArgsConstructor
+public class QrCodeController {
+
+    private final QrCodeService qrCodeService;
+    private final TableCacheService tableCacheService;
+    private final TableRepository tableRepository;
+    private final QrExportService qrExportService;
+    private final TableService tableService;
+
+    @Value("${app.qr.default-size:300}")
+    private int defaultSize;
+
+    /**
+     * GET /api/public/table/{tableId}/qr?format=png|svg&size=300
+     * Public, so only the sizes in QrCodeService.PUBLIC_SIZES
+     */
+    @GetMapping("/api/public/table/{tableId}/qr")
+    public ResponseEntity<?> tableQrCode(
+            @PathVariable String tableId,
+            @RequestParam(defaultValue = "png") String format,
+            @RequestParam(required = false) Integer size,
+            WebRequest request
+    ) {
+        QrCodeService.Format imageFormat = parseFormat(format);
+        int imageSize = size != null ? size : defaultSize;
+        if (imageFormat == null || !QrCodeService.PUBLIC_SIZES.contains(imageSize)) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "format must be png or svg, size one of " + QrCodeService.PUBLIC_SIZES
+                            + " (other sizes: GET /api/tables/{id}/qr)"));
+        }
+
+        Optional<Table> table = tableCacheService.findById(tableId);
+        if (table.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Table not found"));
+        }
+        return qrImage(table.get(), imageFormat, imageSize, CacheControl.maxAge(Duration.ofHours(1)).cachePublic(), request);
+    }
+
+    /**
+     * GET /api/tables/{id}/qr?format=png|svg&size=1200
+     * One of the current user's tables at any size (e.g. a large print)
+     */
+    @GetMapping("/api/tables/{id}/qr")
+    public ResponseEntity<?> ownTableQrCode(
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            @PathVariable String id,
+            @RequestParam(defaultValue = "png") String format,
+            @RequestParam(required = false) Integer size,
+            WebRequest request
+    ) {
+        QrCodeService.Format imageFormat = parseFormat(format);
+        int imageSize = size != null ? size : defaultSize;
+        if (imageFormat == null || imageSize < QrCodeService.MIN_SIZE || imageSize > QrCodeService.MAX_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "format must be png or svg, size between " + QrCodeService.MIN_SIZE + " and " + QrCodeService.MAX_SIZE));
+        }
+
+        Optional<Table> table = tableCacheService.findById(id);
+        if (table.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Table not found"));
+        }
+        if (!Objects.equals(table.get().getUserId(), currentUser.getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Not allowed to access this table"));
+        }
+        return qrImage(table.get(), imageFormat, imageSize, CacheControl.maxAge(Duration.ofHours(1)).cachePrivate(), request);
+    }
+
+    /**
+     * GET /api/tables/qr-codes?format=png|svg&size=300
+     * All tables of the current user with their QR code as a data URI (for print sheets)
+     */
+    @GetMapping("/api/tables/qr-codes")
+    public ResponseEntity<?> venueQrCodes(
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            @RequestParam(defaultValue = "png") String format,
+            @RequestParam(required = false) Integer size
+    ) {
+        QrCodeService.Format imageFormat = parseFormat(format);
+        int imageSize = size != null ? size : defaultSize;
+        if (imageFormat == null || imageSize < QrCodeService.MIN_SIZE || imageSize > QrCodeService.MAX_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "format must be png or svg, size between " + QrCodeService.MIN_SIZE + " and " + QrCodeService.MAX_SIZE));
+        }
+
+        List<Table> tables = tableRepository.findByUserId(currentUser.getId());
+        List<QrCodeService.QrImage> images = qrCodeService.renderAll(
+                tables.stream().map(qrCodeService::tableUrl).toList(), imageFormat, imageSize);
+
+        List<Map<String, Object>> codes = new ArrayList<>(tables.size());
+        for (int i = 0; i < tables.size(); i++) {
+            Table table = tables.get(i);
+            Map<String, Object> code = new LinkedHashMap<>();
+            code.put("tableId", table.getId());
+            code.put("tableNumber", table.getTableNumber());
+            code.put("room", table.isRoom());
+            code.put("url", qrCodeService.tableUrl(table));
+            code.put("image", images.get(i).toDataUri());
+            codes.add(code);
+        }
+        return ResponseEntity.ok(codes);
+    }
+
+    /**
+     * GET /api/tables/{id}/qr-image
+     * The stored QR image of one of the current user's tables (download)
+     */
+    @GetMapping("/api/tables/{id}/qr-image")
+    public ResponseEntity<?> storedQrImage(
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            @PathVariable String id,
+            WebRequest request
+    ) {
+        Optional<Table> table = tableCacheService.findById(id);
+        if (table.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Table not found"));
+        }
+        if (!Objects.equals(table.get().getUserId(), currentUser.getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Not allowed to access this table"));
+        }
+
+        String etag = qrCodeService.etag(qrCodeService.tableUrl(table.get()), QrCodeService.Format.PNG, TableService.QR_IMAGE_SIZE);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        TableQrImage image = tableService.qrImage(table.get());
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_PNG)
+                .eTag(etag)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("table-" + table.get().getTableNumber() + ".png", StandardCharsets.UTF_8).build().toString())
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePrivate())
+                .body(image.getPng());
+    }
+
+    /**
+     * GET /api/tables/qr-codes/export?format=html|zip&size=300&ids=a,b,c
+     *
+     * The response is written while it's being rendered (StreamingResponseBody runs
+     * on a separate thread, the Tomcat thread is released). ids limits the export to
+     * selected tables; size only applies to the ZIP's PNGs (the sheet is vector).
+     */
+    @GetMapping("/api/tables/qr-codes/export")
+    public ResponseEntity<?> exportQrCodes(
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            @RequestParam(defaultValue = "html") String format,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) List<String> ids
+    ) {
+        int imageSize = size != null ? size : defaultSize;
+        if (imageSize < QrCodeService.MIN_SIZE || imageSize > QrCodeService.MAX_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "size must be between " + QrCodeService.MIN_SIZE + " and " + QrCodeService.MAX_SIZE));
+        }
+
+        String userId = currentUser.getId();
+        Set<String> tableIds = ids != null && !ids.isEmpty() ? new HashSet<>(ids) : null;
+
+        StreamingResponseBody body;
+        MediaType contentType;
+        ContentDisposition disposition;
+        switch (format.toLowerCase(Locale.ROOT)) {
+            case "zip" -> {
+                body = out -> qrExportService.writeZip(userId, tableIds, imageSize, out);
+                contentType = MediaType.parseMediaType("application/zip");
+                disposition = ContentDisposition.attachment().filename("qr-codes.zip").build();
+            }
+            case "html" -> {
+                body = out -> qrExportService.writeSheet(userId, tableIds, out);
+                contentType = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+                disposition = ContentDisposition.inline().filename("qr-codes.html").build();
+            }
+            default -> {
+                return ResponseEntity.badRequest().body(Map.of("error", "format must be html or zip"));
+            }
+        }
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+
+    private ResponseEntity<?> qrImage(Table table, QrCodeService.Format format, int size,
+                                      CacheControl cacheControl, WebRequest request) {
+        String content = qrCodeService.tableUrl(table);
+        // Answer If-None-Match before rendering anything
+        if (request.checkNotModified(qrCodeService.etag(content, format, size))) {
+            return null;
+        }
+
+        QrCodeService.QrImage image = qrCodeService.render(content, format, size);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType()))
+                .eTag(image.etag())
+                .cacheControl(cacheControl)
+                .body(image.bytes());
+    }
+
+    private static QrCodeService.Format parseFormat(String format) {
+        return switch (format.toLowerCase(Locale.ROOT)) {
+            case "png" -> QrCodeService.Format.PNG;
+            case "svg" -> QrCodeService.Format.SVG;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,385 @@
+package com.smartmenu.controller;
+
+import com.smartmenu.model.CustomerSession;
+import com.smartmenu.model.Feedback;
+import com.smartmenu.model.MenuItem;
+import com.smartmenu.model.Order;
+import com.smartmenu.model.Table;
+import com.smartmenu.repository.reactive.ReactiveCustomerSessionRepository;
+import com.smartmenu.repository.reactive.ReactiveFeedbackRepository;
+import com.smartmenu.repository.reactive.ReactiveMenuItemRepository;
+import com.smartmenu.repository.reactive.ReactiveOrderRepository;
+import com.smartmenu.service.BusinessMetrics;
+import com.smartmenu.service.OrderArchiveService;
+import com.smartmenu.service.OrderService;
+import com.smartmenu.service.TableCacheService;
+import com.smartmenu.service.UniqueVisitorService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reactive Public Menu Controller - same API as PublicMenuController, non-blocking
+ *
+ * TEACHING MOMENT - Why reactive?
+ *
+ * The public endpoints mostly wait on MongoDB (table lookup, menu query, session
+ * upsert). In the MVC version a thread sits blocked during each wait. Here every
+ * query returns a Mono (0..1 result) or Flux (0..N results) right away, and the
+ * response is assembled when the data arrives - no thread is parked meanwhile.
+ * Independent queries run at the same time with Mono.zip.
+ *
+ * Active when app.public-api.mode=reactive. Spring MVC subscribes to the returned
+ * Mono/Flux itself, so the rest of the (servlet) app is unchanged.
+ */
+@RestController
+@RequestMapping("/api/public")
+@ConditionalOnProperty(name = "app.public-api.mode", havingValue = "reactive")
+@RequiredArgsConstructor
+public class ReactivePublicMenuController {
+
+    private final TableCacheService tableCacheService;  // Cached table lookups (by id / QR code id)
+    private final ReactiveMenuItemRepository menuItemRepository;
+    private final ReactiveCustomerSessionRepository customerSessionRepository;
+    private final ReactiveOrderRepository orderRepository;
+    private final OrderArchiveService orderArchiveService;  // Archived (old) orders, blocking lookups
+    private final ReactiveFeedbackRepository feedbackRepository;
+    private final OrderService orderService;
+    private final BusinessMetrics businessMetrics;
+    private final UniqueVisitorService uniqueVisitorService;  // In memory, safe to call on the event loop
+
+    /**
+     * GET /api/public/table/{tableId}
+     * Get table information (for customer view)
+     */
+    @GetMapping("/table/{tableId}")
+    public Mono<ResponseEntity<Object>> getTableInfo(@PathVariable String tableId) {
+        return tableCacheService.findByIdReactive(tableId)
+                .map(table -> ok(tableInfo(table)))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET /api/public/qr/{qrCodeId}
+     * Get table information from the QR code id printed on the table
+     *
+     * Served from the table cache; a miss does one (blocking) indexed lookup
+     * on the bounded-elastic scheduler.
+     */
+    @GetMapping("/qr/{qrCodeId}")
+    public Mono<ResponseEntity<Object>> getTableByQrCode(@PathVariable String qrCodeId) {
+        return Mono.fromCallable(() -> tableCacheService.findByQrCodeId(qrCodeId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty)
+                .doOnNext(table -> businessMetrics.menuScanned(table.getUserId(), "qr"))
+                .map(table -> ok(tableInfo(table)))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET /api/public/menu/{tableId}
+     * Get menu items for a specific table's restaurant
+     *
+     * Table lookup and session lookup run concurrently; then the session save
+     * and the menu query (both need the table's userId) run concurrently.
+     */
+    @GetMapping("/menu/{tableId}")
+    public Mono<ResponseEntity<Object>> getMenuForTable(
+            @PathVariable String tableId,
+            @RequestParam(required = false) String deviceId
+    ) {
+        boolean trackSession = deviceId != null && !deviceId.isEmpty();
+        Mono<Optional<CustomerSession>> sessionLookup = trackSession
+                ? customerSessionRepository.findByDeviceId(deviceId).map(Optional::of).defaultIfEmpty(Optional.empty())
+                : Mono.just(Optional.empty());
+
+        return Mono.zip(tableCacheService.findByIdReactive(tableId), sessionLookup)
+                .flatMap(tuple -> {
+                    Table table = tuple.getT1();
+                    String userId = table.getUserId();
+                    businessMetrics.menuScanned(userId, "menu");
+
+                    Mono<Boolean> sessionSave = trackSession
+                            ? customerSessionRepository.save(visit(tuple.getT2(), deviceId, tableId, userId)).thenReturn(true)
+                            : Mono.just(false);
+                    Mono<List<MenuItem>> menuItems = menuItemRepository.findByUserIdAndAvailableTrue(userId).collectList();
+
+                    return Mono.zip(menuItems, sessionSave).map(result -> {
+                        Map<String, Object> response = new HashMap<>();
+                        response.put("tableId", tableId);
+                        response.put("tableNumber", table.getTableNumber());
+                        response.put("menuItems", result.getT1());
+                        response.put("totalItems", result.getT1().size());
+                        return ok(response);
+                    });
+                })
+                .defaultIfEmpty(error(HttpStatus.BAD_REQUEST, "Table not found"));
+    }
+
+    /**
+     * GET /api/public/scan/{tableId}
+     * Table info + available menu + session status in ONE request
+     *
+     * Same response as PublicMenuController.scan; Mono.zip gives the same
+     * "run together, fail together" structure as the MVC version's task scope.
+     */
+    @GetMapping("/scan/{tableId}")
+    public Mono<ResponseEntity<Object>> scan(
+            @PathVariable String tableId,
+            @RequestParam(required = false) String deviceId
+    ) {
+        boolean trackSession = deviceId != null && !deviceId.isEmpty();
+        Mono<Optional<CustomerSession>> sessionLookup = trackSession
+                ? customerSessionRepository.findByDeviceId(deviceId).map(Optional::of).defaultIfEmpty(Optional.empty())
+                : Mono.just(Optional.empty());
+
+        return Mono.zip(tableCacheService.findByIdReactive(tableId), sessionLookup)
+                .flatMap(tuple -> {
+                    Table table = tuple.getT1();
+                    String userId = table.getUserId();
+                    businessMetrics.menuScanned(userId, "scan");
+
+                    Mono<Optional<CustomerSession>> sessionSave = trackSession
+                            ? customerSessionRepository.save(visit(tuple.getT2(), deviceId, tableId, userId)).map(Optional::of)
+                            : Mono.just(Optional.empty());
+                    Mono<List<MenuItem>> menuItems = menuItemRepository.findByUserIdAndAvailableTrue(userId).collectList();
+
+                    return Mono.zip(menuItems, sessionSave).map(result -> {
+                        CustomerSession session = result.getT2().orElse(null);
+                        Map<String, Object> sessionInfo = new HashMap<>();
+                        sessionInfo.put("isReturningCustomer", session != null && session.getVisitCount() > 1);
+                        if (session != null) {
+                            sessionInfo.put("sessionId", session.getId());
+                            sessionInfo.put("visitCount", session.getVisitCount());
+                            sessionInfo.put("customerName", session.getCustomerName());
+                            sessionInfo.put("lastVisit", session.getLastVisit());
+                        }
+
+                        Map<String, Object> response = new HashMap<>();
+                        response.put("table", tableInfo(table));
+                        response.put("menuItems", result.getT1());
+                        response.put("totalItems", result.getT1().size());
+                        response.put("session", sessionInfo);
+                        return ok(response);
+                    });
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(e -> Mono.just(error(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to load menu: " + e.getMessage())));
+    }
+
+    /**
+     * GET /api/public/menu/{tableId}/items
+     * Stream available menu items as newline-delimited JSON (one item per line)
+     *
+     * The first items reach the phone before Mongo has returned the last one.
+     */
+    @GetMapping(value = "/menu/{tableId}/items", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MenuItem> streamMenuForTable(@PathVariable String tableId) {
+        return tableCacheService.findByIdReactive(tableId)
+                .flatMapMany(table -> menuItemRepository.findByUserIdAndAvailableTrue(table.getUserId()));
+    }
+
+    /**
+     * POST /api/public/session
+     * Track or update customer session
+     */
+    @PostMapping("/session")
+    public Mono<ResponseEntity<Object>> trackSession(@RequestBody Map<String, String> sessionData) {
+        String deviceId = sessionData.get("deviceId");
+        String tableId = sessionData.get("tableId");
+        String customerName = sessionData.get("customerName");
+        String customerPhone = sessionData.get("customerPhone");
+
+        if (deviceId == null || tableId == null) {
+            return Mono.just(error(HttpStatus.BAD_REQUEST, "deviceId and tableId are required"));
+        }
+
+        // Table lookup and existing-session lookup at the same time
+        Mono<Optional<CustomerSession>> sessionLookup = customerSessionRepository.findByDeviceId(deviceId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+
+        return Mono.zip(tableCacheService.findByIdReactive(tableId), sessionLookup)
+                .flatMap(tuple -> {
+                    CustomerSession session = visit(tuple.getT2(), deviceId, tableId, tuple.getT1().getUserId());
+                    if (customerName != null) session.setCustomerName(customerName);
+                    if (customerPhone != null) session.setCustomerPhone(customerPhone);
+                    return customerSessionRepository.save(session);
+                })
+                .map(session -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("sessionId", session.getId());
+                    response.put("visitCount", session.getVisitCount());
+                    response.put("isReturningCustomer", session.getVisitCount() > 1);
+                    response.put("customerName", session.getCustomerName());
+                    return ok(response);
+                })
+                .defaultIfEmpty(error(HttpStatus.BAD_REQUEST, "Table not found"));
+    }
+
+    /**
+     * GET /api/public/session/{deviceId}
+     * Get customer session info
+     */
+    @GetMapping("/session/{deviceId}")
+    public Mono<ResponseEntity<Object>> getSession(@PathVariable String deviceId) {
+        return customerSessionRepository.findByDeviceId(deviceId)
+                .map(session -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("sessionId", session.getId());
+                    response.put("visitCount", session.getVisitCount());
+                    response.put("isReturningCustomer", session.getVisitCount() > 1);
+                    response.put("customerName", session.getCustomerName());
+                    response.put("lastVisit", session.getLastVisit());
+                    return ok(response);
+                })
+                .defaultIfEmpty(ok(Map.of("message", "No session found", "isReturningCustomer", "false")));
+    }
+
+    /**
+     * POST /api/public/order
+     * Place a new order from customer
+     */
+    @PostMapping("/order")
+    public Mono<ResponseEntity<Object>> placeOrder(@RequestBody Map<String, Object> orderRequest) {
+        String tableId = (String) orderRequest.get("tableId");
+        String deviceId = (String) orderRequest.get("deviceId");
+        String customerName = (String) orderRequest.get("customerName");
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> items = (List<Map<String, Object>>) orderRequest.get("items");
+
+        // Validate
+        if (tableId == null || items == null || items.isEmpty()) {
+            return Mono.just(error(HttpStatus.BAD_REQUEST, "Table ID and items are required"));
+        }
+
+        return tableCacheService.findByIdReactive(tableId)
+                .flatMap(table -> orderRepository.save(orderService.buildOrder(table, deviceId, customerName, items)))
+                .doOnNext(order -> businessMetrics.orderPlaced(order.getUserId()))
+                .flatMap(order -> {
+                    // Update customer session name, then respond. Sequential on purpose:
+                    // .then() waits for the save, so the next request sees the new name.
+                    // Building the map below is not worth running alongside it.
+                    Mono<CustomerSession> sessionUpdate = (customerName != null && deviceId != null)
+                            ? customerSessionRepository.findByDeviceId(deviceId)
+                                    .flatMap(session -> {
+                                        session.setCustomerName(customerName);
+                                        return customerSessionRepository.save(session);
+                                    })
+                            : Mono.empty();
+
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("orderNumber", order.getOrderNumber());
+                    response.put("orderId", order.getId());
+                    response.put("status", order.getStatus().toString());
+                    response.put("message", "Oda imefanikiwa! Order placed successfully!");
+                    return sessionUpdate.then(Mono.just(ok(response)));
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(e -> Mono.just(error(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to place order: " + e.getMessage())));
+    }
+
+    /**
+     * GET /api/public/order/{orderNumber}
+     * Track order status
+     */
+    @GetMapping("/order/{orderNumber}")
+    public Mono<ResponseEntity<Object>> getOrderStatus(@PathVariable String orderNumber) {
+        return findByOrderNumber(orderNumber)
+                .map(order -> ok(order))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * POST /api/public/feedback
+     * Submit customer feedback
+     */
+    @PostMapping("/feedback")
+    public Mono<ResponseEntity<Object>> submitFeedback(@RequestBody Map<String, Object> feedbackRequest) {
+        String orderNumber = (String) feedbackRequest.get("orderNumber");
+        Integer rating = (Integer) feedbackRequest.get("rating");
+        String comments = (String) feedbackRequest.get("comments");
+
+        return findByOrderNumber(orderNumber)
+                .flatMap(order -> {
+                    Feedback feedback = new Feedback();
+                    feedback.setUserId(order.getUserId());
+                    feedback.setOrderId(order.getId());
+                    feedback.setOrderNumber(orderNumber);
+                    feedback.setTableNumber(order.getTableNumber());
+                    feedback.setTotalAmount(order.getTotal().doubleValue());
+                    feedback.setRating(rating);
+                    feedback.setComments(comments);
+                    feedback.setCreatedAt(LocalDateTime.now());
+                    return feedbackRepository.save(feedback);
+                })
+                .doOnNext(saved -> businessMetrics.feedbackSubmitted(saved.getUserId(), "customer"))
+                .map(saved -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("message", "Asante! Thank you for your feedback!");
+                    return ok(response);
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(e -> Mono.just(error(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to submit feedback: " + e.getMessage())));
+    }
+
+    // Public view of a table (what customers are allowed to see)
+    private Map<String, Object> tableInfo(Table table) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("id", table.getId());
+        info.put("tableNumber", table.getTableNumber());
+        info.put("userId", table.getUserId());
+        info.put("qrCodeId", table.getQrCodeId());
+        info.put("qrCodeUrl", table.getQrCodeUrl());
+        return info;
+    }
+
+    // Record a visit on an existing session, or start a new one
+    private CustomerSession visit(Optional<CustomerSession> existing, String deviceId, String tableId, String userId) {
+        uniqueVisitorService.record(userId, tableId, deviceId);
+        if (existing.isEmpty()) {
+            return new CustomerSession(deviceId, tableId, userId);
+        }
+        CustomerSession session = existing.get();
+        session.setVisitCount(session.getVisitCount() + 1);
+        session.setLastVisit(LocalDateTime.now());
+        session.setPendingRollup(true);
+        session.setTableId(tableId);
+        session.setUserId(userId);  // Count the visit for the restaurant visited now
+        session.setUpdatedAt(LocalDateTime.now());
+        return session;
+    }
+
+    private static ResponseEntity<Object> ok(Object body) {
+        return ResponseEntity.ok(body);
+    }
+
+    private static ResponseEntity<Object> error(HttpStatus status, String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return ResponseEntity.status(status).body(error);
+    }
+
+    /**
+     * Active orders first, then the archive (blocking Mongo driver, so off the event loop)
+     */
+    private Mono<Order> findByOrderNumber(String orderNumber) {
+        return orderRepository.findByOrderNumber(orderNumber)
+                .switchIfEmpty(Mono.fromCallable(() -> orderArchiveService.findArchivedByOrderNumber(orderNumber).orElse(null))
+                        .subscribeOn(Schedulers.boundedElastic()));  // null = empty Mono
+    }
+}
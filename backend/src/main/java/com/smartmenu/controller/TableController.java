@@ -1,10 +1,17 @@
 package com.smartmenu.controller;
 
+import com.smartmenu.dto.BulkTableRequest;
+import com.smartmenu.dto.BulkTableResult;
+import com.smartmenu.dto.TableRequest;
 import com.smartmenu.model.Table;
+import com.smartmenu.repository.TableQrImageRepository;
 import com.smartmenu.repository.TableRepository;
 import com.smartmenu.security.UserDetailsImpl;
+import com.smartmenu.service.TableCacheService;
+import com.smartmenu.service.TableService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -22,9 +29,9 @@ import java.util.*;
 public class TableController {
 
     private final TableRepository tableRepository;
-    
-    @Value("${app.frontend.url}")
-    private String frontendUrl;
+    private final TableCacheService tableCacheService;
+    private final TableQrImageRepository tableQrImageRepository;
+    private final TableService tableService;
 
     /**
      * GET /api/tables
@@ -58,38 +65,58 @@ public class TableController {
         if (location.length() > 100) errors.add("location too long");
         if (!errors.isEmpty()) return ResponseEntity.badRequest().body(Map.of("errors", errors));
 
-        // Check uniqueness for this user
-        List<Table> existing = tableRepository.findByUserIdAndTableNumber(userId, tableNumber);
-        if (!existing.isEmpty()) {
+        // Check uniqueness for this user (a quick answer; the unique index is what guarantees it)
+        if (tableRepository.existsByUserIdAndTableNumber(userId, tableNumber)) {
             return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(Map.of("error", "A table with this number already exists"));
+                    .body(Map.of("error", TableService.NUMBER_TAKEN));
         }
 
-        // Generate QR identifiers
-        String qrCodeId = UUID.randomUUID().toString();
-
-    Table table = new Table();
-        table.setUserId(userId);
-        table.setTableNumber(tableNumber);
-    table.setRoom(isRoom);
-    table.setLocation(location);
-        table.setQrCodeId(qrCodeId);
-        table.setQrCodeUrl(""); // Will be updated after save
-        table.setQrCodeImage("");
-        table.setActive(true);
-        table.setCreatedAt(LocalDateTime.now());
-
-        // Save first to get the table ID
-        Table saved = tableRepository.save(table);
-        
-        // Now update with proper URL using frontend URL from config
-        String qrCodeUrl = String.format("%s/customer-menu?table=%s", frontendUrl, saved.getId());
-        saved.setQrCodeUrl(qrCodeUrl);
-        saved = tableRepository.save(saved);
+        // Id is assigned up front, so the QR URL is known before the single insert
+        Table table = tableService.newTable(userId, new TableRequest(tableNumber, isRoom, location), LocalDateTime.now());
+        Table saved;
+        try {
+            saved = tableRepository.insert(table);
+        } catch (DuplicateKeyException e) {
+            // Another request created the same number between the check and the insert
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", TableService.NUMBER_TAKEN));
+        }
+        tableCacheService.invalidate(saved);  // Drop any cached "not found" for this table
         
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
+    /**
+     * POST /api/tables/bulk
+     * Create many tables/rooms at once (one uniqueness query + one batched insert)
+     *
+     * Rows are independent: taken numbers are reported per row, the rest are created.
+     *
+     * Response:
+     * {
+     *   "created": 299,
+     *   "failed": 1,
+     *   "results": [ { "index": 0, "tableNumber": "101", "id": "...", "created": true, "error": null }, ... ]
+     * }
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> provisionTables(
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            @Valid @RequestBody BulkTableRequest request
+    ) {
+        List<BulkTableResult> results = tableService.provisionTables(currentUser.getId(), request.getTables());
+
+        long created = results.stream().filter(BulkTableResult::isCreated).count();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("created", created);
+        response.put("failed", results.size() - created);
+        response.put("results", results);
+
+        HttpStatus status = created > 0 ? HttpStatus.CREATED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(response);
+    }
+
     /**
      * DELETE /api/tables/{id}
      * Delete a table owned by the current user
@@ -102,7 +129,7 @@ public class TableController {
             return ResponseEntity.badRequest().body(Map.of("error", "Invalid id"));
         }
 
-        Optional<Table> opt = tableRepository.findById(id);
+        Optional<Table> opt = tableRepository.findSummaryById(id);
         if (opt.isEmpty()) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Table not found"));
 
         Table table = opt.get();
@@ -111,6 +138,8 @@ public class TableController {
         }
 
         tableRepository.deleteById(id);
+        tableQrImageRepository.deleteById(id);
+        tableCacheService.invalidate(table);  // Stop serving the deleted table from cache
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,70 @@
+package com.smartmenu.controller;
+
+import com.smartmenu.dto.BulkUserRequest;
+import com.smartmenu.dto.BulkUserResult;
+import com.smartmenu.dto.MessageResponse;
+import com.smartmenu.security.LoginThrottledException;
+import com.smartmenu.security.UserDetailsImpl;
+import com.smartmenu.service.AuthService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * User Controller - Manage staff accounts for a restaurant (or a chain)
+ */
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class UserController {
+
+    private final AuthService authService;
+
+    /**
+     * POST /api/users/bulk
+     * Create many STAFF accounts at once (one batched insert)
+     *
+     * Rows are independent: duplicates are reported per row, the rest are created.
+     *
+     * Response:
+     * {
+     *   "created": 2,
+     *   "failed": 1,
+     *   "results": [ { "index": 0, "username": "waiter1", "id": "...", "created": true, "error": null }, ... ]
+     * }
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RESTAURANT_OWNER')")
+    public ResponseEntity<?> provisionStaff(
+            @AuthenticationPrincipal UserDetailsImpl currentUser,
+            @Valid @RequestBody BulkUserRequest request
+    ) {
+        List<BulkUserResult> results;
+        try {
+            results = authService.provisionStaff(currentUser.getId(), request.getUsers());
+        } catch (LoginThrottledException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(new MessageResponse(e.getMessage()));
+        }
+
+        long created = results.stream().filter(BulkUserResult::isCreated).count();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("created", created);
+        response.put("failed", results.size() - created);
+        response.put("results", results);
+
+        HttpStatus status = created > 0 ? HttpStatus.CREATED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(response);
+    }
+}
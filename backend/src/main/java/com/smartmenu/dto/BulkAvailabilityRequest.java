@@ -0,0 +1,32 @@
+package com.smartmenu.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Mark many menu items available/unavailable at once (e.g. the kitchen ran out of rice)
+ * 
+ * Example JSON:
+ * {
+ *   "ids": ["65a1...01", "65a1...02", "65a1...03"],
+ *   "available": false
+ * }
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAvailabilityRequest {
+    
+    @NotEmpty(message = "At least one menu item id is required")
+    @Size(max = 500, message = "At most 500 menu items per request")
+    private List<String> ids;
+    
+    @NotNull(message = "available is required")
+    private Boolean available;
+}
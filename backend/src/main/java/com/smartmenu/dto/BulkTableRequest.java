@@ -0,0 +1,31 @@
+package com.smartmenu.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Bulk table/room provisioning request (e.g. a hotel onboarding all its rooms)
+ * 
+ * Example JSON:
+ * {
+ *   "tables": [
+ *     { "tableNumber": "101", "isRoom": true, "location": "Floor 1" },
+ *     { "tableNumber": "102", "isRoom": true, "location": "Floor 1" }
+ *   ]
+ * }
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTableRequest {
+    
+    @NotEmpty(message = "At least one table is required")
+    @Size(max = 1000, message = "At most 1000 tables per request")
+    private List<@Valid TableRequest> tables;
+}
@@ -0,0 +1,23 @@
+package com.smartmenu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result for one row of a bulk table provisioning request
+ * 
+ * Example:
+ * { "index": 1, "tableNumber": "102", "created": false, "error": "A table with this number already exists" }
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTableResult {
+    
+    private int index;          // Position in the request list
+    private String tableNumber;
+    private String id;          // New table ID (null if failed)
+    private boolean created;
+    private String error;       // Why this row failed (null if created)
+}
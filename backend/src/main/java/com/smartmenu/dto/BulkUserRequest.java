@@ -0,0 +1,31 @@
+package com.smartmenu.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Bulk staff provisioning request
+ * 
+ * Example JSON:
+ * {
+ *   "users": [
+ *     { "username": "waiter1", "email": "waiter1@pizza.com", "password": "secret123" },
+ *     { "username": "waiter2", "email": "waiter2@pizza.com", "password": "secret456" }
+ *   ]
+ * }
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserRequest {
+    
+    @NotEmpty(message = "At least one user is required")
+    @Size(max = 500, message = "At most 500 users per request")
+    private List<@Valid StaffAccountRequest> users;
+}
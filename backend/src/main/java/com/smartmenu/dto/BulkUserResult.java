@@ -0,0 +1,23 @@
+package com.smartmenu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result for one row of a bulk provisioning request
+ * 
+ * Example:
+ * { "index": 1, "username": "waiter2", "created": false, "error": "Error: Email is already in use!" }
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserResult {
+    
+    private int index;          // Position in the request list
+    private String username;
+    private String id;          // New user ID (null if failed)
+    private boolean created;
+    private String error;       // Why this row failed (null if created)
+}
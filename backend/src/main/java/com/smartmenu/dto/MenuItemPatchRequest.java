@@ -0,0 +1,61 @@
+package com.smartmenu.dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO for partial menu item updates (PATCH)
+ * 
+ * Only the fields you send are changed; everything else stays as it is.
+ * The owner (userId) can't be changed this way.
+ * 
+ * Example JSON (price change, only if nobody edited the item since version 7):
+ * {
+ *   "price": 9500,
+ *   "version": 7
+ * }
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuItemPatchRequest {
+    
+    @Pattern(regexp = ".*\\S.*", message = "Name must not be blank")
+    private String name;
+    
+    private String description;
+    
+    @Positive(message = "Price must be positive")
+    private BigDecimal price;
+    
+    private String category;
+    
+    private String imageUrl;
+    
+    private Boolean available;
+    
+    private List<String> allergens;
+    
+    @PositiveOrZero(message = "Preparation time must not be negative")
+    private Integer prepTimeMinutes;
+    
+    private Boolean featured;
+    
+    // Optional: the version you edited; 409 Conflict if the item changed since
+    private Long version;
+    
+    /**
+     * True when nothing but availability is being changed
+     */
+    public boolean onlyAvailability() {
+        return available != null && name == null && description == null && price == null && category == null
+                && imageUrl == null && allergens == null && prepTimeMinutes == null && featured == null;
+    }
+}
@@ -47,4 +47,8 @@ public class MenuItemRequest {
     private Integer prepTimeMinutes;
     
     private Boolean featured = false;
+    
+    // Optional: the version you edited (from the response). If the item changed
+    // since, the update is refused with 409 Conflict instead of overwriting it
+    private Long version;
 }
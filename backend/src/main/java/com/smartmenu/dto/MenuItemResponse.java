@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DTO for menu item responses
@@ -29,12 +30,14 @@ public class MenuItemResponse {
     private BigDecimal price;
     private String category;
     private String imageUrl;
+    private Map<String, String> imageVariants;  // Smaller sizes of an uploaded image (null for external URLs)
     private boolean available;
     private List<String> allergens;
     private Integer prepTimeMinutes;
     private boolean featured;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;  // Send back with PUT/PATCH to detect conflicting edits
     
     // Could add computed fields like:
     // private Boolean isNew; // created in last 7 days
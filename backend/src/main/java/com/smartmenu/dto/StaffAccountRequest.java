@@ -0,0 +1,37 @@
+package com.smartmenu.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One staff account inside a bulk provisioning request
+ * 
+ * Same rules as RegisterRequest, plus optional personal details.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StaffAccountRequest {
+    
+    @NotBlank(message = "Username is required")
+    @Size(min = 3, max = 20, message = "Username must be 3-20 characters")
+    private String username;
+    
+    @NotBlank(message = "Email is required")
+    @Email(message = "Email must be valid")
+    private String email;
+    
+    @NotBlank(message = "Password is required")
+    @Size(min = 6, max = 40, message = "Password must be 6-40 characters")
+    private String password;
+    
+    private String firstName;
+    
+    private String lastName;
+    
+    private String phone;
+}
@@ -0,0 +1,29 @@
+package com.smartmenu.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One table/room inside a bulk provisioning request
+ * 
+ * Same rules as POST /api/tables.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableRequest {
+    
+    @NotBlank(message = "tableNumber is required")
+    @Size(max = 50, message = "tableNumber too long")
+    private String tableNumber;
+    
+    @JsonAlias("isRoom")  // Same field name as POST /api/tables
+    private boolean room;
+    
+    @Size(max = 100, message = "location too long")
+    private String location;
+}
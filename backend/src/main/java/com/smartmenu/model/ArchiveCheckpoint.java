@@ -0,0 +1,38 @@
+package com.smartmenu.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Archive Checkpoint - Progress of the order archival job
+ *
+ * One document per archived collection (id = "orders"). Written after every
+ * batch, so a crashed or restarted server resumes where it stopped instead of
+ * starting over. Only one server runs the job at a time (JobLockService,
+ * job "order-archive"), so only one writes this document.
+ */
+@Document(collection = "archive_checkpoints")
+@Data
+@NoArgsConstructor
+public class ArchiveCheckpoint {
+
+    @Id
+    private String id;
+
+    // Current pass: orders created before cutoff, resumed after lastOrderId
+    private boolean running;
+    private LocalDateTime cutoff;
+    private String lastOrderId;
+    private long passArchived;
+    private LocalDateTime passStartedAt;
+
+    // History
+    private long totalArchived;
+    private LocalDateTime lastCompletedAt;
+
+    private LocalDateTime updatedAt;
+}
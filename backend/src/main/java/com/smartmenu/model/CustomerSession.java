@@ -4,15 +4,29 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
  * Customer Session Model
  * Tracks anonymous customers by device ID
+ *
+ * Sessions expire app.sessions.retention-days after the last visit (TTL index on
+ * lastVisit, created by IndexManagementService). Before that, VisitorRollupService
+ * counts each visit into VisitorDailyStats, so the numbers outlive the sessions.
  */
 @Document(collection = "customer_sessions")
+@CompoundIndexes({
+    // Every scan looks up the device: findByDeviceId, findByDeviceIdAndTableId
+    @CompoundIndex(name = "deviceId_tableId", def = "{'deviceId': 1, 'tableId': 1}"),
+    // Visits not rolled up yet (partial: only pending sessions are in this index, so it stays tiny)
+    @CompoundIndex(name = "pendingRollup_lastVisit", def = "{'pendingRollup': 1, 'lastVisit': 1}",
+            partialFilter = "{'pendingRollup': true}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,6 +43,8 @@ public class CustomerSession {
     private Integer visitCount;     // How many times they've visited
     private LocalDateTime firstVisit;
     private LocalDateTime lastVisit;
+    private Boolean pendingRollup;  // true = lastVisit not counted in VisitorDailyStats yet
+    private LocalDate countedDay;   // Day this device was last counted (one count per device per day)
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
@@ -39,6 +55,7 @@ public class CustomerSession {
         this.visitCount = 1;
         this.firstVisit = LocalDateTime.now();
         this.lastVisit = LocalDateTime.now();
+        this.pendingRollup = true;
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
     }
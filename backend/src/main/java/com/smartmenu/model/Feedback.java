@@ -1,6 +1,8 @@
 package com.smartmenu.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
@@ -9,6 +11,12 @@ import java.time.LocalDateTime;
  * Stores customer feedback for orders
  */
 @Document(collection = "feedback")
+@CompoundIndexes({
+    // Newest first per restaurant: findByUserId (sorted), findTop5ByUserIdOrderByCreatedAtDesc, date ranges
+    @CompoundIndex(name = "userId_createdAt", def = "{'userId': 1, 'createdAt': -1}"),
+    // Rating filter: findByUserIdAndRating (sorted by date), findByUserIdAndRatingGreaterThanEqual
+    @CompoundIndex(name = "userId_rating_createdAt", def = "{'userId': 1, 'rating': 1, 'createdAt': -1}")
+})
 public class Feedback {
     
     @Id
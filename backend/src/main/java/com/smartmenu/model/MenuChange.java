@@ -0,0 +1,46 @@
+package com.smartmenu.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Menu Change - One entry of a restaurant's menu change log
+ *
+ * Written by MenuSyncService after every menu item write. Only says which item
+ * changed and how; the item itself is read when a client asks for the changes,
+ * so it's always the latest version. Entries older than
+ * app.menu-sync.retention-days are compacted away.
+ */
+@Document(collection = "menu_changes")
+// Changes since a version: userId = ?, version > ? sorted by version
+@CompoundIndex(name = "userId_version", def = "{'userId': 1, 'version': 1}", unique = true)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuChange {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        TOGGLED,
+        DELETED
+    }
+
+    @Id
+    private String id;
+
+    private String userId;   // Restaurant owner ID
+    private long version;    // The menu version this change created
+    private String itemId;
+    private Type type;
+
+    @Indexed  // Compaction: entries older than the retention period
+    private LocalDateTime createdAt;
+}
@@ -6,18 +6,31 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * MenuItem Entity - Represents food/drink items on the menu
  * This is the core product in the system
  */
 @Document(collection = "menu_items")
+@CompoundIndexes({
+    // Customer menu: findByUserIdAndAvailableTrue, countByUserIdAndAvailableTrue, findByUserId
+    @CompoundIndex(name = "userId_available", def = "{'userId': 1, 'available': 1}"),
+    // Staff listing, cursor pages in id order (MenuItemService.listMenuItems / streamMenuItems),
+    // with and without a category; the second one also serves findByUserIdAndCategory
+    @CompoundIndex(name = "userId_id", def = "{'userId': 1, '_id': 1}"),
+    @CompoundIndex(name = "userId_category_id", def = "{'userId': 1, 'category': 1, '_id': 1}"),
+    @CompoundIndex(name = "userId_featured", def = "{'userId': 1, 'featured': 1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -37,7 +50,12 @@ public class MenuItem {
     
     private String category;  // e.g., "Appetizer", "Main Course", "Dessert", "Drinks"
     
-    private String imageUrl;  // URL to uploaded image
+    private String imageUrl;  // URL to uploaded image (largest variant), or an external URL
+    
+    // Uploaded images only (see MenuImageService): content hash and variant name → URL,
+    // e.g. {"thumb": ".../thumb.jpg", "card": ".../card.jpg", "full": ".../full.jpg"}
+    private String imageHash;
+    private Map<String, String> imageVariants;
     
     private boolean available = true;  // Can be toggled on/off
     
@@ -55,4 +73,9 @@ public class MenuItem {
     
     @LastModifiedDate
     private LocalDateTime updatedAt;
+    
+    // Optimistic locking: +1 on every write; a save with an older version fails
+    // (OptimisticLockingFailureException) instead of overwriting someone's change
+    @Version
+    private Long version;
 }
@@ -0,0 +1,31 @@
+package com.smartmenu.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Menu Version - How many times a restaurant's menu has changed
+ *
+ * One document per restaurant (id = userId). version goes up by one with every
+ * menu item change ($inc, so two changes at the same moment get different
+ * numbers). Clients remember the version they have and ask for what changed since.
+ *
+ * compactedThrough: changes up to this version were removed from menu_changes,
+ * so a client older than that gets the whole menu instead of a delta.
+ */
+@Document(collection = "menu_versions")
+@Data
+@NoArgsConstructor
+public class MenuVersion {
+
+    @Id
+    private String id;  // Restaurant owner ID
+
+    private long version;
+    private long compactedThrough;
+    private LocalDateTime updatedAt;
+}
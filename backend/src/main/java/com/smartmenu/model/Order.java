@@ -6,6 +6,9 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
@@ -18,6 +21,12 @@ import java.util.List;
  * Workflow: PENDING → CONFIRMED → PREPARING → READY → COMPLETED
  */
 @Document(collection = "orders")
+@CompoundIndexes({
+    // Staff order lists and counts: findByUserIdAndStatus(OrderByCreatedAtDesc), countByUserIdAndStatus
+    @CompoundIndex(name = "userId_status_createdAt", def = "{'userId': 1, 'status': 1, 'createdAt': -1}"),
+    // Recent orders per restaurant: findByUserId, countByUserId
+    @CompoundIndex(name = "userId_createdAt", def = "{'userId': 1, 'createdAt': -1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,12 +39,15 @@ public class Order {
     private String userId;
     
     // Which table placed this order
+    @Indexed  // findByTableId
     private String tableId;
     private String tableNumber;
     
     // Customer information for tracking
+    @Indexed  // findByDeviceId
     private String deviceId;        // Device that placed the order
     private String customerName;    // Optional customer name
+    @Indexed  // findByOrderNumber (customer order tracking)
     private String orderNumber;     // Human-readable order number (e.g., "ORD-001")
     
     // Order items
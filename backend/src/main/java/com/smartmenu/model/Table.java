@@ -5,6 +5,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -12,8 +15,17 @@ import java.time.LocalDateTime;
 /**
  * Table Entity - Represents physical tables in the restaurant
  * Each table has a unique QR code that customers scan
+ * 
+ * Kept small on purpose (it's read on every scan): the QR image itself lives in
+ * table_qr_images (TableQrImage).
  */
 @Document(collection = "tables")
+@CompoundIndexes({
+    // Table lists and uniqueness: findByUserId, existsByUserIdAndTableNumber, countByUserId.
+    // Unique, so two requests creating "Room 101" at the same moment can't both succeed.
+    @CompoundIndex(name = "userId_tableNumber", def = "{'userId': 1, 'tableNumber': 1}", unique = true),
+    @CompoundIndex(name = "userId_active", def = "{'userId': 1, 'active': 1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,15 +39,13 @@ public class Table {
     
     private String tableNumber;  // e.g., "Table 1", "Patio A", etc.
     
-    // Unique identifier for the QR code
+    // Unique identifier for the QR code (sparse: older rows may not have one)
+    @Indexed(unique = true, sparse = true)
     private String qrCodeId;
     
     // URL that the QR code points to (e.g., https://smartmenu.com/menu/{qrCodeId})
     private String qrCodeUrl;
     
-    // Base64 encoded QR code image (so we can display/download it)
-    private String qrCodeImage;
-    
     // Is this entry representing a room instead of a table?
     private boolean room = false;
 
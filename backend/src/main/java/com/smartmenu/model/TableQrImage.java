@@ -0,0 +1,34 @@
+package com.smartmenu.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Table QR Image - The rendered QR code of one table, kept out of the Table document
+ *
+ * A 300 px PNG is ~1-2 KB (plus a third more as base64). Inside Table, every
+ * table list, every scan and every cache miss would carry it. Here it's only
+ * read when someone actually asks for the image (GET /api/tables/{id}/qr-image).
+ */
+@Document(collection = "table_qr_images")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableQrImage {
+    
+    @Id
+    private String id;  // Same as the table id
+    
+    private String userId;  // Owner (only the owner may download it)
+    
+    private String qrCodeUrl;  // What the image encodes (re-render if the table URL changes)
+    
+    private byte[] png;  // Stored as BSON binary: no base64 overhead
+    
+    private LocalDateTime createdAt;
+}
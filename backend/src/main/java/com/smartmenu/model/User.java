@@ -47,6 +47,9 @@ public class User {
     // User role (single role per user)
     private UserRole role = UserRole.RESTAURANT_OWNER;
     
+    // For STAFF accounts: the restaurant owner they work for
+    private String ownerId;
+    
     private boolean active = true;
     
     @CreatedDate
@@ -0,0 +1,38 @@
+package com.smartmenu.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Visitor Daily Stats - Visitors per restaurant per day
+ *
+ * Filled by VisitorRollupService from customer_sessions, which expire after a
+ * while. One small document per restaurant per day, kept forever.
+ * id = userId + ":" + day, so the rollup can $inc it without looking it up first.
+ */
+@Document(collection = "visitor_daily_stats")
+// Date range per restaurant: findByUserIdAndDayBetweenOrderByDayAsc
+@CompoundIndex(name = "userId_day", def = "{'userId': 1, 'day': 1}")
+@Data
+@NoArgsConstructor
+public class VisitorDailyStats {
+
+    @Id
+    private String id;
+
+    private String userId;             // Restaurant owner ID
+    private LocalDate day;
+    private long newVisitors;          // Devices whose first visit was this day
+    private long returningVisitors;    // Devices seen before, back this day
+    private LocalDateTime updatedAt;
+
+    public static String idFor(String userId, LocalDate day) {
+        return userId + ":" + day;
+    }
+}
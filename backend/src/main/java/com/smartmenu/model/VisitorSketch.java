@@ -0,0 +1,40 @@
+package com.smartmenu.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Visitor Sketch - HyperLogLog of the devices seen by a restaurant or table on one day
+ *
+ * id = "tenant:{userId}:{day}" or "table:{tableId}:{day}", so a date range is
+ * loaded with one _id $in query (no extra index). registers is the compact
+ * binary form from util/HyperLogLog (a few hundred bytes up to 12 KB).
+ */
+@Document(collection = "visitor_sketches")
+@Data
+@NoArgsConstructor
+public class VisitorSketch {
+
+    public static final String TENANT = "tenant";
+    public static final String TABLE = "table";
+
+    @Id
+    private String id;
+
+    private String userId;          // Restaurant owner ID (both scopes)
+    private String tableId;         // Only for table sketches
+    private LocalDate day;
+    private byte[] registers;
+    private long estimate;          // Unique visitors that day (for reading the data by hand)
+    private long version;           // Compare-and-set when several instances write the same day
+    private LocalDateTime updatedAt;
+
+    public static String idFor(String scope, String ownerId, LocalDate day) {
+        return scope + ":" + ownerId + ":" + day;
+    }
+}
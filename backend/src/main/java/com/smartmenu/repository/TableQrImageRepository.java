@@ -0,0 +1,12 @@
+package com.smartmenu.repository;
+
+import com.smartmenu.model.TableQrImage;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Table QR Image Repository (lookups by table id only)
+ */
+@Repository
+public interface TableQrImageRepository extends MongoRepository<TableQrImage, String> {
+}
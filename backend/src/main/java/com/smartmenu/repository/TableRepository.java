@@ -1,28 +1,49 @@
 package com.smartmenu.repository;
 
 import com.smartmenu.model.Table;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Table Repository
+ * 
+ * List and lookup methods use a projection that leaves out qrCodeImage: tables
+ * created before QR images moved to table_qr_images may still carry a base64
+ * PNG until TableQrImageMigration has moved it.
  */
 @Repository
 public interface TableRepository extends MongoRepository<Table, String> {
 
+    // Every field except the legacy inline QR image
+    String WITHOUT_IMAGE = "{ 'qrCodeImage': 0 }";
+
     // Find all tables for a specific user (tenant/owner)
+    @Query(value = "{ 'userId': ?0 }", fields = WITHOUT_IMAGE)
     List<Table> findByUserId(String userId);
 
-    // Optional: find by user and table number (for uniqueness checks)
-    List<Table> findByUserIdAndTableNumber(String userId, String tableNumber);
+    // Same, as a cursor (for exports: one batch in memory at a time; caller must close)
+    @Query(value = "{ 'userId': ?0 }", fields = WITHOUT_IMAGE)
+    Stream<Table> streamByUserId(String userId, Sort sort);
+
+    // Uniqueness check for a new table number (reads the index only)
+    boolean existsByUserIdAndTableNumber(String userId, String tableNumber);
+
+    // Find table by id (public scan path, via TableCacheService)
+    @Query(value = "{ '_id': ?0 }", fields = WITHOUT_IMAGE)
+    Optional<Table> findSummaryById(String id);
 
     // Find table by QR code ID (when customer scans)
+    @Query(value = "{ 'qrCodeId': ?0 }", fields = WITHOUT_IMAGE)
     Optional<Table> findByQrCodeId(String qrCodeId);
 
     // Find active tables
+    @Query(value = "{ 'userId': ?0, 'active': true }", fields = WITHOUT_IMAGE)
     List<Table> findByUserIdAndActiveTrue(String userId);
     
     // Count methods for dashboard statistics
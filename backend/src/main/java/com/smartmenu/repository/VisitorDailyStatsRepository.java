@@ -0,0 +1,18 @@
+package com.smartmenu.repository;
+
+import com.smartmenu.model.VisitorDailyStats;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Visitor Daily Stats Repository
+ */
+@Repository
+public interface VisitorDailyStatsRepository extends MongoRepository<VisitorDailyStats, String> {
+
+    // Daily visitor counts for a restaurant, oldest day first (Between excludes both ends)
+    List<VisitorDailyStats> findByUserIdAndDayBetweenOrderByDayAsc(String userId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,16 @@
+package com.smartmenu.repository.reactive;
+
+import com.smartmenu.model.CustomerSession;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive Customer Session Repository (non-blocking, used by the reactive public API)
+ */
+@Repository
+public interface ReactiveCustomerSessionRepository extends ReactiveMongoRepository<CustomerSession, String> {
+    
+    // Find session by device ID
+    Mono<CustomerSession> findByDeviceId(String deviceId);
+}
@@ -0,0 +1,12 @@
+package com.smartmenu.repository.reactive;
+
+import com.smartmenu.model.Feedback;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reactive Feedback Repository (non-blocking, used by the reactive public API)
+ */
+@Repository
+public interface ReactiveFeedbackRepository extends ReactiveMongoRepository<Feedback, String> {
+}
@@ -0,0 +1,16 @@
+package com.smartmenu.repository.reactive;
+
+import com.smartmenu.model.MenuItem;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive MenuItem Repository (non-blocking, used by the reactive public API)
+ */
+@Repository
+public interface ReactiveMenuItemRepository extends ReactiveMongoRepository<MenuItem, String> {
+    
+    // Stream available items one by one as Mongo returns them
+    Flux<MenuItem> findByUserIdAndAvailableTrue(String userId);
+}
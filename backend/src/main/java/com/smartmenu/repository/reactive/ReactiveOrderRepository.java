@@ -0,0 +1,16 @@
+package com.smartmenu.repository.reactive;
+
+import com.smartmenu.model.Order;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive Order Repository (non-blocking, used by the reactive public API)
+ */
+@Repository
+public interface ReactiveOrderRepository extends ReactiveMongoRepository<Order, String> {
+    
+    // Find order by order number (for customer tracking)
+    Mono<Order> findByOrderNumber(String orderNumber);
+}
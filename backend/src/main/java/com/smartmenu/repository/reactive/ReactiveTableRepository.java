@@ -0,0 +1,19 @@
+package com.smartmenu.repository.reactive;
+
+import com.smartmenu.model.Table;
+import com.smartmenu.repository.TableRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive Table Repository (non-blocking, used by the reactive public API)
+ */
+@Repository
+public interface ReactiveTableRepository extends ReactiveMongoRepository<Table, String> {
+
+    // Same projection as TableRepository.findSummaryById
+    @Query(value = "{ '_id': ?0 }", fields = TableRepository.WITHOUT_IMAGE)
+    Mono<Table> findSummaryById(String id);
+}
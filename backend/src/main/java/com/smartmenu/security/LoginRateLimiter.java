@@ -0,0 +1,121 @@
+package com.smartmenu.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Login Rate Limiter - Token bucket per client IP and per username
+ * 
+ * Each key gets a bucket with a few tokens. Every login attempt takes one token,
+ * and tokens slowly refill over time. An empty bucket means "slow down" → 429.
+ * 
+ * This runs BEFORE any database lookup or BCrypt work, so a credential-stuffing
+ * burst is rejected almost for free.
+ * 
+ * Memory: buckets live in size-bounded Caffeine caches (max-tracked-keys each).
+ * An idle bucket is dropped once it would have refilled completely (a new one
+ * starts full, so nothing is lost), and at the cap Caffeine evicts the least
+ * recently used key in O(1). A bot rotating usernames can't grow the map, and
+ * it can't make each new key pay for a scan of the whole map either.
+ */
+@Component
+public class LoginRateLimiter {
+    
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final Cache<String, TokenBucket> usernameBuckets;
+    
+    private final MeterRegistry meterRegistry;
+    private final int ipCapacity;
+    private final double ipRefillPerNano;
+    private final int usernameCapacity;
+    private final double usernameRefillPerNano;
+    
+    public LoginRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.throttle.ip-capacity:20}") int ipCapacity,
+            @Value("${app.auth.throttle.ip-refill-per-minute:20}") int ipRefillPerMinute,
+            @Value("${app.auth.throttle.username-capacity:5}") int usernameCapacity,
+            @Value("${app.auth.throttle.username-refill-per-minute:5}") int usernameRefillPerMinute,
+            @Value("${app.auth.throttle.max-tracked-keys:100000}") int maxTrackedKeys
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerNano = ipRefillPerMinute / 60_000_000_000.0;
+        this.usernameCapacity = usernameCapacity;
+        this.usernameRefillPerNano = usernameRefillPerMinute / 60_000_000_000.0;
+        this.ipBuckets = buckets(maxTrackedKeys, ipCapacity, ipRefillPerMinute);
+        this.usernameBuckets = buckets(maxTrackedKeys, usernameCapacity, usernameRefillPerMinute);
+    }
+    
+    private static Cache<String, TokenBucket> buckets(int maxKeys, int capacity, int refillPerMinute) {
+        // Untouched this long = full again, same as a new bucket
+        Duration refillTime = Duration.ofMillis((long) Math.ceil(capacity * 60_000.0 / refillPerMinute));
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(refillTime)
+                .build();
+    }
+    
+    /**
+     * Take one token for this IP and one for this username.
+     * 
+     * @throws LoginThrottledException if either bucket is empty
+     */
+    public void acquire(String clientIp, String username) {
+        if (clientIp != null) {
+            take(ipBuckets, clientIp, ipCapacity, ipRefillPerNano, "ip");
+        }
+        if (username != null) {
+            take(usernameBuckets, username.toLowerCase(), usernameCapacity, usernameRefillPerNano, "username");
+        }
+    }
+    
+    private void take(Cache<String, TokenBucket> buckets, String key, int capacity, double refillPerNano, String scope) {
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(capacity, refillPerNano));
+        long waitNanos = bucket.tryTake(System.nanoTime());
+        if (waitNanos > 0) {
+            meterRegistry.counter("auth.login.throttled", "scope", scope).increment();
+            long retryAfterSeconds = Math.max(1, waitNanos / 1_000_000_000L);
+            throw new LoginThrottledException("Too many login attempts, please try again later", retryAfterSeconds);
+        }
+    }
+    
+    /**
+     * Classic token bucket (refilled lazily when touched)
+     */
+    private static final class TokenBucket {
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill;
+        
+        TokenBucket(int capacity, double refillPerNano) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerNano;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+        
+        /**
+         * @return 0 if a token was taken, otherwise nanoseconds until one is available
+         */
+        synchronized long tryTake(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / refillPerNano);
+        }
+        
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.smartmenu.security;
+
+/**
+ * Thrown when a login/registration request is rejected to protect the server
+ * (rate limit exceeded or the password hashing pool is full).
+ * 
+ * AuthController turns this into HTTP 429 Too Many Requests.
+ */
+public class LoginThrottledException extends RuntimeException {
+    
+    private final long retryAfterSeconds;  // Sent back in the Retry-After header
+    
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
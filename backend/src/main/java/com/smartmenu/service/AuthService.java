@@ -1,22 +1,31 @@
 package com.smartmenu.service;
 
+import com.smartmenu.dto.BulkUserResult;
 import com.smartmenu.dto.LoginRequest;
 import com.smartmenu.dto.LoginResponse;
 import com.smartmenu.dto.RegisterRequest;
+import com.smartmenu.dto.StaffAccountRequest;
 import com.smartmenu.model.User;
 import com.smartmenu.model.UserRole;
 import com.smartmenu.repository.UserRepository;
+import com.smartmenu.security.LoginRateLimiter;
 import com.smartmenu.security.UserDetailsImpl;
 import com.smartmenu.util.JwtUtil;
+import com.mongodb.bulk.BulkWriteError;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Authentication Service - Business logic for login/register
@@ -24,12 +33,14 @@ import java.time.LocalDateTime;
  * TEACHING MOMENT - What does this service do?
  * 
  * 1. REGISTER: Create new user account
- *    - Check if username/email already exists
  *    - Hash the password (NEVER store plain passwords!)
- *    - Save user to database
+ *    - Insert user in ONE database call
+ *    - If username/email already exists, the unique index rejects the insert
+ *      and we turn that error into a friendly message
  * 
  * 2. LOGIN: Authenticate user and generate JWT token
- *    - Verify username and password
+ *    - Rate-limit by client IP and username (fast 429, no DB/BCrypt work)
+ *    - Verify username and password (BCrypt runs on PasswordHashingService's pool)
  *    - Generate JWT token
  *    - Return token to client
  * 
@@ -51,36 +62,35 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class AuthService {
     
+    private static final String USERNAME_TAKEN = "Error: Username is already taken!";
+    private static final String EMAIL_TAKEN = "Error: Email is already in use!";
+    private static final int DUPLICATE_KEY = 11000;
+    
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final AuthenticationManager authenticationManager;
+    private final MongoTemplate mongoTemplate;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginRateLimiter loginRateLimiter;
     private final JwtUtil jwtUtil;
     
     /**
      * Register a new user
      * 
+     * No "exists" checks first: those cost extra round trips and still race with
+     * a parallel registration. The unique indexes on User.username and User.email
+     * are the source of truth - we just insert and translate a duplicate key error.
+     * 
      * @param request - registration data (username, email, password)
      * @return success message
      * @throws RuntimeException if username or email already exists
      */
     public String register(RegisterRequest request) {
-        // Check if username already taken
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new RuntimeException("Error: Username is already taken!");
-        }
-        
-        // Check if email already taken
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Error: Email is already in use!");
-        }
-        
         // Create new user
         User user = new User();
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
         
         // Hash password (NEVER store plain text!)
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         
         user.setRestaurantName(request.getRestaurantName());
         user.setRole(UserRole.RESTAURANT_OWNER);  // Default role
@@ -88,36 +98,122 @@ public class AuthService {
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
         
-        // Save to database
-        userRepository.save(user);
+        // Insert (not save) - a single round trip that never overwrites an existing user
+        try {
+            userRepository.insert(user);
+        } catch (DuplicateKeyException e) {
+            throw new RuntimeException(duplicateKeyMessage(e.getMessage()));
+        }
         
         return "User registered successfully!";
     }
     
+    /**
+     * Create many staff accounts for a restaurant owner in one batched insert
+     * 
+     * The insert is UNORDERED: a duplicate in row 3 doesn't stop rows 4..N.
+     * Each row gets its own result (created, or the reason it failed).
+     * 
+     * @param ownerId - the restaurant owner the staff work for
+     * @param accounts - staff accounts to create
+     * @return one result per requested account, in request order
+     */
+    public List<BulkUserResult> provisionStaff(String ownerId, List<StaffAccountRequest> accounts) {
+        // Hash all passwords on the BCrypt pool (bounded, doesn't starve logins)
+        List<String> hashes = passwordHashingService.encodeAll(
+                accounts.stream().map(StaffAccountRequest::getPassword).toList()
+        );
+        
+        List<User> users = new ArrayList<>(accounts.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < accounts.size(); i++) {
+            StaffAccountRequest account = accounts.get(i);
+            User user = new User();
+            user.setId(new ObjectId().toHexString());  // Assign ID up front so results can report it
+            user.setUsername(account.getUsername());
+            user.setEmail(account.getEmail());
+            user.setPassword(hashes.get(i));
+            user.setFirstName(account.getFirstName());
+            user.setLastName(account.getLastName());
+            user.setPhone(account.getPhone());
+            user.setRole(UserRole.STAFF);
+            user.setOwnerId(ownerId);
+            user.setActive(true);
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            users.add(user);
+        }
+        
+        // Row index → error message, filled only for rows the database rejected
+        String[] errors = new String[users.size()];
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class)
+                    .insert(users)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                errors[error.getIndex()] = error.getCode() == DUPLICATE_KEY
+                        ? duplicateKeyMessage(error.getMessage())
+                        : "Error: Could not create user: " + error.getMessage();
+            }
+        }
+        
+        List<BulkUserResult> results = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            boolean created = errors[i] == null;
+            results.add(new BulkUserResult(i, user.getUsername(), created ? user.getId() : null, created, errors[i]));
+        }
+        return results;
+    }
+    
+    /**
+     * Turn a MongoDB E11000 error into a field-specific message
+     * 
+     * Example error: "E11000 duplicate key error collection: smartmenu.users index: email dup key: { email: "a@b.com" }"
+     */
+    private String duplicateKeyMessage(String mongoMessage) {
+        String message = mongoMessage != null ? mongoMessage : "";
+        if (message.contains("index: username")) {
+            return USERNAME_TAKEN;
+        }
+        if (message.contains("index: email")) {
+            return EMAIL_TAKEN;
+        }
+        return "Error: User already exists!";
+    }
+    
     /**
      * Login and generate JWT token
      * 
      * @param request - login credentials (username, password)
+     * @param clientIp - caller's IP address (for throttling)
      * @return LoginResponse with JWT token and user details
+     * @throws com.smartmenu.security.LoginThrottledException if rate limited or the hashing pool is full
+     * @throws BadCredentialsException if username or password is wrong
      */
-    public LoginResponse login(LoginRequest request) {
-        // Step 1: Authenticate user (verify username + password)
-        // This throws exception if credentials are wrong
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getUsername(),
-                        request.getPassword()
-                )
-        );
+    public LoginResponse login(LoginRequest request, String clientIp) {
+        // Step 1: Throttle before touching the database or BCrypt
+        loginRateLimiter.acquire(clientIp, request.getUsername());
         
-        // Step 2: Set authentication in security context
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+        // Step 2: Load user and verify password (BCrypt runs off the request thread)
+        // Unknown users still pay for one BCrypt check (no username probing by timing)
+        User user = userRepository.findByUsername(request.getUsername()).orElse(null);
+        String storedHash = user != null ? user.getPassword() : null;
+        boolean passwordMatches = passwordHashingService.matches(request.getPassword(), storedHash);
         
-        // Step 3: Generate JWT token
-        String jwt = jwtUtil.generateToken(request.getUsername());
+        if (user == null || !passwordMatches) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        
+        // Step 3: Set authentication in security context
+        UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities())
+        );
         
-        // Step 4: Get user details
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        // Step 4: Generate JWT token
+        String jwt = jwtUtil.generateToken(user.getUsername());
         
         // Step 5: Build response
         return new LoginResponse(
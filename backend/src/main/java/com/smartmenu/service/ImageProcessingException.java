@@ -0,0 +1,16 @@
+package com.smartmenu.service;
+
+/**
+ * Thrown when an uploaded image was valid but could not be turned into
+ * thumbnails (a resize task failed or the upload was interrupted).
+ * 
+ * Not the client's fault: MenuItemController answers 500, unlike
+ * IllegalArgumentException (bad image → 400) and IllegalStateException
+ * (busy → 503).
+ */
+public class ImageProcessingException extends RuntimeException {
+    
+    public ImageProcessingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
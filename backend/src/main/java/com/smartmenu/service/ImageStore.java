@@ -0,0 +1,96 @@
+package com.smartmenu.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Image Store - Content-addressed files on local disk
+ *
+ * TEACHING MOMENT - Content addressing
+ *
+ * A file's name is the SHA-256 of its bytes. The same photo uploaded twice (or
+ * by two restaurants) gets the same name, so it's stored once. And a name can
+ * never point at different content later, which means a URL containing the
+ * hash can be cached forever by browsers and CDNs.
+ *
+ * Layout (the 2-character prefix keeps directories small):
+ *   <dir>/3f/3fa9...e1/original     the uploaded bytes, untouched
+ *   <dir>/3f/3fa9...e1/thumb.jpg    generated variants
+ *
+ * Writes go to a temp file first and are then renamed into place, so a reader
+ * never sees half a file - even if two uploads of the same photo race.
+ */
+@Service
+public class ImageStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern FILE_NAME = Pattern.compile("[a-z0-9]+(\\.[a-z0-9]+)?");
+
+    private final Path root;
+
+    public ImageStore(@Value("${app.images.dir:./data/images}") String dir) {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create image directory " + root, e);
+        }
+    }
+
+    public static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static boolean isHash(String value) {
+        return value != null && HASH.matcher(value).matches();
+    }
+
+    /**
+     * Path of one file of an image (validated: request input can't escape the store)
+     */
+    public Path path(String hash, String fileName) {
+        if (!isHash(hash) || fileName == null || !FILE_NAME.matcher(fileName).matches()) {
+            throw new IllegalArgumentException("Invalid image path");
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash).resolve(fileName);
+    }
+
+    public boolean exists(String hash, String fileName) {
+        return Files.isRegularFile(path(hash, fileName));
+    }
+
+    /**
+     * Write a file atomically (temp file + rename)
+     */
+    public void write(String hash, String fileName, byte[] content) throws IOException {
+        Path target = path(hash, fileName);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), fileName, ".tmp");
+        try {
+            Files.write(temp, content);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
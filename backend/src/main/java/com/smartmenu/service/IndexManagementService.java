@@ -0,0 +1,409 @@
+package com.smartmenu.service;
+
+import com.smartmenu.model.CustomerSession;
+import com.smartmenu.model.Feedback;
+import com.smartmenu.model.MenuChange;
+import com.smartmenu.model.MenuItem;
+import com.smartmenu.model.Order;
+import com.smartmenu.model.Table;
+import com.smartmenu.model.User;
+import com.smartmenu.model.VisitorDailyStats;
+import com.mongodb.client.model.IndexOptions;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index Management Service - Creates and checks MongoDB indexes
+ *
+ * TEACHING MOMENT - Why not just let Spring create them?
+ *
+ * The indexes themselves are declared on the models (@Indexed, @CompoundIndex).
+ * With spring.data.mongodb.auto-index-creation=true, one bad index (e.g. a unique
+ * index over duplicate data) throws during startup and the whole app dies.
+ * Here we create them ourselves, one at a time, log what failed and keep going.
+ * createIndex is idempotent: an index that already exists is a no-op.
+ *
+ * Then we check the result. Every repository query is listed below as a "query
+ * shape" (fields compared with = and the sort order). A shape is covered when
+ * some index starts with exactly those equality fields, followed by the sort fields.
+ * In PHP/MySQL terms: it's like running EXPLAIN on every query at deploy time
+ * and refusing to go green if one of them would scan the whole table.
+ *
+ * Anything missing makes /api/health and /actuator/health report DOWN.
+ * Probes hit those every few seconds on every instance, and a check lists the
+ * indexes of every collection, so they read the last report (report()). It is
+ * made at startup, after ensureIndexes(), and refreshed every
+ * app.mongo.indexes.verify-interval-ms.
+ *
+ * One index isn't declared on a model: the TTL index that expires customer
+ * sessions, because its lifetime comes from configuration (app.sessions.retention-days).
+ */
+@Service
+public class IndexManagementService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexManagementService.class);
+
+    private static final List<Class<?>> ENTITIES = List.of(
+            User.class, Table.class, MenuItem.class, Order.class, Feedback.class, CustomerSession.class,
+            VisitorDailyStats.class, MenuChange.class);
+
+    // Sessions expire this long after lastVisit (MongoDB deletes them in the background)
+    private static final String SESSION_COLLECTION = "customer_sessions";
+    private static final String SESSION_TTL_FIELD = "lastVisit";
+
+    /**
+     * The query shape of every repository method (keep in sync with repository/)
+     */
+    private static final List<QueryShape> QUERY_SHAPES = List.of(
+            shape("users", "UserRepository.findByUsername / existsByUsername", List.of("username")),
+            shape("users", "UserRepository.findByEmail / existsByEmail", List.of("email")),
+
+            shape("tables", "TableRepository.findByUserId / countByUserId", List.of("userId")),
+            shape("tables", "TableRepository.existsByUserIdAndTableNumber", List.of("userId", "tableNumber")),
+            shape("tables", "TableService.provisionTables (tableNumber $in)", List.of("userId", "tableNumber")),
+            shape("tables", "TableRepository.streamByUserId (QR export)", List.of("userId"), "tableNumber", 1),
+            shape("tables", "TableRepository.findByUserIdAndActiveTrue", List.of("userId", "active")),
+            shape("tables", "TableRepository.findByQrCodeId", List.of("qrCodeId")),
+
+            shape("menu_items", "MenuItemRepository.findByUserId", List.of("userId")),
+            shape("menu_items", "MenuItemRepository.findByUserIdAndCategory", List.of("userId", "category")),
+            shape("menu_items", "MenuItemRepository.findByUserIdAndAvailableTrue / countByUserIdAndAvailableTrue",
+                    List.of("userId", "available")),
+            shape("menu_items", "MenuItemRepository.findByUserIdAndFeaturedTrue", List.of("userId", "featured")),
+            shape("menu_items", "MenuItemService.listMenuItems / streamMenuItems", List.of("userId"), "_id", 1),
+            shape("menu_items", "MenuItemService.listMenuItems / streamMenuItems (category)",
+                    List.of("userId", "category"), "_id", 1),
+
+            shape("menu_changes", "MenuSyncService.changesSince", List.of("userId"), "version", 1),
+            shape("menu_changes", "MenuSyncService.compact (createdAt before the cutoff)", List.of(), "createdAt", 1),
+
+            shape("orders", "OrderRepository.findByUserId / countByUserId", List.of("userId")),
+            shape("orders", "OrderRepository.findByUserIdAndStatus / countByUserIdAndStatus",
+                    List.of("userId", "status")),
+            shape("orders", "OrderRepository.findByUserIdAndStatusOrderByCreatedAtDesc",
+                    List.of("userId", "status"), "createdAt", -1),
+            shape("orders", "OrderRepository.findByTableId", List.of("tableId")),
+            shape("orders", "OrderRepository.findByOrderNumber", List.of("orderNumber")),
+            shape("orders", "OrderRepository.findByDeviceId", List.of("deviceId")),
+            shape("orders", "OrderArchiveService.archiveBatch (walks _id up to the cutoff)", List.of(), "_id", 1),
+
+            shape("feedback", "FeedbackRepository.findByUserId (sorted by createdAt) / countByUserId",
+                    List.of("userId"), "createdAt", -1),
+            shape("feedback", "FeedbackRepository.findTop5ByUserIdOrderByCreatedAtDesc",
+                    List.of("userId"), "createdAt", -1),
+            shape("feedback", "FeedbackRepository.findByUserIdAndCreatedAtBetween",
+                    List.of("userId"), "createdAt", -1),
+            shape("feedback", "FeedbackRepository.findByUserIdAndRating (sorted by createdAt)",
+                    List.of("userId", "rating"), "createdAt", -1),
+            shape("feedback", "FeedbackRepository.findByUserIdAndRatingGreaterThanEqual",
+                    List.of("userId"), "rating", 1),
+
+            shape("customer_sessions", "CustomerSessionRepository.findByDeviceId", List.of("deviceId")),
+            shape("customer_sessions", "CustomerSessionRepository.findByDeviceIdAndTableId",
+                    List.of("deviceId", "tableId")),
+            shape("customer_sessions", "VisitorRollupService.rollupBatch", List.of("pendingRollup"), "lastVisit", 1),
+
+            shape("visitor_daily_stats", "VisitorDailyStatsRepository.findByUserIdAndDayBetweenOrderByDayAsc",
+                    List.of("userId"), "day", 1)
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final IndexResolver indexResolver;
+    private final long sessionRetentionSeconds;
+
+    // index name -> error, for indexes MongoDB refused to build
+    private final Map<String, String> creationFailures = new ConcurrentHashMap<>();
+
+    // Last verify() result, read by the health checks (DOWN until the startup check ran)
+    private volatile Map<String, Object> lastReport = Map.of("healthy", false, "status", "not verified yet");
+
+    public IndexManagementService(
+            MongoTemplate mongoTemplate,
+            @Value("${app.sessions.retention-days:30}") long sessionRetentionDays
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.indexResolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        this.sessionRetentionSeconds = sessionRetentionDays * 24 * 60 * 60;
+    }
+
+    /**
+     * Runs once at startup: create, then verify
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        ensureIndexes();
+        Map<String, Object> report = refreshReport();
+        if ((boolean) report.get("healthy")) {
+            logger.info("MongoDB indexes verified: {} query shapes covered", QUERY_SHAPES.size());
+        } else {
+            logger.error("MongoDB indexes incomplete: {}", report);
+        }
+    }
+
+    /**
+     * The last verification report (cheap: no MongoDB call)
+     */
+    public Map<String, Object> report() {
+        return lastReport;
+    }
+
+    /**
+     * Verify again and keep the result for report() - an index dropped by hand
+     * shows up in the health checks within one interval
+     */
+    @Scheduled(initialDelayString = "${app.mongo.indexes.verify-interval-ms:60000}",
+            fixedDelayString = "${app.mongo.indexes.verify-interval-ms:60000}")
+    public void scheduledVerify() {
+        refreshReport();
+    }
+
+    private Map<String, Object> refreshReport() {
+        Map<String, Object> report;
+        try {
+            report = new LinkedHashMap<>(verify());
+        } catch (RuntimeException e) {
+            report = new LinkedHashMap<>();
+            report.put("healthy", false);
+            report.put("error", String.valueOf(e.getMessage()));
+        }
+        report.put("verifiedAt", Instant.now().toString());
+        lastReport = Collections.unmodifiableMap(report);
+        return lastReport;
+    }
+
+    /**
+     * Create every index declared on the models (safe to run again)
+     */
+    public void ensureIndexes() {
+        for (Class<?> entity : ENTITIES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            String collection = mongoTemplate.getCollectionName(entity);
+            for (IndexDefinition definition : indexResolver.resolveIndexFor(entity)) {
+                String key = collection + "." + keySignature(definition.getIndexKeys());
+                try {
+                    if (becameUnique(collection, definition)) {
+                        replaceWithUnique(indexOps, collection, definition);
+                    }
+                    indexOps.ensureIndex(definition);
+                    creationFailures.remove(key);
+                } catch (RuntimeException e) {
+                    creationFailures.put(key, e.getMessage());
+                    logger.error("Could not create index {}: {}", key, e.getMessage());
+                }
+            }
+        }
+        ensureSessionTtlIndex();
+    }
+
+    /**
+     * Unique on the model, but a plain index with the same keys exists (built
+     * before the model said unique). createIndex won't change that in place.
+     */
+    private boolean becameUnique(String collection, IndexDefinition definition) {
+        if (!isUnique(definition.getIndexOptions())) {
+            return false;
+        }
+        Document existing = findIndex(collection, definition.getIndexKeys());
+        return existing != null && !isUnique(existing);
+    }
+
+    /**
+     * Drop the plain index and build the unique one. If that fails (the data has
+     * duplicates), the plain index is put back so queries stay fast, and the
+     * failure is reported like any other until the duplicates are cleaned up.
+     */
+    private void replaceWithUnique(IndexOperations indexOps, String collection, IndexDefinition definition) {
+        Document existing = findIndex(collection, definition.getIndexKeys());
+        String name = existing.getString("name");
+        logger.info("Making index {}.{} unique", collection, name);
+        indexOps.dropIndex(name);
+        try {
+            indexOps.ensureIndex(definition);
+        } catch (RuntimeException e) {
+            mongoTemplate.getCollection(collection).createIndex(existing.get("key", Document.class),
+                    new IndexOptions().name(name));
+            throw e;
+        }
+    }
+
+    private static boolean isUnique(Document indexOptions) {
+        return Boolean.TRUE.equals(indexOptions.get("unique"));
+    }
+
+    /**
+     * TTL index on customer_sessions.lastVisit. createIndex refuses to change the
+     * expiry of an existing index, so a new retention setting goes through collMod.
+     */
+    private void ensureSessionTtlIndex() {
+        String key = SESSION_COLLECTION + "." + SESSION_TTL_FIELD + " (TTL)";
+        try {
+            Document existing = findIndex(SESSION_COLLECTION, new Document(SESSION_TTL_FIELD, 1));
+            if (existing == null) {
+                mongoTemplate.indexOps(SESSION_COLLECTION).ensureIndex(new Index()
+                        .on(SESSION_TTL_FIELD, Sort.Direction.ASC)
+                        .named(SESSION_TTL_FIELD + "_ttl")
+                        .expire(sessionRetentionSeconds));
+            } else if (!Long.valueOf(sessionRetentionSeconds).equals(expireAfterSeconds(existing))) {
+                mongoTemplate.getDb().runCommand(new Document("collMod", SESSION_COLLECTION)
+                        .append("index", new Document("keyPattern", new Document(SESSION_TTL_FIELD, 1))
+                                .append("expireAfterSeconds", sessionRetentionSeconds)));
+                logger.info("Session retention changed: {} now expires after {}s", key, sessionRetentionSeconds);
+            }
+            creationFailures.remove(key);
+        } catch (RuntimeException e) {
+            creationFailures.put(key, e.getMessage());
+            logger.error("Could not create index {}: {}", key, e.getMessage());
+        }
+    }
+
+    private Document findIndex(String collection, Document keys) {
+        if (!mongoTemplate.collectionExists(collection)) {
+            return null;
+        }
+        for (Document index : mongoTemplate.getCollection(collection).listIndexes()) {
+            if (normalize(index.get("key", Document.class)).equals(normalize(keys))) {
+                return index;
+            }
+        }
+        return null;
+    }
+
+    private static Long expireAfterSeconds(Document index) {
+        Object value = index.get("expireAfterSeconds");
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * Compare what MongoDB has against the models and the query shapes
+     *
+     * @return { healthy, missingIndexes: [...], uncoveredQueries: [...], creationFailures: {...} }
+     */
+    public Map<String, Object> verify() {
+        Map<String, List<List<Map.Entry<String, Integer>>>> existing = new LinkedHashMap<>();
+        List<String> missingIndexes = new ArrayList<>();
+
+        for (Class<?> entity : ENTITIES) {
+            String collection = mongoTemplate.getCollectionName(entity);
+            List<Document> indexes = existingIndexes(collection);
+            List<List<Map.Entry<String, Integer>>> keys = new ArrayList<>();
+            List<List<Map.Entry<String, Integer>>> uniqueKeys = new ArrayList<>();
+            for (Document index : indexes) {
+                keys.add(normalize(index.get("key", Document.class)));
+                if (isUnique(index)) {
+                    uniqueKeys.add(normalize(index.get("key", Document.class)));
+                }
+            }
+            existing.put(collection, keys);
+
+            for (IndexDefinition definition : indexResolver.resolveIndexFor(entity)) {
+                List<Map.Entry<String, Integer>> required = normalize(definition.getIndexKeys());
+                if (!keys.contains(required)) {
+                    missingIndexes.add(collection + "." + keySignature(definition.getIndexKeys()));
+                } else if (isUnique(definition.getIndexOptions()) && !uniqueKeys.contains(required)) {
+                    missingIndexes.add(collection + "." + keySignature(definition.getIndexKeys()) + " (unique)");
+                }
+            }
+        }
+
+        Document ttlIndex = findIndex(SESSION_COLLECTION, new Document(SESSION_TTL_FIELD, 1));
+        if (ttlIndex == null || expireAfterSeconds(ttlIndex) == null) {
+            missingIndexes.add(SESSION_COLLECTION + "." + SESSION_TTL_FIELD + " (TTL)");
+        }
+
+        List<String> uncoveredQueries = new ArrayList<>();
+        for (QueryShape shape : QUERY_SHAPES) {
+            List<List<Map.Entry<String, Integer>>> keys = existing.getOrDefault(shape.collection(), List.of());
+            if (keys.stream().noneMatch(shape::isCoveredBy)) {
+                uncoveredQueries.add(shape.collection() + ": " + shape.method());
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("healthy", missingIndexes.isEmpty() && uncoveredQueries.isEmpty());
+        report.put("missingIndexes", missingIndexes);
+        report.put("uncoveredQueries", uncoveredQueries);
+        report.put("creationFailures", Map.copyOf(creationFailures));
+        return report;
+    }
+
+    private List<Document> existingIndexes(String collection) {
+        List<Document> indexes = new ArrayList<>();
+        if (mongoTemplate.collectionExists(collection)) {
+            mongoTemplate.getCollection(collection).listIndexes().into(indexes);
+        }
+        return indexes;
+    }
+
+    /**
+     * Index keys as an ordered list of (field, direction).
+     * Document.equals ignores key order, but for an index the order is everything.
+     */
+    private static List<Map.Entry<String, Integer>> normalize(Document keys) {
+        List<Map.Entry<String, Integer>> fields = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : keys.entrySet()) {
+            int direction = entry.getValue() instanceof Number number ? number.intValue() : 0;
+            fields.add(Map.entry(entry.getKey(), direction));
+        }
+        return fields;
+    }
+
+    private static String keySignature(Document keys) {
+        return normalize(keys).toString();
+    }
+
+    private static QueryShape shape(String collection, String method, List<String> equality) {
+        return new QueryShape(collection, method, equality, null, 0);
+    }
+
+    private static QueryShape shape(String collection, String method, List<String> equality,
+                                    String sortField, int sortDirection) {
+        return new QueryShape(collection, method, equality, sortField, sortDirection);
+    }
+
+    /**
+     * Fields a query filters on with "=", plus an optional sort (or range) field
+     */
+    private record QueryShape(String collection, String method, List<String> equality,
+                              String sortField, int sortDirection) {
+
+        boolean isCoveredBy(List<Map.Entry<String, Integer>> indexKeys) {
+            int size = equality.size() + (sortField == null ? 0 : 1);
+            if (indexKeys.size() < size) {
+                return false;
+            }
+            // Equality fields first, in any order...
+            for (int i = 0; i < equality.size(); i++) {
+                if (!equality.contains(indexKeys.get(i).getKey())) {
+                    return false;
+                }
+            }
+            // ...then the sort field (MongoDB can walk an index backwards, so either direction works)
+            if (sortField != null) {
+                Map.Entry<String, Integer> next = indexKeys.get(equality.size());
+                return next.getKey().equals(sortField) && Math.abs(next.getValue()) == Math.abs(sortDirection);
+            }
+            return true;
+        }
+    }
+}
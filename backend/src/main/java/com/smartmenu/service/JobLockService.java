@@ -0,0 +1,69 @@
+package com.smartmenu.service;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Job Lock Service - "only one server runs this job at a time"
+ *
+ * TEACHING MOMENT:
+ * With two backend instances, every @Scheduled job fires twice. In PHP you'd
+ * use flock() on a shared file; here the lock is a document in "job_locks":
+ *   { _id: "visitor-rollup", lockedBy: "<instance>", lockedUntil: <time> }
+ * Taking it is one atomic findAndModify: "if it's free or expired, it's mine".
+ * If the holder dies, the lock simply expires.
+ */
+@Service
+public class JobLockService {
+
+    private static final String COLLECTION = "job_locks";
+
+    // Identifies this server instance
+    private static final String INSTANCE_ID = UUID.randomUUID().toString();
+
+    private final MongoTemplate mongoTemplate;
+
+    public JobLockService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Take (or extend) the lock for up to {@code duration}
+     *
+     * @return false if another instance holds it
+     */
+    public boolean tryLock(String job, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        Query available = Query.query(Criteria.where("_id").is(job).orOperator(
+                Criteria.where("lockedBy").is(INSTANCE_ID),
+                Criteria.where("lockedUntil").lt(now)));
+        Update take = new Update().set("lockedBy", INSTANCE_ID).set("lockedUntil", now.plus(duration));
+        try {
+            // Upsert: the first run creates the document. If someone else holds the lock
+            // the query doesn't match, the upsert tries to insert the same _id and fails.
+            return mongoTemplate.findAndModify(available, take,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), Document.class, COLLECTION) != null;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Release the lock, if this instance holds it
+     */
+    public void unlock(String job) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(job).and("lockedBy").is(INSTANCE_ID)),
+                new Update().set("lockedUntil", LocalDateTime.now()), COLLECTION);
+    }
+}
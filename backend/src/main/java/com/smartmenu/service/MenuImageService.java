@@ -0,0 +1,439 @@
+package com.smartmenu.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Menu Image Service - Uploads, deduplication and thumbnails for menu photos
+ *
+ * TEACHING MOMENT - Don't send a 4 MB phone photo to a phone
+ *
+ * Owners upload photos straight from their phone camera (3000+ px, several MB).
+ * The customer menu shows them at ~150 px in a list. So every upload becomes:
+ *   original    the uploaded file, kept as is (ImageStore)
+ *   thumb.jpg   160 px wide  - menu list
+ *   card.jpg    480 px wide  - item card / retina list
+ *   full.jpg   1200 px wide  - item detail
+ * A menu page with 40 photos goes from ~100 MB to ~1 MB.
+ *
+ * Resizing is CPU-heavy (~20-100 ms per variant), so it runs on its own small
+ * pool with a bounded queue, like BCrypt in PasswordHashingService: a burst of
+ * uploads waits its turn or gets "busy, try again" instead of eating the
+ * threads that serve menus. The variants of one upload are made in parallel.
+ *
+ * Memory: the 5 MB upload limit doesn't bound the decoded image - a flat PNG
+ * of a few KB can decode to 30 MP (120 MB). So decoding needs a permit
+ * (app.images.max-decodes): an upload holds one from before decoding until
+ * its variants are written, and gets "busy" (503) if none is free. A timed-out
+ * upload answers right away, but Java2D resizing and JPEG encoding can't be
+ * interrupted, so the permit only comes back when the last variant task that
+ * saw the image has finished. At most max-decodes full-size images are in
+ * memory at any time, overload included.
+ *
+ * Deduplication: files are named by SHA-256 of the upload, so an identical
+ * photo (same dish on two menus, a double-clicked upload) is recognized
+ * before any decoding and costs nothing. Two identical uploads at the same
+ * moment share one processing job.
+ *
+ * Metrics: images.process (timer), images.uploaded / images.deduplicated /
+ * images.rejected (counters), images.queue.size / images.decodes.active (gauges)
+ */
+@Service
+public class MenuImageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuImageService.class);
+
+    public static final String ORIGINAL = "original";
+
+    // Variant name → max width in pixels (never upscaled)
+    public static final Map<String, Integer> VARIANTS = variants();
+
+    // A decoded pixel takes 4 bytes: 30 MP = 120 MB, refuse bigger images up front
+    private static final long MAX_PIXELS = 30_000_000L;
+    private static final float JPEG_QUALITY = 0.82f;
+
+    /**
+     * A stored image: its hash and the public URL of every variant
+     */
+    public record StoredImage(String hash, Map<String, String> variants, boolean duplicate) {
+
+        /** The URL to use as MenuItem.imageUrl (the largest variant) */
+        public String url() {
+            return variants.get("full");
+        }
+    }
+
+    private final ImageStore imageStore;
+    private final String publicUrl;
+    private final Pattern ownUrl;
+    private final ThreadPoolExecutor executor;
+    private final int maxDecodes;
+    private final Semaphore decodePermits;
+    private final long timeoutMs;
+
+    // Uploads being processed right now, by hash (identical concurrent uploads share the work)
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    private final Timer processTimer;
+    private final Counter uploadedCounter;
+    private final Counter deduplicatedCounter;
+    private final Counter rejectedCounter;
+
+    public MenuImageService(
+            ImageStore imageStore,
+            MeterRegistry meterRegistry,
+            @Value("${app.images.public-url:http://localhost:8080/api/public/images}") String publicUrl,
+            @Value("${app.images.threads:2}") int threads,
+            @Value("${app.images.queue-capacity:32}") int queueCapacity,
+            @Value("${app.images.max-decodes:2}") int maxDecodes,
+            @Value("${app.images.timeout-ms:30000}") long timeoutMs
+    ) {
+        this.imageStore = imageStore;
+        this.publicUrl = publicUrl.endsWith("/") ? publicUrl.substring(0, publicUrl.length() - 1) : publicUrl;
+        this.ownUrl = Pattern.compile(Pattern.quote(this.publicUrl) + "/([0-9a-f]{64})/[a-z]+\\.jpg");
+        this.timeoutMs = timeoutMs;
+        this.maxDecodes = maxDecodes;
+        this.decodePermits = new Semaphore(maxDecodes);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-resize-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()  // Full queue → RejectedExecutionException
+        );
+
+        this.processTimer = Timer.builder("images.process").register(meterRegistry);
+        this.uploadedCounter = Counter.builder("images.uploaded").register(meterRegistry);
+        this.deduplicatedCounter = Counter.builder("images.deduplicated").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("images.rejected").register(meterRegistry);
+        Gauge.builder("images.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("images.decodes.active", decodePermits, p -> maxDecodes - p.availablePermits())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Store an uploaded image and its variants (or find the identical one already stored)
+     *
+     * @throws IllegalArgumentException not an image we can read, or too large
+     * @throws IllegalStateException    too many uploads being processed, try again later
+     */
+    public StoredImage upload(byte[] content) {
+        String hash = ImageStore.hash(content);
+        if (isComplete(hash)) {
+            deduplicatedCounter.increment();
+            return stored(hash, true);
+        }
+
+        CompletableFuture<Void> job = new CompletableFuture<>();
+        CompletableFuture<Void> running = inFlight.putIfAbsent(hash, job);
+        if (running != null) {
+            deduplicatedCounter.increment();
+            await(running);  // Same photo is being processed by another request
+            return stored(hash, true);
+        }
+
+        try {
+            processTimer.record(() -> process(hash, content));
+            job.complete(null);
+        } catch (RuntimeException e) {
+            job.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(hash, job);
+        }
+        uploadedCounter.increment();
+        return stored(hash, false);
+    }
+
+    /**
+     * Variants of an image URL produced by this service, or null for other URLs
+     * (e.g. an external imageUrl typed in by the owner)
+     */
+    public StoredImage fromUrl(String url) {
+        if (url == null) {
+            return null;
+        }
+        Matcher matcher = ownUrl.matcher(url);
+        return matcher.matches() ? stored(matcher.group(1), true) : null;
+    }
+
+    private void process(String hash, byte[] content) {
+        // Held until the variants are written: bounds the decoded images in memory
+        if (!decodePermits.tryAcquire()) {
+            rejectedCounter.increment();
+            throw new IllegalStateException("Image processing is busy, please try again shortly");
+        }
+        DecodePermit permit = new DecodePermit();
+        try {
+            resizeAll(hash, content, permit);
+        } finally {
+            permit.release();
+        }
+    }
+
+    private void resizeAll(String hash, byte[] content, DecodePermit permit) {
+        BufferedImage image = decode(content);  // On the request thread: bad input fails fast
+
+        List<VariantTask> tasks = new ArrayList<>();
+        try {
+            for (Map.Entry<String, Integer> variant : VARIANTS.entrySet()) {
+                tasks.add(submitVariant(hash, image, variant.getKey(), variant.getValue(), permit));
+            }
+        } catch (RejectedExecutionException e) {
+            tasks.forEach(VariantTask::cancel);
+            rejectedCounter.increment();
+            throw new IllegalStateException("Image processing is busy, please try again shortly");
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        for (VariantTask task : tasks) {
+            try {
+                task.future().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                tasks.forEach(VariantTask::cancel);
+                throw new IllegalStateException("Image processing is busy, please try again shortly");
+            } catch (InterruptedException e) {
+                tasks.forEach(VariantTask::cancel);
+                Thread.currentThread().interrupt();
+                throw new ImageProcessingException("Interrupted while processing image", e);
+            } catch (ExecutionException e) {
+                tasks.forEach(VariantTask::cancel);
+                throw new ImageProcessingException("Image processing failed", e.getCause());
+            }
+        }
+
+        // Original last: its presence (with all variants) marks the image complete
+        writeFile(hash, ORIGINAL, content);
+        logger.debug("Stored image {} ({} bytes, {}x{})", hash, content.length, image.getWidth(), image.getHeight());
+    }
+
+    /**
+     * Resize and write one variant. The task shares the upload's decode permit
+     * until it has finished, or gives it back in cancel() if it never started.
+     */
+    private VariantTask submitVariant(String hash, BufferedImage image, String name, int width, DecodePermit permit) {
+        AtomicBoolean started = new AtomicBoolean();
+        permit.hold();
+        try {
+            Future<?> future = executor.submit(() -> {
+                if (started.getAndSet(true)) {
+                    return null;  // Cancelled while queued; cancel() let go of the permit
+                }
+                try {
+                    writeFile(hash, name + ".jpg", toJpeg(resize(image, width)));
+                    return null;
+                } finally {
+                    permit.release();
+                }
+            });
+            return new VariantTask(future, started, permit);
+        } catch (RejectedExecutionException e) {
+            permit.release();
+            throw e;
+        }
+    }
+
+    private record VariantTask(Future<?> future, AtomicBoolean started, DecodePermit permit) {
+
+        void cancel() {
+            future.cancel(true);  // Only stops a queued task: Java2D ignores interrupts
+            if (!started.getAndSet(true)) {
+                permit.release();
+            }
+        }
+    }
+
+    /**
+     * One upload's decode permit, shared by the request and its variant tasks:
+     * returned to decodePermits when the last of them lets go
+     */
+    private final class DecodePermit {
+
+        private final AtomicInteger holders = new AtomicInteger(1);  // The request itself
+
+        void hold() {
+            holders.incrementAndGet();
+        }
+
+        void release() {
+            if (holders.decrementAndGet() == 0) {
+                decodePermits.release();
+            }
+        }
+    }
+
+    private boolean isComplete(String hash) {
+        if (!imageStore.exists(hash, ORIGINAL)) {
+            return false;
+        }
+        for (String variant : VARIANTS.keySet()) {
+            if (!imageStore.exists(hash, variant + ".jpg")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private StoredImage stored(String hash, boolean duplicate) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (String variant : VARIANTS.keySet()) {
+            urls.put(variant, publicUrl + "/" + hash + "/" + variant + ".jpg");
+        }
+        return new StoredImage(hash, urls, duplicate);
+    }
+
+    private static BufferedImage decode(byte[] content) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format (use JPEG, PNG, GIF or BMP)");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Check the size from the header before allocating pixels
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) {
+                    throw new IllegalArgumentException("Image is too large (max " + MAX_PIXELS / 1_000_000 + " megapixels)");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read image: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Scale down to maxWidth (keeping the aspect ratio), halving in steps:
+     * one big bilinear jump from 4000 to 160 px looks grainy, steps don't
+     */
+    static BufferedImage resize(BufferedImage source, int maxWidth) {
+        int targetWidth = Math.min(maxWidth, source.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            // RGB on white: JPEG has no transparency (PNG logos get a white background)
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = step.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    static byte[] toJpeg(BufferedImage image) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+        try (MemoryCacheImageOutputStream output = new MemoryCacheImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);  // Progressive: shows early on slow networks
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode JPEG", e);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private void writeFile(String hash, String fileName, byte[] content) {
+        try {
+            imageStore.write(hash, fileName, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store image " + hash + "/" + fileName, e);
+        }
+    }
+
+    private void await(CompletableFuture<Void> job) {
+        try {
+            job.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Image processing is busy, please try again shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImageProcessingException("Interrupted while processing image", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause
+                    ? cause : new ImageProcessingException("Image processing failed", e.getCause());
+        }
+    }
+
+    private static Map<String, Integer> variants() {
+        Map<String, Integer> variants = new LinkedHashMap<>();
+        variants.put("thumb", 160);
+        variants.put("card", 480);
+        variants.put("full", 1200);
+        return Collections.unmodifiableMap(variants);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,41 @@
+package com.smartmenu.service;
+
+import com.smartmenu.dto.MenuItemResponse;
+import com.smartmenu.model.MenuItem;
+
+/**
+ * MenuItem Mapper - MenuItem model → MenuItemResponse DTO
+ *
+ * Only copies fields, so it needs no repositories or other beans: a static
+ * method anyone can call (services, controllers, the benchmarks module).
+ * Like a plain PHP function that turns a database row into the API array.
+ */
+public final class MenuItemMapper {
+
+    private MenuItemMapper() {
+    }
+
+    /**
+     * Convert MenuItem model to MenuItemResponse DTO
+     * This controls what data goes to the client
+     */
+    public static MenuItemResponse toResponse(MenuItem item) {
+        MenuItemResponse response = new MenuItemResponse();
+        response.setId(item.getId());
+        response.setUserId(item.getUserId());
+        response.setName(item.getName());
+        response.setDescription(item.getDescription());
+        response.setPrice(item.getPrice());
+        response.setCategory(item.getCategory());
+        response.setImageUrl(item.getImageUrl());
+        response.setImageVariants(item.getImageVariants());
+        response.setAvailable(item.isAvailable());
+        response.setAllergens(item.getAllergens());
+        response.setPrepTimeMinutes(item.getPrepTimeMinutes());
+        response.setFeatured(item.isFeatured());
+        response.setCreatedAt(item.getCreatedAt());
+        response.setUpdatedAt(item.getUpdatedAt());
+        response.setVersion(item.getVersion());
+        return response;
+    }
+}
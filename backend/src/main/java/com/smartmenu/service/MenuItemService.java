@@ -1,51 +1,92 @@
 package com.smartmenu.service;
 
+import com.smartmenu.dto.MenuItemPatchRequest;
 import com.smartmenu.dto.MenuItemRequest;
 import com.smartmenu.dto.MenuItemResponse;
+import com.smartmenu.model.MenuChange;
 import com.smartmenu.model.MenuItem;
 import com.smartmenu.repository.MenuItemRepository;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * MenuItem Service - Business logic for menu items
  * 
  * @Service tells Spring this is a service layer component
  * @RequiredArgsConstructor (Lombok) creates constructor for final fields
+ * 
+ * Every write goes through saved()/deleted(), which keep the search index
+ * (MenuSearchService) and the menu change log (MenuSyncService) up to date.
+ * 
+ * TEACHING MOMENT - Read-modify-write vs atomic updates
+ * 
+ * "Find the item, change a field, save the whole document" takes 2 round trips,
+ * and two staff phones doing it at the same moment overwrite each other (the
+ * second save wins, the first change is silently lost). So:
+ *   - toggles, partial edits (PATCH) and bulk availability are single updates
+ *     that only touch the fields they change ($set), like
+ *     UPDATE menu_items SET available = NOT available WHERE id = ? in MySQL
+ *   - every item has a version (@Version). A client that sends the version it
+ *     edited gets 409 Conflict if someone changed the item since, instead of
+ *     overwriting their change ("optimistic locking")
  */
 @Service
 @RequiredArgsConstructor
 public class MenuItemService {
     
-    private final MenuItemRepository menuItemRepository;
+    /**
+     * Fields a listing can be limited to (?fields=name,price); id is always included
+     */
+    public static final Map<String, Function<MenuItemResponse, Object>> LIST_FIELDS = listFields();
     
     /**
-     * Convert MenuItem model to MenuItemResponse DTO
-     * This controls what data goes to the client
+     * One page of a restaurant's menu items
+     * 
+     * @param nextCursor pass as ?after= to get the next page (null: this was the last page)
      */
-    private MenuItemResponse toResponse(MenuItem item) {
-        MenuItemResponse response = new MenuItemResponse();
-        response.setId(item.getId());
-        response.setUserId(item.getUserId());
-        response.setName(item.getName());
-        response.setDescription(item.getDescription());
-        response.setPrice(item.getPrice());
-        response.setCategory(item.getCategory());
-        response.setImageUrl(item.getImageUrl());
-        response.setAvailable(item.isAvailable());
-        response.setAllergens(item.getAllergens());
-        response.setPrepTimeMinutes(item.getPrepTimeMinutes());
-        response.setFeatured(item.isFeatured());
-        response.setCreatedAt(item.getCreatedAt());
-        response.setUpdatedAt(item.getUpdatedAt());
-        return response;
+    public record MenuItemPage(List<MenuItem> items, String nextCursor) {
     }
     
+    /**
+     * Result of a bulk availability change
+     * 
+     * @param updated documents the update modified (MongoDB's count)
+     * @param items   the items this request changed, as they are now
+     */
+    public record AvailabilityChange(long updated, List<MenuItemResponse> items) {
+    }
+    
+    private final MenuItemRepository menuItemRepository;
+    private final MongoTemplate mongoTemplate;          // Targeted updates ($set, update pipelines)
+    private final MenuImageService menuImageService;
+    private final MenuSearchService menuSearchService;  // In-memory search, updated on every write
+    private final MenuSyncService menuSyncService;      // Menu version + change log for delta sync
+    
     /**
      * Convert MenuItemRequest DTO to MenuItem model
      * This creates model from client input
@@ -57,7 +98,7 @@ public class MenuItemService {
         item.setDescription(request.getDescription());
         item.setPrice(request.getPrice());
         item.setCategory(request.getCategory());
-        item.setImageUrl(request.getImageUrl());
+        setImage(item, request.getImageUrl());
         item.setAvailable(request.getAvailable() != null ? request.getAvailable() : true);
         item.setAllergens(request.getAllergens());
         item.setPrepTimeMinutes(request.getPrepTimeMinutes());
@@ -68,12 +109,86 @@ public class MenuItemService {
     }
     
     /**
-     * Get all menu items (returns DTOs)
+     * Only the requested fields of an item (plus id), for ?fields= listings
      */
-    public List<MenuItemResponse> getAllMenuItems() {
-        return menuItemRepository.findAll().stream()
-            .map(this::toResponse)
-            .toList();
+    public Map<String, Object> toFields(MenuItem item, Collection<String> fields) {
+        MenuItemResponse response = MenuItemMapper.toResponse(item);
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("id", response.getId());
+        for (String field : fields) {
+            values.put(field, LIST_FIELDS.get(field).apply(response));
+        }
+        return values;
+    }
+    
+    /**
+     * One page of a restaurant's menu items, in id order
+     * 
+     * TEACHING MOMENT - Cursor (keyset) pagination
+     * 
+     * LIMIT 50 OFFSET 5000 makes the database walk past 5000 items to throw them
+     * away, and an item inserted meanwhile shifts every later page. Instead the
+     * client passes the last id it got (?after=...), and the next page is
+     * "_id > that id", read straight from the {userId, _id} index - page 100
+     * costs the same as page 1. Like WHERE id > ? ORDER BY id LIMIT 50 in MySQL.
+     * 
+     * @param category only this category (null: all)
+     * @param after    cursor from the previous page (null: first page)
+     * @param fields   only load these fields (null: all)
+     */
+    public MenuItemPage listMenuItems(String userId, String category, String after, int limit, Collection<String> fields) {
+        Query query = listQuery(userId, category, after, fields).limit(limit + 1);  // One extra: is there a next page?
+        List<MenuItem> items = mongoTemplate.find(query, MenuItem.class);
+        if (items.size() <= limit) {
+            return new MenuItemPage(items, null);
+        }
+        List<MenuItem> page = items.subList(0, limit);
+        return new MenuItemPage(page, page.get(limit - 1).getId());
+    }
+    
+    /**
+     * All of a restaurant's menu items, read from a cursor as they're consumed
+     * (never the whole list in memory). The caller must close the stream.
+     */
+    public Stream<MenuItem> streamMenuItems(String userId, String category, Collection<String> fields) {
+        return mongoTemplate.stream(listQuery(userId, category, null, fields), MenuItem.class);
+    }
+    
+    private static Query listQuery(String userId, String category, String after, Collection<String> fields) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (category != null) {
+            criteria.and("category").is(category);
+        }
+        if (after != null) {
+            if (!ObjectId.isValid(after)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            criteria.and("_id").gt(new ObjectId(after));
+        }
+        Query query = Query.query(criteria).with(Sort.by(Sort.Direction.ASC, "_id"));
+        if (fields != null) {
+            query.fields().include(fields.toArray(String[]::new));
+        }
+        return query;
+    }
+    
+    private static Map<String, Function<MenuItemResponse, Object>> listFields() {
+        Map<String, Function<MenuItemResponse, Object>> fields = new LinkedHashMap<>();
+        fields.put("userId", MenuItemResponse::getUserId);
+        fields.put("name", MenuItemResponse::getName);
+        fields.put("description", MenuItemResponse::getDescription);
+        fields.put("price", MenuItemResponse::getPrice);
+        fields.put("category", MenuItemResponse::getCategory);
+        fields.put("imageUrl", MenuItemResponse::getImageUrl);
+        fields.put("imageVariants", MenuItemResponse::getImageVariants);
+        fields.put("available", MenuItemResponse::isAvailable);
+        fields.put("allergens", MenuItemResponse::getAllergens);
+        fields.put("prepTimeMinutes", MenuItemResponse::getPrepTimeMinutes);
+        fields.put("featured", MenuItemResponse::isFeatured);
+        fields.put("createdAt", MenuItemResponse::getCreatedAt);
+        fields.put("updatedAt", MenuItemResponse::getUpdatedAt);
+        fields.put("version", MenuItemResponse::getVersion);
+        return Collections.unmodifiableMap(fields);
     }
     
     /**
@@ -81,7 +196,7 @@ public class MenuItemService {
      */
     public List<MenuItemResponse> getMenuItemsByUserId(String userId) {
         return menuItemRepository.findByUserId(userId).stream()
-            .map(this::toResponse)
+            .map(MenuItemMapper::toResponse)
             .toList();
     }
     
@@ -90,7 +205,7 @@ public class MenuItemService {
      */
     public List<MenuItemResponse> getAvailableMenuItems(String userId) {
         return menuItemRepository.findByUserIdAndAvailableTrue(userId).stream()
-            .map(this::toResponse)
+            .map(MenuItemMapper::toResponse)
             .toList();
     }
     
@@ -99,7 +214,7 @@ public class MenuItemService {
      */
     public Optional<MenuItemResponse> getMenuItemById(String id) {
         return menuItemRepository.findById(id)
-            .map(this::toResponse);
+            .map(MenuItemMapper::toResponse);
     }
     
     /**
@@ -107,8 +222,8 @@ public class MenuItemService {
      */
     public MenuItemResponse createMenuItem(MenuItemRequest request) {
         MenuItem item = toModel(request);
-        MenuItem saved = menuItemRepository.save(item);
-        return toResponse(saved);
+        MenuItem saved = saved(menuItemRepository.save(item), null, MenuChange.Type.CREATED);
+        return MenuItemMapper.toResponse(saved);
     }
     
     /**
@@ -118,6 +233,7 @@ public class MenuItemService {
         // Check if exists
         MenuItem existing = menuItemRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Menu item not found with id: " + id));
+        String previousUserId = existing.getUserId();
         
         // Update fields
         existing.setUserId(request.getUserId());
@@ -125,36 +241,216 @@ public class MenuItemService {
         existing.setDescription(request.getDescription());
         existing.setPrice(request.getPrice());
         existing.setCategory(request.getCategory());
-        existing.setImageUrl(request.getImageUrl());
+        setImage(existing, request.getImageUrl());
         existing.setAvailable(request.getAvailable() != null ? request.getAvailable() : true);
         existing.setAllergens(request.getAllergens());
         existing.setPrepTimeMinutes(request.getPrepTimeMinutes());
         existing.setFeatured(request.getFeatured() != null ? request.getFeatured() : false);
         existing.setUpdatedAt(LocalDateTime.now());
+        if (request.getVersion() != null) {
+            existing.setVersion(request.getVersion());  // save() fails if the item changed since the client read it
+        }
         
-        MenuItem updated = menuItemRepository.save(existing);
-        return toResponse(updated);
+        MenuItem updated = saved(menuItemRepository.save(existing), previousUserId, MenuChange.Type.UPDATED);
+        return MenuItemMapper.toResponse(updated);
+    }
+    
+    /**
+     * Partial update: only the fields present in the request are changed
+     * 
+     * One findAndModify with $set for those fields (no read first). If the
+     * request has a version, the update only matches that version.
+     * 
+     * @throws OptimisticLockingFailureException if the item changed since that version
+     */
+    public MenuItemResponse patchMenuItem(String id, MenuItemPatchRequest patch) {
+        Update update = new Update();
+        if (patch.getName() != null) {
+            update.set("name", patch.getName());
+        }
+        if (patch.getDescription() != null) {
+            update.set("description", patch.getDescription());
+        }
+        if (patch.getPrice() != null) {
+            update.set("price", patch.getPrice());
+        }
+        if (patch.getCategory() != null) {
+            update.set("category", patch.getCategory());
+        }
+        if (patch.getImageUrl() != null) {
+            MenuImageService.StoredImage image = menuImageService.fromUrl(patch.getImageUrl());
+            update.set("imageUrl", patch.getImageUrl())
+                .set("imageHash", image != null ? image.hash() : null)
+                .set("imageVariants", image != null ? image.variants() : null);
+        }
+        if (patch.getAvailable() != null) {
+            update.set("available", patch.getAvailable());
+        }
+        if (patch.getAllergens() != null) {
+            update.set("allergens", patch.getAllergens());
+        }
+        if (patch.getPrepTimeMinutes() != null) {
+            update.set("prepTimeMinutes", patch.getPrepTimeMinutes());
+        }
+        if (patch.getFeatured() != null) {
+            update.set("featured", patch.getFeatured());
+        }
+        update.set("updatedAt", LocalDateTime.now()).inc("version", 1);
+        
+        MenuItem updated = modify(id, patch.getVersion(), update);
+        MenuChange.Type type = patch.onlyAvailability() ? MenuChange.Type.TOGGLED : MenuChange.Type.UPDATED;
+        return MenuItemMapper.toResponse(saved(updated, updated.getUserId(), type));
+    }
+    
+    /**
+     * Upload a photo for a menu item and use it (its smaller variants too)
+     * 
+     * Only the image fields are written, so an edit made while the photo was
+     * being resized isn't overwritten.
+     */
+    public MenuItemResponse attachImage(String id, byte[] content) {
+        if (!menuItemRepository.existsById(id)) {
+            throw new RuntimeException("Menu item not found with id: " + id);
+        }
+        MenuImageService.StoredImage image = menuImageService.upload(content);
+        MenuItem updated = modify(id, null, new Update()
+            .set("imageUrl", image.url())
+            .set("imageHash", image.hash())
+            .set("imageVariants", image.variants())
+            .set("updatedAt", LocalDateTime.now())
+            .inc("version", 1));
+        return MenuItemMapper.toResponse(saved(updated, updated.getUserId(), MenuChange.Type.UPDATED));
+    }
+    
+    /**
+     * findAndModify one item (optionally only at the given version)
+     * 
+     * @return the item after the update
+     */
+    private MenuItem modify(String id, Long expectedVersion, Update update) {
+        Criteria criteria = Criteria.where("_id").is(id);
+        if (expectedVersion != null) {
+            criteria.and("version").is(expectedVersion);
+        }
+        MenuItem updated = mongoTemplate.findAndModify(Query.query(criteria), update,
+            FindAndModifyOptions.options().returnNew(true), MenuItem.class);
+        if (updated == null) {
+            throw notUpdated(id, expectedVersion);
+        }
+        return updated;
+    }
+    
+    private RuntimeException notUpdated(String id, Long expectedVersion) {
+        if (expectedVersion != null && menuItemRepository.existsById(id)) {
+            return new OptimisticLockingFailureException(
+                "Menu item " + id + " was changed by someone else (you edited version " + expectedVersion + ")");
+        }
+        return new RuntimeException("Menu item not found with id: " + id);
+    }
+    
+    /**
+     * Set imageUrl; if it's one of our uploaded images, its variants come along
+     * (so a form that only sends imageUrl keeps the small sizes)
+     */
+    private void setImage(MenuItem item, String imageUrl) {
+        MenuImageService.StoredImage image = menuImageService.fromUrl(imageUrl);
+        item.setImageUrl(imageUrl);
+        item.setImageHash(image != null ? image.hash() : null);
+        item.setImageVariants(image != null ? image.variants() : null);
     }
     
     /**
      * Toggle availability
+     * 
+     * One update pipeline: MongoDB flips the value itself (available = NOT available),
+     * so two staff toggling at once give two flips, never a lost one.
      */
     public MenuItemResponse toggleAvailability(String id) {
-        MenuItem item = menuItemRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Menu item not found with id: " + id));
-        item.setAvailable(!item.isAvailable());
-        item.setUpdatedAt(LocalDateTime.now());
-        MenuItem updated = menuItemRepository.save(item);
-        return toResponse(updated);
+        Date now = Date.from(LocalDateTime.now().atZone(ZoneId.systemDefault()).toInstant());
+        AggregationUpdate flip = AggregationUpdate.update()
+            .set("available").toValue(BooleanOperators.Not.not("available"))
+            .set("updatedAt").toValue(now)
+            .set("version").toValue(ArithmeticOperators.Add.valueOf(ConditionalOperators.ifNull("version").then(0)).add(1));
+        MenuItem updated = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(id)), flip,
+            FindAndModifyOptions.options().returnNew(true), MenuItem.class);
+        if (updated == null) {
+            throw new RuntimeException("Menu item not found with id: " + id);
+        }
+        return MenuItemMapper.toResponse(saved(updated, updated.getUserId(), MenuChange.Type.TOGGLED));
+    }
+    
+    /**
+     * Mark many items of one restaurant available/unavailable ("we ran out of rice")
+     * 
+     * A constant number of round trips however many items: find which ones
+     * actually change, one updateMany, read them back, and log all changes at once.
+     * Ids of other restaurants and items already in that state are skipped.
+     * 
+     * Another device may change some of the items between the find and the
+     * update. So the update only matches items still at the version we read,
+     * and afterwards only items in the new state at exactly that version + 1
+     * count as ours. Those, not every id from the find, are returned and logged.
+     */
+    public AvailabilityChange setAvailability(String userId, List<String> ids, boolean available) {
+        Query toChange = Query.query(Criteria.where("_id").in(ids).and("userId").is(userId).and("available").is(!available));
+        toChange.fields().include("_id", "version");
+        Map<String, Long> readVersions = mongoTemplate.find(toChange, MenuItem.class).stream()
+            .collect(Collectors.toMap(MenuItem::getId, item -> item.getVersion() != null ? item.getVersion() : 0L));
+        if (readVersions.isEmpty()) {
+            return new AvailabilityChange(0, List.of());
+        }
+        
+        // { $or: [ { _id: a, version: 3 }, { _id: b, version: 7 }, ... ] }
+        Criteria[] unchanged = readVersions.entrySet().stream()
+            .map(entry -> entry.getValue() == 0
+                // Items saved without a version were read as 0; null matches those
+                ? Criteria.where("_id").is(entry.getKey()).and("version").in(0L, null)
+                : Criteria.where("_id").is(entry.getKey()).and("version").is(entry.getValue()))
+            .toArray(Criteria[]::new);
+        long updated = mongoTemplate.updateMulti(
+            Query.query(new Criteria().orOperator(unchanged).and("available").is(!available)),
+            new Update().set("available", available).set("updatedAt", LocalDateTime.now()).inc("version", 1),
+            MenuItem.class).getModifiedCount();
+        if (updated == 0) {
+            return new AvailabilityChange(0, List.of());
+        }
+        
+        List<MenuItem> current = mongoTemplate.find(Query.query(Criteria.where("_id").in(readVersions.keySet())), MenuItem.class);
+        List<MenuItem> changed = current.stream()
+            .filter(item -> item.isAvailable() == available
+                && item.getVersion() != null && item.getVersion() == readVersions.get(item.getId()) + 1)
+            .toList();
+        
+        menuSearchService.itemsSaved(userId, current);  // Newest state of all of them; older versions are ignored
+        menuSyncService.recordChanges(userId, changed.stream().map(MenuItem::getId).toList(), MenuChange.Type.TOGGLED);
+        return new AvailabilityChange(updated, changed.stream().map(MenuItemMapper::toResponse).toList());
     }
     
     /**
      * Delete menu item
      */
     public void deleteMenuItem(String id) {
-        if (!menuItemRepository.existsById(id)) {
-            throw new RuntimeException("Menu item not found with id: " + id);
-        }
+        MenuItem item = menuItemRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Menu item not found with id: " + id));
         menuItemRepository.deleteById(id);
+        deleted(item.getUserId(), id);
+    }
+    
+    /**
+     * After a save: update the search index and log the change
+     * (an item moved to another owner is a delete there)
+     */
+    private MenuItem saved(MenuItem item, String previousUserId, MenuChange.Type type) {
+        menuSearchService.itemSaved(item, previousUserId);
+        if (previousUserId != null && !previousUserId.equals(item.getUserId())) {
+            menuSyncService.recordChange(previousUserId, item.getId(), MenuChange.Type.DELETED);
+        }
+        menuSyncService.recordChange(item.getUserId(), item.getId(), type);
+        return item;
+    }
+    
+    private void deleted(String userId, String id) {
+        menuSearchService.itemDeleted(userId, id);
+        menuSyncService.recordChange(userId, id, MenuChange.Type.DELETED);
     }
 }
@@ -0,0 +1,47 @@
+package com.smartmenu.service;
+
+import com.smartmenu.model.MenuItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Menu Item Version Migration - Gives older menu items a version number
+ *
+ * MenuItem has a @Version field now. Spring Data treats an entity whose version
+ * is null as new, so saving an item written before the field existed would try
+ * an INSERT (duplicate key) instead of an update. At startup every item without
+ * a version gets version 0 - one updateMany, and a no-op once done.
+ */
+@Service
+public class MenuItemVersionMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuItemVersionMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public MenuItemVersionMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            long updated = mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("version").exists(false)),
+                    new Update().set("version", 0L),
+                    MenuItem.class).getModifiedCount();
+            if (updated > 0) {
+                logger.info("Set version 0 on {} menu items", updated);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Menu item version migration failed (will retry at next startup): {}", e.getMessage(), e);
+        }
+    }
+}
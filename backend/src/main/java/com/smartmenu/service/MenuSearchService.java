@@ -0,0 +1,107 @@
+package com.smartmenu.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartmenu.model.MenuItem;
+import com.smartmenu.repository.MenuItemRepository;
+import com.smartmenu.util.MenuSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Menu Search Service - One in-memory search index per restaurant
+ *
+ * The first search of a restaurant loads its menu (one indexed query on
+ * userId) and builds a MenuSearchIndex; later searches don't touch MongoDB.
+ *
+ * Keeping it in sync: MenuItemService calls itemSaved/itemDeleted after every
+ * write, which swaps in a new index with that one item changed. Applying a
+ * save twice is harmless: it states the whole item, not a difference. Two
+ * concurrent saves of one item can arrive in either order, though, so the index
+ * compares MenuItem.version and ignores a save older than what it holds. Not
+ * covered: a save that arrives after the delete of the same item puts it back
+ * until the TTL reload.
+ * Each server instance has its own indexes, so other instances catch up after
+ * the TTL (same as TableCacheService).
+ *
+ * Metrics: cache.* (cache=menu-search) and menu.search (timer).
+ */
+@Service
+public class MenuSearchService {
+
+    private final MenuItemRepository menuItemRepository;
+    private final Cache<String, MenuSearchIndex> indexes;  // userId → index
+    private final Timer searchTimer;
+
+    public MenuSearchService(
+            MenuItemRepository menuItemRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.menu-search.max-restaurants:5000}") long maxRestaurants,
+            @Value("${app.menu-search.ttl-minutes:10}") long ttlMinutes
+    ) {
+        this.menuItemRepository = menuItemRepository;
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(maxRestaurants)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, "menu-search");
+        this.searchTimer = Timer.builder("menu.search")
+                .description("In-memory menu search (excluding the first load of a restaurant)")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The index of one restaurant (loaded from MongoDB on first use)
+     */
+    public MenuSearchIndex index(String userId) {
+        return indexes.get(userId, id -> MenuSearchIndex.of(menuItemRepository.findByUserId(id)));
+    }
+
+    public MenuSearchIndex.Result search(String userId, MenuSearchIndex.Query query) {
+        return search(index(userId), query);
+    }
+
+    public MenuSearchIndex.Result search(MenuSearchIndex index, MenuSearchIndex.Query query) {
+        return searchTimer.record(() -> index.search(query));
+    }
+
+    /**
+     * A menu item was created or updated (call after it's saved)
+     *
+     * @param previousUserId owner before the update (null for a new item)
+     */
+    public void itemSaved(MenuItem item, String previousUserId) {
+        if (previousUserId != null && !Objects.equals(previousUserId, item.getUserId())) {
+            itemDeleted(previousUserId, item.getId());  // Moved to another restaurant
+        }
+        // Only restaurants that have an index need updating; others load fresh
+        indexes.asMap().computeIfPresent(item.getUserId(), (userId, index) -> index.with(item));
+    }
+
+    /**
+     * Several items of one restaurant changed at once (one index rebuild)
+     */
+    public void itemsSaved(String userId, List<MenuItem> items) {
+        if (!items.isEmpty()) {
+            indexes.asMap().computeIfPresent(userId, (id, index) -> index.with(items));
+        }
+    }
+
+    /**
+     * A menu item was deleted
+     */
+    public void itemDeleted(String userId, String itemId) {
+        if (userId != null) {
+            indexes.asMap().computeIfPresent(userId, (id, index) -> index.without(itemId));
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.smartmenu.service;
+
+import com.smartmenu.model.MenuChange;
+import com.smartmenu.model.MenuItem;
+import com.smartmenu.model.MenuVersion;
+import com.smartmenu.repository.MenuItemRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Menu Sync Service - "What changed on the menu since version N?"
+ *
+ * TEACHING MOMENT - Delta sync
+ *
+ * Staff pages and returning customers used to download the whole menu every
+ * time, even if one price changed. Now every restaurant has a menu version
+ * (menu_versions) and a change log (menu_changes):
+ *
+ *   version 41: item A updated
+ *   version 42: item B deleted
+ *   version 43: item A toggled
+ *
+ * A client that has version 41 asks for changes since 41 and gets item A (read
+ * fresh, so it's the latest state) plus a "tombstone" for B: just its id, so
+ * the client knows to remove it. Several changes to one item collapse into one.
+ *
+ * The whole menu is sent instead (full = true) when:
+ *   - the client has no version yet, or one we don't know (newer than ours)
+ *   - the log entries it needs were compacted (older than the retention period)
+ *   - more changed than max-changes (a snapshot is smaller then)
+ *
+ * Order of writes: the item is saved first, then the version is bumped, then
+ * the change is logged. So whoever sees change N can read an item that is at
+ * least as new as change N. Two writes at the same moment can log their
+ * changes out of order (43 visible before 42); a delta stops at such a gap
+ * for a few seconds so 42 isn't skipped, and moves past it after that (42 was
+ * lost, e.g. the server died in between - that item is then only refreshed
+ * by its next change or the next full download).
+ */
+@Service
+public class MenuSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuSyncService.class);
+
+    private static final String JOB = "menu-change-compaction";
+
+    // How long a missing version may still be in flight
+    private static final Duration GAP_GRACE = Duration.ofSeconds(10);
+
+    private final MongoTemplate mongoTemplate;
+    private final MenuItemRepository menuItemRepository;
+    private final JobLockService jobLockService;
+    private final Duration retention;
+    private final int maxChanges;
+    private final boolean compactionEnabled;
+
+    /**
+     * @param version  the version the client has after applying this
+     * @param full     true: items is the whole menu (replace everything)
+     * @param items    items created or changed since the requested version (or all of them)
+     * @param deleted  ids of items to remove (deleted, moved, or - for customers - switched off)
+     */
+    public record MenuDelta(long version, boolean full, List<MenuItem> items, List<String> deleted) {
+    }
+
+    public MenuSyncService(
+            MongoTemplate mongoTemplate,
+            MenuItemRepository menuItemRepository,
+            JobLockService jobLockService,
+            @Value("${app.menu-sync.retention-days:7}") long retentionDays,
+            @Value("${app.menu-sync.max-changes:500}") int maxChanges,
+            @Value("${app.menu-sync.compaction.enabled:true}") boolean compactionEnabled
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.menuItemRepository = menuItemRepository;
+        this.jobLockService = jobLockService;
+        this.retention = Duration.ofDays(retentionDays);
+        this.maxChanges = maxChanges;
+        this.compactionEnabled = compactionEnabled;
+    }
+
+    /**
+     * Log a change to one of a restaurant's menu items (call after the item is saved)
+     *
+     * @return the new menu version
+     */
+    public long recordChange(String userId, String itemId, MenuChange.Type type) {
+        LocalDateTime now = LocalDateTime.now();
+        MenuVersion state = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(userId)),
+                new Update().inc("version", 1).set("updatedAt", now),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                MenuVersion.class);
+        long version = Objects.requireNonNull(state).getVersion();
+        mongoTemplate.insert(new MenuChange(null, userId, version, itemId, type, now));
+        return version;
+    }
+
+    /**
+     * Log the same change to several items of one restaurant: one $inc for all
+     * the versions, one insert for all the entries
+     *
+     * @return the new menu version
+     */
+    public long recordChanges(String userId, List<String> itemIds, MenuChange.Type type) {
+        if (itemIds.isEmpty()) {
+            return currentVersion(userId);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        MenuVersion state = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(userId)),
+                new Update().inc("version", itemIds.size()).set("updatedAt", now),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                MenuVersion.class);
+        long last = Objects.requireNonNull(state).getVersion();
+        long version = last - itemIds.size();
+        List<MenuChange> changes = new ArrayList<>(itemIds.size());
+        for (String itemId : itemIds) {
+            changes.add(new MenuChange(null, userId, ++version, itemId, type, now));
+        }
+        mongoTemplate.insertAll(changes);
+        return last;
+    }
+
+    /**
+     * The current menu version of a restaurant (0 if it never changed)
+     */
+    public long currentVersion(String userId) {
+        MenuVersion state = mongoTemplate.findById(userId, MenuVersion.class);
+        return state != null ? state.getVersion() : 0;
+    }
+
+    /**
+     * What changed since {@code since} (null: the whole menu)
+     *
+     * @param availableOnly customer view: switched-off items are sent as tombstones
+     */
+    public MenuDelta changesSince(String userId, Long since, boolean availableOnly) {
+        // Read the version before the items: the items are then at least this new
+        MenuVersion state = mongoTemplate.findById(userId, MenuVersion.class);
+        long current = state != null ? state.getVersion() : 0;
+        long compactedThrough = state != null ? state.getCompactedThrough() : 0;
+
+        if (since == null || since < compactedThrough || since > current) {
+            return snapshot(userId, current, availableOnly);
+        }
+
+        Query query = Query.query(Criteria.where("userId").is(userId).and("version").gt(since))
+                .with(Sort.by(Sort.Direction.ASC, "version"))
+                .limit(maxChanges + 1);
+        List<MenuChange> changes = mongoTemplate.find(query, MenuChange.class);
+        if (changes.size() > maxChanges) {
+            return snapshot(userId, current, availableOnly);
+        }
+
+        // Latest change per item, up to the first gap that may still fill in
+        long version = since;
+        LocalDateTime inFlightAfter = LocalDateTime.now().minus(GAP_GRACE);
+        Map<String, MenuChange.Type> changed = new LinkedHashMap<>();
+        for (MenuChange change : changes) {
+            if (change.getVersion() != version + 1 && change.getCreatedAt().isAfter(inFlightAfter)) {
+                break;
+            }
+            version = change.getVersion();
+            changed.remove(change.getItemId());
+            changed.put(change.getItemId(), change.getType());
+        }
+
+        List<String> toLoad = new ArrayList<>();
+        changed.forEach((itemId, type) -> {
+            if (type != MenuChange.Type.DELETED) {
+                toLoad.add(itemId);
+            }
+        });
+        Map<String, MenuItem> loaded = new HashMap<>();
+        for (MenuItem item : menuItemRepository.findAllById(toLoad)) {
+            if (userId.equals(item.getUserId()) && (!availableOnly || item.isAvailable())) {
+                loaded.put(item.getId(), item);
+            }
+        }
+
+        List<MenuItem> items = new ArrayList<>(loaded.size());
+        List<String> deleted = new ArrayList<>();
+        for (String itemId : changed.keySet()) {
+            MenuItem item = loaded.get(itemId);
+            if (item != null) {
+                items.add(item);
+            } else {
+                deleted.add(itemId);  // Deleted, moved to another restaurant, or switched off
+            }
+        }
+        return new MenuDelta(version, false, items, deleted);
+    }
+
+    private MenuDelta snapshot(String userId, long version, boolean availableOnly) {
+        List<MenuItem> items = availableOnly
+                ? menuItemRepository.findByUserIdAndAvailableTrue(userId)
+                : menuItemRepository.findByUserId(userId);
+        return new MenuDelta(version, true, items, List.of());
+    }
+
+    @Scheduled(cron = "${app.menu-sync.compaction.cron:0 30 3 * * *}")
+    public void scheduledCompaction() {
+        if (!compactionEnabled) {
+            return;
+        }
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            logger.error("Menu change log compaction failed (retried next run): {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Remove change log entries older than the retention period
+     *
+     * @return entries removed, or -1 if another instance is compacting
+     */
+    public long compact() {
+        if (!jobLockService.tryLock(JOB, Duration.ofMinutes(10))) {
+            return -1;
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+            // Newest expired version per restaurant
+            Aggregation aggregation = Aggregation.newAggregation(
+                    Aggregation.match(Criteria.where("createdAt").lt(cutoff)),
+                    Aggregation.group("userId").max("version").as("through"));
+            List<Document> expired = mongoTemplate.aggregate(aggregation, MenuChange.class, Document.class)
+                    .getMappedResults();
+
+            long removed = 0;
+            for (Document restaurant : expired) {
+                String userId = restaurant.getString("_id");
+                long through = ((Number) restaurant.get("through")).longValue();
+                // 1. Raise the floor first: a crash before 2. only sends a few extra full menus
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)),
+                        new Update().max("compactedThrough", through), MenuVersion.class);
+                // 2. Then drop the entries
+                removed += mongoTemplate.remove(
+                        Query.query(Criteria.where("userId").is(userId).and("version").lte(through)),
+                        MenuChange.class).getDeletedCount();
+            }
+            if (removed > 0) {
+                logger.info("Menu change log: removed {} entries of {} restaurants", removed, expired.size());
+            }
+            return removed;
+        } finally {
+            jobLockService.unlock(JOB);
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.smartmenu.service;
+
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.smartmenu.model.ArchiveCheckpoint;
+import com.smartmenu.model.Order;
+import com.smartmenu.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Order Archive Service - Moves old finished orders out of the "orders" collection
+ *
+ * TEACHING MOMENT - Hot and cold data
+ *
+ * Staff screens only care about today's orders, but "orders" keeps every order
+ * ever placed. Its indexes grow with it, and once they no longer fit in RAM even
+ * the "open orders" query starts reading from disk. So, every hour:
+ *
+ *   COMPLETED/CANCELLED orders older than app.orders.archive.age-days
+ *     → copied to orders_archive_YYYYMM (one collection per month of createdAt)
+ *     → deleted from orders
+ *
+ * "orders" stays a few weeks big (hot), old months sit in archive collections
+ * that are only read when someone asks for an old order (cold). Dropping a whole
+ * old month later is a single dropCollection instead of millions of deletes.
+ * PHP/MySQL equivalent: INSERT INTO orders_2024_01 SELECT ...; DELETE ...; in chunks.
+ *
+ * Crash safety: each batch is copy (upsert by _id, safe to repeat) → delete →
+ * save checkpoint. Crashing between any two steps just repeats that batch on
+ * the next run; an order is never lost and never archived twice.
+ *
+ * One run at a time: a ReentrantLock inside this instance (the hourly job and
+ * POST /api/admin/orders/archive/run can overlap), and JobLockService across
+ * instances. The job lock belongs to the instance, not to the run, so it alone
+ * would let two runs of the same instance in.
+ *
+ * Reads: findByOrderNumber and countByUserId look in "orders" first, then in the
+ * archive. Order numbers contain their creation time (ORD20240115...), so an old
+ * order is found with one lookup in the right month instead of a search through
+ * every month.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private static final String ACTIVE_COLLECTION = "orders";
+    private static final String ARCHIVE_PREFIX = "orders_archive_";
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final List<String> TERMINAL_STATUSES =
+            List.of(Order.OrderStatus.COMPLETED.name(), Order.OrderStatus.CANCELLED.name());
+    private static final Duration COLLECTION_LIST_TTL = Duration.ofMinutes(1);
+    private static final String JOB = "order-archive";
+
+    private final MongoTemplate mongoTemplate;
+    private final OrderRepository orderRepository;
+    private final JobLockService jobLockService;
+    private final Counter archivedCounter;
+    private final boolean enabled;
+    private final int ageDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration lease;
+
+    // Held for the whole run, so this instance never runs two at once
+    private final ReentrantLock running = new ReentrantLock();
+
+    // Archive collections that exist, newest month first (refreshed every minute at most)
+    private volatile List<String> archiveCollections = List.of();
+    private volatile long archiveCollectionsLoadedAt = 0;
+
+    // Archive collections whose indexes this instance has already ensured
+    private final Set<String> indexedCollections = ConcurrentHashMap.newKeySet();
+
+    public OrderArchiveService(
+            MongoTemplate mongoTemplate,
+            OrderRepository orderRepository,
+            JobLockService jobLockService,
+            MeterRegistry meterRegistry,
+            @Value("${app.orders.archive.enabled:true}") boolean enabled,
+            @Value("${app.orders.archive.age-days:90}") int ageDays,
+            @Value("${app.orders.archive.batch-size:1000}") int batchSize,
+            @Value("${app.orders.archive.max-batches-per-run:500}") int maxBatchesPerRun,
+            @Value("${app.orders.archive.lease-minutes:10}") long leaseMinutes
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.orderRepository = orderRepository;
+        this.jobLockService = jobLockService;
+        this.archivedCounter = Counter.builder("orders.archived")
+                .description("Orders moved from orders to an archive collection")
+                .register(meterRegistry);
+        this.enabled = enabled;
+        this.ageDays = ageDays;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.lease = Duration.ofMinutes(leaseMinutes);
+    }
+
+    /**
+     * Hourly run. Every instance fires; only the one that gets the job lock archives.
+     */
+    @Scheduled(cron = "${app.orders.archive.cron:0 15 * * * *}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            logger.error("Order archival failed (will resume from checkpoint): {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Archive up to max-batches-per-run batches, resuming an unfinished pass if there is one
+     *
+     * @return the checkpoint after the run, plus "ran": false if another run (here or
+     *         on another instance) is in progress
+     */
+    public Map<String, Object> archive() {
+        if (!running.tryLock()) {
+            return notRun();
+        }
+        try {
+            return archiveLocked();
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private Map<String, Object> notRun() {
+        Map<String, Object> result = status();
+        result.put("ran", false);
+        return result;
+    }
+
+    private Map<String, Object> archiveLocked() {
+        if (!jobLockService.tryLock(JOB, lease)) {
+            return notRun();
+        }
+
+        try {
+            ArchiveCheckpoint checkpoint = loadCheckpoint();
+            if (!checkpoint.isRunning()) {
+                LocalDateTime now = LocalDateTime.now();
+                checkpoint.setRunning(true);
+                checkpoint.setCutoff(now.minusDays(ageDays));
+                checkpoint.setLastOrderId(null);
+                checkpoint.setPassArchived(0);
+                checkpoint.setPassStartedAt(now);
+                saveProgress(checkpoint);
+            } else {
+                logger.info("Resuming order archival after order {} ({} archived so far in this pass)",
+                        checkpoint.getLastOrderId(), checkpoint.getPassArchived());
+            }
+
+            long startNanos = System.nanoTime();
+            long archivedThisRun = 0;
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int moved = archiveBatch(checkpoint);
+                if (moved == 0) {
+                    checkpoint.setRunning(false);
+                    checkpoint.setLastCompletedAt(LocalDateTime.now());
+                    saveProgress(checkpoint);
+                    break;
+                }
+                archivedThisRun += moved;
+            }
+
+            if (archivedThisRun > 0) {
+                logger.info("Archived {} orders older than {} in {} ms{}", archivedThisRun, checkpoint.getCutoff(),
+                        (System.nanoTime() - startNanos) / 1_000_000,
+                        checkpoint.isRunning() ? " (more to do, continuing next run)" : "");
+            }
+        } finally {
+            jobLockService.unlock(JOB);
+        }
+
+        Map<String, Object> result = status();
+        result.put("ran", true);
+        return result;
+    }
+
+    /**
+     * Move one batch and record it in the checkpoint
+     *
+     * @return orders read from "orders" (0 = pass finished)
+     */
+    private int archiveBatch(ArchiveCheckpoint checkpoint) {
+        Date cutoff = toDate(checkpoint.getCutoff());
+
+        // Walk the _id index in order: ObjectIds start with their creation time,
+        // so "_id < ObjectId(cutoff)" stops the scan at the first recent order.
+        Criteria id = Criteria.where("_id").lt(new ObjectId(cutoff));
+        if (checkpoint.getLastOrderId() != null) {
+            id = id.gt(new ObjectId(checkpoint.getLastOrderId()));
+        }
+        Query query = new Query(id)
+                .addCriteria(Criteria.where("status").in(TERMINAL_STATUSES))
+                .addCriteria(Criteria.where("createdAt").lt(cutoff))
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(batchSize);
+        List<Document> orders = mongoTemplate.find(query, Document.class, ACTIVE_COLLECTION);
+        if (orders.isEmpty()) {
+            return 0;
+        }
+
+        // 1. Copy, grouped by month
+        Map<String, List<ReplaceOneModel<Document>>> byCollection = new TreeMap<>();
+        for (Document order : orders) {
+            String collection = archiveCollectionName(YearMonth.from(toLocalDateTime(order.getDate("createdAt"))));
+            byCollection.computeIfAbsent(collection, c -> new ArrayList<>()).add(new ReplaceOneModel<>(
+                    Filters.eq("_id", order.get("_id")), order, new ReplaceOptions().upsert(true)));
+        }
+        for (Map.Entry<String, List<ReplaceOneModel<Document>>> entry : byCollection.entrySet()) {
+            ensureArchiveIndexes(entry.getKey());
+            mongoTemplate.getCollection(entry.getKey())
+                    .bulkWrite(entry.getValue(), new BulkWriteOptions().ordered(false));
+        }
+
+        // 2. Delete from the active collection (status re-checked in case an order changed meanwhile)
+        List<Object> ids = orders.stream().map(order -> order.get("_id")).toList();
+        long deleted = mongoTemplate.remove(
+                Query.query(Criteria.where("_id").in(ids).and("status").in(TERMINAL_STATUSES)),
+                ACTIVE_COLLECTION).getDeletedCount();
+
+        // 3. Checkpoint
+        checkpoint.setLastOrderId(((ObjectId) ids.get(ids.size() - 1)).toHexString());
+        checkpoint.setPassArchived(checkpoint.getPassArchived() + deleted);
+        checkpoint.setTotalArchived(checkpoint.getTotalArchived() + deleted);
+        saveProgress(checkpoint);
+        archivedCounter.increment(deleted);
+        return orders.size();
+    }
+
+    /**
+     * Find an order by number: active collection first, then the archive
+     */
+    public Optional<Order> findByOrderNumber(String orderNumber) {
+        Optional<Order> active = orderRepository.findByOrderNumber(orderNumber);
+        return active.isPresent() ? active : findArchivedByOrderNumber(orderNumber);
+    }
+
+    /**
+     * Find an order by number in the archive only
+     */
+    public Optional<Order> findArchivedByOrderNumber(String orderNumber) {
+        Query query = Query.query(Criteria.where("orderNumber").is(orderNumber));
+        for (String collection : candidateCollections(orderNumber)) {
+            Order order = mongoTemplate.findOne(query, Order.class, collection);
+            if (order != null) {
+                return Optional.of(order);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Orders of a restaurant, active and archived
+     */
+    public long countByUserId(String userId) {
+        long count = orderRepository.countByUserId(userId);
+        Query query = Query.query(Criteria.where("userId").is(userId));
+        for (String collection : archiveCollections()) {
+            count += mongoTemplate.count(query, collection);
+        }
+        return count;
+    }
+
+    /**
+     * Archival progress and the archive collections (admin endpoint)
+     */
+    public Map<String, Object> status() {
+        ArchiveCheckpoint checkpoint = mongoTemplate.findById(ACTIVE_COLLECTION, ArchiveCheckpoint.class);
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("ageDays", ageDays);
+        status.put("checkpoint", checkpoint);
+        status.put("archiveCollections", archiveCollections());
+        return status;
+    }
+
+    /**
+     * Order numbers are "ORD" + yyyyMMddHHmmss + random. createdAt is set a moment
+     * later, so the order is in that month's archive (or the next one, at midnight
+     * on the last day of a month). Anything else: try every month, newest first.
+     */
+    private List<String> candidateCollections(String orderNumber) {
+        if (orderNumber != null && orderNumber.length() >= 9 && orderNumber.startsWith("ORD")) {
+            try {
+                YearMonth month = YearMonth.parse(orderNumber.substring(3, 9), MONTH_FORMAT);
+                return List.of(archiveCollectionName(month), archiveCollectionName(month.plusMonths(1)));
+            } catch (DateTimeParseException e) {
+                // Not a generated order number - fall through to a full search
+            }
+        }
+        return archiveCollections();
+    }
+
+    private List<String> archiveCollections() {
+        if (System.currentTimeMillis() - archiveCollectionsLoadedAt > COLLECTION_LIST_TTL.toMillis()) {
+            archiveCollections = mongoTemplate.getCollectionNames().stream()
+                    .filter(name -> name.startsWith(ARCHIVE_PREFIX))
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+            archiveCollectionsLoadedAt = System.currentTimeMillis();
+        }
+        return archiveCollections;
+    }
+
+    /**
+     * Archive lookups use these two indexes (order tracking, per-restaurant counts)
+     */
+    private void ensureArchiveIndexes(String collection) {
+        if (indexedCollections.add(collection)) {
+            mongoTemplate.indexOps(collection).ensureIndex(new Index().on("orderNumber", Sort.Direction.ASC));
+            mongoTemplate.indexOps(collection).ensureIndex(
+                    new Index().on("userId", Sort.Direction.ASC).on("createdAt", Sort.Direction.DESC));
+            archiveCollectionsLoadedAt = 0;  // New collection: reload the list on next read
+        }
+    }
+
+    /**
+     * The checkpoint, created on the first run
+     */
+    private ArchiveCheckpoint loadCheckpoint() {
+        ArchiveCheckpoint checkpoint = mongoTemplate.findById(ACTIVE_COLLECTION, ArchiveCheckpoint.class);
+        if (checkpoint == null) {
+            checkpoint = new ArchiveCheckpoint();
+            checkpoint.setId(ACTIVE_COLLECTION);
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Extend the job lock and save progress. Fails if the lock was lost (e.g. a long
+     * GC pause) so two instances never write the same pass.
+     */
+    private void saveProgress(ArchiveCheckpoint checkpoint) {
+        if (!jobLockService.tryLock(JOB, lease)) {
+            throw new RuntimeException("Lost the order archive lock; another instance took over");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("running", checkpoint.isRunning())
+                .set("cutoff", checkpoint.getCutoff())
+                .set("lastOrderId", checkpoint.getLastOrderId())
+                .set("passArchived", checkpoint.getPassArchived())
+                .set("passStartedAt", checkpoint.getPassStartedAt())
+                .set("totalArchived", checkpoint.getTotalArchived())
+                .set("lastCompletedAt", checkpoint.getLastCompletedAt())
+                .set("updatedAt", now);
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(ACTIVE_COLLECTION)), update, ArchiveCheckpoint.class);
+    }
+
+    private static String archiveCollectionName(YearMonth month) {
+        return ARCHIVE_PREFIX + month.format(MONTH_FORMAT);
+    }
+
+    // LocalDateTime is stored as a Date in the server's time zone (Spring Data's default conversion)
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,84 @@
+package com.smartmenu.service;
+
+import com.smartmenu.model.Order;
+import com.smartmenu.model.Table;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order Service - Builds customer orders
+ *
+ * Pure logic (no database calls), shared by the MVC and reactive public controllers.
+ */
+@Service
+public class OrderService {
+
+    private static final DateTimeFormatter ORDER_NUMBER_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    /**
+     * Build a new PENDING order for a table from the customer's cart
+     *
+     * @param table - the table the order was placed from
+     * @param items - cart items: { id, name, price, quantity, specialInstructions }
+     * @return unsaved order with items, totals and order number filled in
+     */
+    public Order buildOrder(Table table, String deviceId, String customerName, List<Map<String, Object>> items) {
+        Order order = new Order();
+        order.setUserId(table.getUserId());
+        order.setTableId(table.getId());
+        order.setTableNumber(table.getTableNumber());
+        order.setDeviceId(deviceId);
+        order.setCustomerName(customerName);
+        order.setStatus(Order.OrderStatus.PENDING);
+
+        // Generate order number
+        order.setOrderNumber(generateOrderNumber());
+
+        // Process order items
+        List<Order.OrderItem> orderItems = new ArrayList<>();
+        for (Map<String, Object> item : items) {
+            Order.OrderItem orderItem = new Order.OrderItem();
+            orderItem.setMenuItemId((String) item.get("id"));
+            orderItem.setMenuItemName((String) item.get("name"));
+            orderItem.setPrice(BigDecimal.valueOf(((Number) item.get("price")).doubleValue()));
+            orderItem.setQuantity(((Number) item.get("quantity")).intValue());
+            orderItem.setSpecialInstructions((String) item.get("specialInstructions"));
+            orderItems.add(orderItem);
+        }
+
+        BigDecimal total = calculateTotal(orderItems);
+
+        order.setItems(orderItems);
+        order.setSubtotal(total);
+        order.setTotal(total);
+        order.setCreatedAt(LocalDateTime.now());
+        order.setUpdatedAt(LocalDateTime.now());
+        return order;
+    }
+
+    /**
+     * Sum of price × quantity over all items
+     */
+    public BigDecimal calculateTotal(List<Order.OrderItem> orderItems) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Order.OrderItem orderItem : orderItems) {
+            total = total.add(orderItem.getPrice().multiply(BigDecimal.valueOf(orderItem.getQuantity())));
+        }
+        return total;
+    }
+
+    /**
+     * Generate unique order number, e.g. ORD20240115123045042
+     */
+    public String generateOrderNumber() {
+        String timestamp = LocalDateTime.now().format(ORDER_NUMBER_FORMAT);
+        int random = (int) (Math.random() * 1000);
+        return "ORD" + timestamp + String.format("%03d", random);
+    }
+}
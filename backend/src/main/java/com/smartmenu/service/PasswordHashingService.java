@@ -0,0 +1,228 @@
+package com.smartmenu.service;
+
+import com.smartmenu.security.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Password Hashing Service - Runs BCrypt on a dedicated, bounded thread pool
+ *
+ * BCrypt is deliberately slow (~100ms per hash). If it runs on Tomcat request
+ * threads, a burst of logins can occupy every thread and customers can't even
+ * load the menu. Here BCrypt gets its own small pool with a fixed-size queue:
+ * when the queue is full we reject immediately (429) instead of piling up.
+ *
+ * Metrics:
+ *  - auth.password.hash        (timer, tag op=encode|verify) - time spent in BCrypt
+ *  - auth.password.queue.wait  (timer) - time a task waited for a free worker
+ *  - auth.password.rejected    (counter) - tasks rejected because the queue was full
+ *  - auth.password.queue.size / auth.password.active (gauges)
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final String dummyHash;  // Compared against when the user doesn't exist
+    private final int bulkThreads;
+    private final Semaphore bulkSlots;  // Workers bulk hashing may use, across all bulk requests
+
+    private final Timer encodeTimer;
+    private final Timer verifyTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.hash-threads:4}") int threads,
+            @Value("${app.auth.hash-queue-capacity:64}") int queueCapacity,
+            @Value("${app.auth.hash-timeout-ms:5000}") long timeoutMs,
+            @Value("${app.auth.bulk-hash-threads:0}") int bulkThreads
+    ) {
+        if (threads < 2) {
+            // One worker would be the whole pool for bulk hashing, and logins would wait behind it
+            throw new IllegalStateException("app.auth.hash-threads must be at least 2, was " + threads);
+        }
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMs = timeoutMs;
+        this.dummyHash = passwordEncoder.encode("dummy-password-for-unknown-users");
+        // 0 = half the pool; never the whole pool, so logins always keep a worker
+        int bulk = bulkThreads > 0 ? bulkThreads : threads / 2;
+        this.bulkThreads = Math.max(1, Math.min(bulk, threads - 1));
+        this.bulkSlots = new Semaphore(this.bulkThreads);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()  // Full queue → RejectedExecutionException
+        );
+
+        this.encodeTimer = Timer.builder("auth.password.hash").tag("op", "encode").register(meterRegistry);
+        this.verifyTimer = Timer.builder("auth.password.hash").tag("op", "verify").register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("auth.password.queue.wait").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.rejected").register(meterRegistry);
+        Gauge.builder("auth.password.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    /**
+     * Hash a raw password (used during registration)
+     */
+    public String encode(String rawPassword) {
+        return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Hash many passwords (used by bulk staff provisioning)
+     * 
+     * Bulk requests share app.auth.bulk-hash-threads workers (default half the
+     * pool, at most all but one). Every hash holds a slot until it has actually
+     * finished, so bulk work - even two bulk requests at once, or hashes left
+     * running after a timeout - never occupies the whole pool and logins always
+     * find a free worker.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        for (int start = 0; start < rawPasswords.size(); start += bulkThreads) {
+            List<String> raws = rawPasswords.subList(start, Math.min(start + bulkThreads, rawPasswords.size()));
+            acquireBulkSlots(raws.size());
+            List<BulkHash> chunk = new ArrayList<>(raws.size());
+            try {
+                for (String raw : raws) {
+                    chunk.add(submitBulk(raw));
+                }
+                for (BulkHash hash : chunk) {
+                    hashes.add(await(hash.future()));
+                }
+            } finally {
+                // After a timeout or rejection, cancel what's left of the chunk first
+                for (BulkHash hash : chunk) {
+                    hash.cancel();
+                }
+                bulkSlots.release(raws.size() - chunk.size());  // Never submitted
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * One bulk hash and its slot. The slot is released exactly once: by the task
+     * when the hash is done, or by cancel() if the task never started. BCrypt
+     * can't be interrupted, so a hash that's already running keeps its slot
+     * until it finishes, cancelled or not.
+     */
+    private record BulkHash(Future<String> future, AtomicBoolean started, Semaphore slots) {
+
+        void cancel() {
+            future.cancel(true);
+            if (!started.getAndSet(true)) {
+                slots.release();
+            }
+        }
+    }
+
+    private BulkHash submitBulk(String raw) {
+        AtomicBoolean started = new AtomicBoolean();
+        Future<String> future = submit(encodeTimer, () -> {
+            if (started.getAndSet(true)) {
+                return null;  // Cancelled while queued; the slot is already back
+            }
+            try {
+                return passwordEncoder.encode(raw);
+            } finally {
+                bulkSlots.release();
+            }
+        });
+        return new BulkHash(future, started, bulkSlots);
+    }
+
+    /**
+     * Compare a raw password with a stored BCrypt hash (used during login)
+     * 
+     * A null hash (unknown user) is still checked against a dummy hash so the
+     * response takes as long as a real check, then returns false.
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (encodedPassword == null) {
+            run(verifyTimer, () -> passwordEncoder.matches(rawPassword, dummyHash));
+            return false;
+        }
+        return run(verifyTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private void acquireBulkSlots(int count) {
+        try {
+            if (!bulkSlots.tryAcquire(count, timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new LoginThrottledException("Bulk hashing is busy, please try again shortly", 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to hash passwords", e);
+        }
+    }
+
+    private <T> T run(Timer hashTimer, Callable<T> task) {
+        return await(submit(hashTimer, task));
+    }
+
+    private <T> Future<T> submit(Timer hashTimer, Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new LoginThrottledException("Too many login attempts, please try again shortly", 1);
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new LoginThrottledException("Login is busy, please try again shortly", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,248 @@
+package com.smartmenu.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.smartmenu.model.Table;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * QR Code Service - Renders table QR codes (PNG or SVG) on the server
+ *
+ * TEACHING MOMENT - Content hashes and caching
+ *
+ * A QR image depends only on (text, format, size). Hash those and you get a key
+ * that identifies the image before it exists:
+ *   - cache key: same table URL → same image, rendered once
+ *   - ETag: the browser sends it back (If-None-Match) and gets "304 Not Modified"
+ *     without us rendering or even looking in the cache
+ * Change the frontend URL and the hash changes, so stale images can't be served.
+ *
+ * Rendering is CPU work (~1-5 ms per PNG), so a whole venue is rendered in
+ * parallel on a pool with one thread per core: 500 hotel rooms take well under
+ * a second on a laptop instead of 500 × one image in a row.
+ *
+ * The cache is bounded by total bytes (app.qr.cache-max-bytes); Caffeine evicts
+ * the least valuable entries (LRU-like, with frequency taken into account).
+ *
+ * Metrics: qr.render{format} (timer), cache.* (cache=qr-codes)
+ */
+@Service
+public class QrCodeService {
+
+    public enum Format {
+        PNG("image/png"),
+        SVG("image/svg+xml");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+    }
+
+    /**
+     * A rendered image; etag is quoted, ready for the ETag header
+     */
+    public record QrImage(byte[] bytes, Format format, String etag) {
+
+        public String toDataUri() {
+            return "data:" + format.contentType() + ";base64," + java.util.Base64.getEncoder().encodeToString(bytes);
+        }
+    }
+
+    public static final int MIN_SIZE = 64;
+    public static final int MAX_SIZE = 2048;
+
+    // The public endpoint only renders these sizes: size is part of the cache key,
+    // so accepting any size would let anyone fill the cache (and the CPU) with
+    // 1985 variants of every table
+    public static final List<Integer> PUBLIC_SIZES = List.of(150, 300, 600);
+
+    // Quiet zone of 4 modules (what the QR spec asks for; printers and phone cameras need it)
+    private static final int MARGIN = 4;
+    private static final Map<EncodeHintType, Object> HINTS = Map.of(
+            EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M,
+            EncodeHintType.MARGIN, MARGIN,
+            EncodeHintType.CHARACTER_SET, StandardCharsets.UTF_8.name());
+
+    private final String frontendUrl;
+    private final Cache<String, QrImage> cache;
+    private final ExecutorService renderPool;
+    private final Timer pngTimer;
+    private final Timer svgTimer;
+
+    public QrCodeService(
+            MeterRegistry meterRegistry,
+            @Value("${app.frontend.url}") String frontendUrl,
+            @Value("${app.qr.cache-max-bytes:67108864}") long cacheMaxBytes,
+            @Value("${app.qr.render-threads:0}") int renderThreads
+    ) {
+        this.frontendUrl = frontendUrl;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxBytes)
+                .weigher((String key, QrImage image) -> image.bytes().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "qr-codes");
+
+        int threads = renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.renderPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "qr-render-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.pngTimer = Timer.builder("qr.render").tag("format", "png").register(meterRegistry);
+        this.svgTimer = Timer.builder("qr.render").tag("format", "svg").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderPool.shutdownNow();
+    }
+
+    /**
+     * What a table's QR code encodes: its customer menu URL
+     */
+    public String tableUrl(Table table) {
+        String url = table.getQrCodeUrl();
+        return url != null && !url.isEmpty() ? url : menuUrl(table.getId());
+    }
+
+    /**
+     * Customer menu URL for a table id (stored as Table.qrCodeUrl)
+     */
+    public String menuUrl(String tableId) {
+        return String.format("%s/customer-menu?table=%s", frontendUrl, tableId);
+    }
+
+    /**
+     * ETag of an image, without rendering it
+     */
+    public String etag(String text, Format format, int size) {
+        return "\"" + key(text, format, size) + "\"";
+    }
+
+    /**
+     * Render one image (from the cache when possible)
+     */
+    public QrImage render(String text, Format format, int size) {
+        String key = key(text, format, size);
+        return cache.get(key, k -> new QrImage(draw(text, format, size), format, "\"" + k + "\""));
+    }
+
+    /**
+     * Render many images in parallel, one task per image, results in input order
+     */
+    public List<QrImage> renderAll(List<String> texts, Format format, int size) {
+        return renderAllAsync(texts, format, size).stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Start rendering on the render pool and return right away (used to pipeline exports)
+     */
+    public List<CompletableFuture<QrImage>> renderAllAsync(List<String> texts, Format format, int size) {
+        List<CompletableFuture<QrImage>> tasks = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            tasks.add(CompletableFuture.supplyAsync(() -> render(text, format, size), renderPool));
+        }
+        return tasks;
+    }
+
+    private byte[] draw(String text, Format format, int size) {
+        Timer.Sample sample = Timer.start();
+        try {
+            if (format == Format.SVG) {
+                // Vector: encode at 1 pixel per module and let the viewBox scale it
+                return svg(encode(text, 0), size);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(2048);
+            MatrixToImageWriter.writeToStream(encode(text, size), "PNG", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write QR code image", e);
+        } finally {
+            sample.stop(format == Format.SVG ? svgTimer : pngTimer);
+        }
+    }
+
+    private static BitMatrix encode(String text, int size) {
+        try {
+            return new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, size, size, HINTS);
+        } catch (WriterException e) {
+            throw new IllegalArgumentException("Text does not fit in a QR code: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * One <path>, one rectangle per horizontal run of dark modules
+     */
+    private static byte[] svg(BitMatrix matrix, int size) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        StringBuilder path = new StringBuilder(width * height);
+        for (int y = 0; y < height; y++) {
+            int x = 0;
+            while (x < width) {
+                if (!matrix.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < width && matrix.get(x, y)) {
+                    x++;
+                }
+                path.append('M').append(start).append(' ').append(y)
+                        .append('h').append(x - start).append("v1h-").append(x - start).append('z');
+            }
+        }
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + size + "\" height=\"" + size
+                + "\" viewBox=\"0 0 " + width + " " + height + "\" shape-rendering=\"crispEdges\">"
+                + "<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/>"
+                + "<path fill=\"#000\" d=\"" + path + "\"/></svg>";
+        return svg.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String key(String text, Format format, int size) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((format + ":" + size + ":" + MARGIN + ":").getBytes(StandardCharsets.UTF_8));
+            byte[] hash = digest.digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
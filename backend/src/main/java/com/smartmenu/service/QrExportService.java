@@ -0,0 +1,215 @@
+package com.smartmenu.service;
+
+import com.smartmenu.model.Table;
+import com.smartmenu.repository.TableRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * QR Export Service - Every QR code of a venue as one printable sheet or a ZIP of PNGs
+ *
+ * TEACHING MOMENT - Streaming and pipelining
+ *
+ * The simple way: load all tables, render all images, build the file, send it.
+ * For a 500-room hotel that's 500 images in memory and nothing reaches the
+ * browser until the last one is done. Instead we work page by page:
+ *
+ *   render page 1
+ *   render page 2   |  write page 1 to the response
+ *   render page 3   |  write page 2 to the response
+ *   ...
+ *
+ * Rendering (CPU, QrCodeService's pool) overlaps writing (network), and at most
+ * two pages exist at any time, so memory stays the same for 10 or 10,000 tables.
+ * Tables are read through a MongoDB cursor (TableRepository.streamByUserId),
+ * never as one big list. Like PHP's output buffering turned off + flush() per
+ * page - except the next page is already being prepared.
+ */
+@Service
+public class QrExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QrExportService.class);
+
+    // One A4 sheet: 3 columns × 4 rows
+    public static final int CODES_PER_PAGE = 12;
+
+    private final TableRepository tableRepository;
+    private final QrCodeService qrCodeService;
+
+    public QrExportService(TableRepository tableRepository, QrCodeService qrCodeService) {
+        this.tableRepository = tableRepository;
+        this.qrCodeService = qrCodeService;
+    }
+
+    /**
+     * Writes one page of tables with their rendered codes (same order)
+     */
+    @FunctionalInterface
+    private interface PageWriter {
+        void write(List<Table> tables, List<QrCodeService.QrImage> images) throws IOException;
+    }
+
+    /**
+     * ZIP with one PNG per table (table-<number>.png)
+     *
+     * @param tableIds only these tables, or null for all of the user's tables
+     * @return number of codes written
+     */
+    public int writeZip(String userId, Set<String> tableIds, int size, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        Set<String> names = new HashSet<>();
+        int count = pipeline(userId, tableIds, QrCodeService.Format.PNG, size, (tables, images) -> {
+            for (int i = 0; i < tables.size(); i++) {
+                byte[] png = images.get(i).bytes();
+                // PNG is already compressed: store it as is (no deflate CPU for nothing)
+                ZipEntry entry = new ZipEntry(fileName(tables.get(i), names));
+                CRC32 crc = new CRC32();
+                crc.update(png);
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(png.length);
+                entry.setCrc(crc.getValue());
+                zip.putNextEntry(entry);
+                zip.write(png);
+                zip.closeEntry();
+            }
+            zip.flush();
+        });
+        zip.finish();
+        return count;
+    }
+
+    /**
+     * Printable HTML sheet: 12 codes per A4 page, SVG so they print sharp at any size
+     *
+     * @param tableIds only these tables, or null for all of the user's tables
+     * @return number of codes written
+     */
+    public int writeSheet(String userId, Set<String> tableIds, OutputStream out) throws IOException {
+        write(out, """
+                <!DOCTYPE html>
+                <html><head><meta charset="utf-8"><title>QR Codes</title>
+                <style>
+                @page{size:A4;margin:10mm}
+                body{margin:0;font-family:Arial,Helvetica,sans-serif}
+                .page{display:grid;grid-template-columns:repeat(3,1fr);gap:6mm;break-after:page}
+                .page:last-of-type{break-after:auto}
+                .code{border:1px solid #ddd;padding:3mm;text-align:center;break-inside:avoid}
+                .code svg{width:55mm;height:55mm}
+                .number{font-size:14pt;font-weight:bold}
+                .location{font-size:9pt;color:#555}
+                </style></head><body>
+                """);
+        int count = pipeline(userId, tableIds, QrCodeService.Format.SVG, 300, (tables, images) -> {
+            StringBuilder page = new StringBuilder(tables.size() * 8192);
+            page.append("<section class=\"page\">\n");
+            for (int i = 0; i < tables.size(); i++) {
+                Table table = tables.get(i);
+                page.append("<div class=\"code\">")
+                        .append(new String(images.get(i).bytes(), StandardCharsets.UTF_8))
+                        .append("<div class=\"number\">").append(escape(table.getTableNumber())).append("</div>");
+                if (table.getLocation() != null && !table.getLocation().isEmpty()) {
+                    page.append("<div class=\"location\">").append(escape(table.getLocation())).append("</div>");
+                }
+                page.append("</div>\n");
+            }
+            page.append("</section>\n");
+            write(out, page.toString());
+            out.flush();  // Send each page as soon as it's ready
+        });
+        write(out, "</body></html>\n");
+        return count;
+    }
+
+    /**
+     * Read tables page by page; render page N+1 while page N is written
+     */
+    private int pipeline(String userId, Set<String> tableIds, QrCodeService.Format format, int size,
+                         PageWriter writer) throws IOException {
+        long started = System.currentTimeMillis();
+        int count = 0;
+        try (Stream<Table> stream = tableRepository.streamByUserId(userId, Sort.by("tableNumber"))) {
+            Iterator<Table> tables = stream
+                    .filter(table -> tableIds == null || tableIds.contains(table.getId()))
+                    .iterator();
+
+            List<Table> page = nextPage(tables);
+            List<CompletableFuture<QrCodeService.QrImage>> rendering = render(page, format, size);
+            List<CompletableFuture<QrCodeService.QrImage>> nextRendering = List.of();
+            try {
+                while (!page.isEmpty()) {
+                    List<Table> nextPage = nextPage(tables);
+                    nextRendering = render(nextPage, format, size);
+
+                    writer.write(page, join(rendering));
+                    count += page.size();
+
+                    page = nextPage;
+                    rendering = nextRendering;
+                }
+            } finally {
+                // Client went away (or rendering failed): don't finish rendering for nobody
+                rendering.forEach(task -> task.cancel(false));
+                nextRendering.forEach(task -> task.cancel(false));
+            }
+        }
+        logger.info("QR export for user {}: {} codes ({}) in {} ms",
+                userId, count, format, System.currentTimeMillis() - started);
+        return count;
+    }
+
+    private List<CompletableFuture<QrCodeService.QrImage>> render(List<Table> page, QrCodeService.Format format, int size) {
+        return qrCodeService.renderAllAsync(page.stream().map(qrCodeService::tableUrl).toList(), format, size);
+    }
+
+    private static List<QrCodeService.QrImage> join(List<CompletableFuture<QrCodeService.QrImage>> rendering) {
+        try {
+            return rendering.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private static List<Table> nextPage(Iterator<Table> tables) {
+        List<Table> page = new ArrayList<>(CODES_PER_PAGE);
+        while (page.size() < CODES_PER_PAGE && tables.hasNext()) {
+            page.add(tables.next());
+        }
+        return page;
+    }
+
+    private static String fileName(Table table, Set<String> used) {
+        String number = table.getTableNumber() != null ? table.getTableNumber() : table.getId();
+        String base = "table-" + number.replaceAll("[^A-Za-z0-9._-]+", "_");
+        String name = base + ".png";
+        for (int i = 2; !used.add(name); i++) {
+            name = base + "-" + i + ".png";  // "Room 1" and "Room/1" both become Room_1
+        }
+        return name;
+    }
+
+    private static String escape(String text) {
+        return text != null ? HtmlUtils.htmlEscape(text) : "";
+    }
+
+    private static void write(OutputStream out, String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
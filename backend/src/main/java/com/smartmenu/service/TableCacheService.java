@@ -0,0 +1,156 @@
+package com.smartmenu.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartmenu.model.Table;
+import com.smartmenu.repository.TableRepository;
+import com.smartmenu.repository.reactive.ReactiveTableRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Table Cache Service - Read-through cache for tables
+ *
+ * TEACHING MOMENT - Why cache tables?
+ *
+ * Every public request (scan, menu, session, order) starts with "which table is
+ * this?". Tables almost never change, so asking MongoDB every time is wasted work.
+ * We keep recently used tables in memory, looked up by id OR by qrCodeId.
+ *
+ * Negative caching: unknown ids are remembered too (for a short time), so a bot
+ * scanning random ids gets "not found" from memory instead of hitting the database.
+ * They live in their own, smaller caches: a scan fills those with misses and
+ * evicts older misses, never the real tables that customers are using.
+ *
+ * Invalidation: TableController calls invalidate() on create/delete. Each server
+ * instance has its own cache, so other instances catch up after the TTL.
+ *
+ * Metrics: cache.size / cache.gets{result=hit|miss} / cache.evictions
+ * (cache=tables and cache=tables.missing) and tables.cache.hit.ratio.
+ */
+@Service
+public class TableCacheService {
+
+    private final TableRepository tableRepository;
+    private final ReactiveTableRepository reactiveTableRepository;
+
+    // Tables that exist
+    private final Cache<String, Table> byId;
+    private final Cache<String, Table> byQrCodeId;
+    // Keys we know don't exist (negative entries), kept apart so they can't evict real tables
+    private final Cache<String, Boolean> missingIds;
+    private final Cache<String, Boolean> missingQrCodeIds;
+
+    public TableCacheService(
+            TableRepository tableRepository,
+            ReactiveTableRepository reactiveTableRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.tables.max-size:20000}") long maxSize,
+            @Value("${app.cache.tables.ttl-minutes:10}") long ttlMinutes,
+            @Value("${app.cache.tables.negative-max-size:5000}") long negativeMaxSize,
+            @Value("${app.cache.tables.negative-ttl-seconds:60}") long negativeTtlSeconds
+    ) {
+        this.tableRepository = tableRepository;
+        this.reactiveTableRepository = reactiveTableRepository;
+
+        Duration ttl = Duration.ofMinutes(ttlMinutes);
+        Duration negativeTtl = Duration.ofSeconds(negativeTtlSeconds);
+        this.byId = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.byQrCodeId = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.missingIds = Caffeine.newBuilder()
+                .maximumSize(negativeMaxSize).expireAfterWrite(negativeTtl).recordStats().build();
+        this.missingQrCodeIds = Caffeine.newBuilder()
+                .maximumSize(negativeMaxSize).expireAfterWrite(negativeTtl).recordStats().build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "tables", "key", "id");
+        CaffeineCacheMetrics.monitor(meterRegistry, byQrCodeId, "tables", "key", "qrCodeId");
+        CaffeineCacheMetrics.monitor(meterRegistry, missingIds, "tables.missing", "key", "id");
+        CaffeineCacheMetrics.monitor(meterRegistry, missingQrCodeIds, "tables.missing", "key", "qrCodeId");
+        Gauge.builder("tables.cache.hit.ratio", byId, cache -> cache.stats().hitRate())
+                .tag("key", "id").register(meterRegistry);
+        Gauge.builder("tables.cache.hit.ratio", byQrCodeId, cache -> cache.stats().hitRate())
+                .tag("key", "qrCodeId").register(meterRegistry);
+    }
+
+    /**
+     * Find table by id (memory first, then MongoDB)
+     */
+    public Optional<Table> findById(String id) {
+        if (missingIds.getIfPresent(id) != null) {
+            return Optional.empty();
+        }
+        // A null result isn't cached in byId; it goes to missingIds instead
+        return Optional.ofNullable(byId.get(id, key -> {
+            Optional<Table> table = tableRepository.findSummaryById(key);
+            if (table.isEmpty()) {
+                missingIds.put(key, Boolean.TRUE);
+                return null;
+            }
+            putQrCode(table.get());
+            return table.get();
+        }));
+    }
+
+    /**
+     * Find table by QR code id (memory first, then MongoDB)
+     */
+    public Optional<Table> findByQrCodeId(String qrCodeId) {
+        if (missingQrCodeIds.getIfPresent(qrCodeId) != null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byQrCodeId.get(qrCodeId, key -> {
+            Optional<Table> table = tableRepository.findByQrCodeId(key);
+            if (table.isEmpty()) {
+                missingQrCodeIds.put(key, Boolean.TRUE);
+                return null;
+            }
+            byId.put(table.get().getId(), table.get());
+            return table.get();
+        }));
+    }
+
+    /**
+     * Reactive version of findById - a miss goes to the reactive repository,
+     * so no thread blocks while MongoDB answers
+     */
+    public Mono<Table> findByIdReactive(String id) {
+        Table cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        if (missingIds.getIfPresent(id) != null) {
+            return Mono.empty();
+        }
+        return reactiveTableRepository.findSummaryById(id)
+                .doOnNext(table -> {
+                    byId.put(id, table);
+                    putQrCode(table);
+                })
+                .switchIfEmpty(Mono.fromRunnable(() -> missingIds.put(id, Boolean.TRUE)));
+    }
+
+    /**
+     * Forget a table (call after create, update or delete)
+     */
+    public void invalidate(Table table) {
+        byId.invalidate(table.getId());
+        missingIds.invalidate(table.getId());
+        if (table.getQrCodeId() != null) {
+            byQrCodeId.invalidate(table.getQrCodeId());
+            missingQrCodeIds.invalidate(table.getQrCodeId());
+        }
+    }
+
+    private void putQrCode(Table table) {
+        if (table.getQrCodeId() != null) {
+            byQrCodeId.put(table.getQrCodeId(), table);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.smartmenu.service;
+
+import com.smartmenu.model.Table;
+import com.smartmenu.model.TableQrImage;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Table QR Image Migration - Moves old inline QR images out of the tables collection
+ *
+ * Tables used to carry their QR code as a base64 PNG (Table.qrCodeImage), so
+ * every table list and scan lookup moved it over the network. Images now live
+ * in table_qr_images. At startup, any table that still has the old field gets
+ * it copied over (as binary) and removed, in batches of 500.
+ *
+ * Safe to run again and on several instances at once: the copy only inserts
+ * when no image exists yet ($setOnInsert), and removing a removed field is a no-op.
+ */
+@Service
+public class TableQrImageMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableQrImageMigration.class);
+
+    private static final String LEGACY_FIELD = "qrCodeImage";
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    public TableQrImageMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            int moved = migrate();
+            if (moved > 0) {
+                logger.info("Moved {} inline QR images from tables to table_qr_images", moved);
+            }
+        } catch (RuntimeException e) {
+            // Not fatal: list/lookup queries already leave the old field out
+            logger.error("QR image migration failed (will retry at next startup): {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return number of tables migrated
+     */
+    public int migrate() {
+        Query query = Query.query(Criteria.where(LEGACY_FIELD).exists(true));
+        query.fields().include("userId", "qrCodeUrl", LEGACY_FIELD);
+        String collection = mongoTemplate.getCollectionName(Table.class);
+
+        int moved = 0;
+        List<Document> batch = new ArrayList<>(BATCH_SIZE);
+        // One pass over a cursor (not "find 500, repeat"): the field isn't indexed
+        try (Stream<Document> tables = mongoTemplate.stream(query, Document.class, collection)) {
+            for (Document table : (Iterable<Document>) tables::iterator) {
+                batch.add(table);
+                if (batch.size() == BATCH_SIZE) {
+                    moved += moveBatch(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            moved += moveBatch(batch);
+        }
+        return moved;
+    }
+
+    private int moveBatch(List<Document> tables) {
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations images = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TableQrImage.class);
+        List<Object> ids = new ArrayList<>(tables.size());
+        int copied = 0;
+        for (Document table : tables) {
+            ids.add(table.get("_id"));
+            byte[] png = decode(table.getString(LEGACY_FIELD));
+            if (png == null) {
+                continue;  // Empty (never rendered): just drop the field
+            }
+            images.upsert(Query.query(Criteria.where("_id").is(table.get("_id").toString())), new Update()
+                    .setOnInsert("userId", table.getString("userId"))
+                    .setOnInsert("qrCodeUrl", table.getString("qrCodeUrl"))
+                    .setOnInsert("png", png)
+                    .setOnInsert("createdAt", now));
+            copied++;
+        }
+        // 1. Copy, 2. then remove: a crash in between just copies again next time
+        if (copied > 0) {
+            images.execute();
+        }
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)),
+                new Update().unset(LEGACY_FIELD), Table.class);
+        return tables.size();
+    }
+
+    private static byte[] decode(String dataUri) {
+        if (dataUri == null || dataUri.isEmpty()) {
+            return null;
+        }
+        int comma = dataUri.indexOf(',');
+        try {
+            return Base64.getDecoder().decode(comma >= 0 ? dataUri.substring(comma + 1) : dataUri);
+        } catch (IllegalArgumentException e) {
+            return null;  // Not base64: nothing worth keeping
+        }
+    }
+}
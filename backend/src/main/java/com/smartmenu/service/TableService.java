@@ -0,0 +1,149 @@
+package com.smartmenu.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.smartmenu.dto.BulkTableResult;
+import com.smartmenu.dto.TableRequest;
+import com.smartmenu.model.Table;
+import com.smartmenu.model.TableQrImage;
+import com.smartmenu.repository.TableQrImageRepository;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Table Service - Creating tables/rooms, one at a time or a whole venue at once
+ *
+ * TEACHING MOMENT - Round trips
+ *
+ * The first version of "create table" was: find (is the number taken?), save
+ * (to get an id), save again (the QR URL contains the id). Three trips to
+ * MongoDB per table - a hotel adding 300 rooms made 900 calls, one after another.
+ *
+ * MongoDB ids (ObjectId) can be generated by the application, so we pick the
+ * id first and the URL is known before anything is written:
+ *   - one query checks every table number of the batch ($in)
+ *   - one unordered bulk insert writes all rows
+ * 300 rooms = 2 round trips. Like a single multi-row INSERT in PHP/MySQL, but
+ * a rejected row doesn't stop the others.
+ */
+@Service
+@RequiredArgsConstructor
+public class TableService {
+
+    public static final String NUMBER_TAKEN = "A table with this number already exists";
+
+    private static final int DUPLICATE_KEY = 11000;
+    public static final int QR_IMAGE_SIZE = 300;
+
+    private final MongoTemplate mongoTemplate;
+    private final QrCodeService qrCodeService;
+    private final TableCacheService tableCacheService;
+    private final TableQrImageRepository tableQrImageRepository;
+
+    /**
+     * Create many tables/rooms for one owner
+     *
+     * Rows are independent: a taken (or repeated) number fails that row only.
+     *
+     * @return one result per requested table, in request order
+     */
+    public List<BulkTableResult> provisionTables(String userId, List<TableRequest> requests) {
+        // 1. One query for every number in the batch that already exists
+        List<String> numbers = requests.stream().map(request -> request.getTableNumber().trim()).toList();
+        Query existingQuery = Query.query(Criteria.where("userId").is(userId).and("tableNumber").in(numbers));
+        existingQuery.fields().include("tableNumber");
+        Set<String> taken = new HashSet<>();
+        for (Table table : mongoTemplate.find(existingQuery, Table.class)) {
+            taken.add(table.getTableNumber());
+        }
+
+        // 2. Build the rows; ids (and so the QR URLs) are known before the insert
+        String[] errors = new String[requests.size()];
+        List<Table> tables = new ArrayList<>(requests.size());
+        List<Integer> rowOf = new ArrayList<>(requests.size());  // insert position → request index
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < requests.size(); i++) {
+            if (!taken.add(numbers.get(i))) {
+                errors[i] = NUMBER_TAKEN;  // Exists already, or repeated earlier in this batch
+                continue;
+            }
+            tables.add(newTable(userId, requests.get(i), now));
+            rowOf.add(i);
+        }
+
+        // 3. One unordered bulk insert (QR images are rendered when first requested)
+        boolean[] rejected = new boolean[tables.size()];
+        if (!tables.isEmpty()) {
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Table.class)
+                        .insert(tables)
+                        .execute();
+            } catch (BulkOperationException e) {
+                for (BulkWriteError error : e.getErrors()) {
+                    rejected[error.getIndex()] = true;
+                    // Duplicate key: created by another request since step 1 (the unique index decides)
+                    errors[rowOf.get(error.getIndex())] = error.getCode() == DUPLICATE_KEY
+                            ? NUMBER_TAKEN : "Could not create table: " + error.getMessage();
+                }
+            }
+        }
+
+        String[] ids = new String[requests.size()];
+        for (int i = 0; i < tables.size(); i++) {
+            if (!rejected[i]) {
+                ids[rowOf.get(i)] = tables.get(i).getId();
+                tableCacheService.invalidate(tables.get(i));  // Drop any cached "not found" for this id
+            }
+        }
+
+        List<BulkTableResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            results.add(new BulkTableResult(i, numbers.get(i), ids[i], errors[i] == null, errors[i]));
+        }
+        return results;
+    }
+
+    /**
+     * The stored QR image of a table, rendered and stored on first use
+     * (or again if the table's URL changed since)
+     */
+    public TableQrImage qrImage(Table table) {
+        String url = qrCodeService.tableUrl(table);
+        Optional<TableQrImage> stored = tableQrImageRepository.findById(table.getId());
+        if (stored.isPresent() && url.equals(stored.get().getQrCodeUrl())) {
+            return stored.get();
+        }
+        byte[] png = qrCodeService.render(url, QrCodeService.Format.PNG, QR_IMAGE_SIZE).bytes();
+        return tableQrImageRepository.save(new TableQrImage(table.getId(), table.getUserId(), url, png, LocalDateTime.now()));
+    }
+
+    /**
+     * A new table with its id and QR URL already set (ready for a single insert)
+     */
+    public Table newTable(String userId, TableRequest request, LocalDateTime now) {
+        Table table = new Table();
+        table.setId(new ObjectId().toHexString());  // Assign ID up front: the QR URL contains it
+        table.setUserId(userId);
+        table.setTableNumber(request.getTableNumber().trim());
+        table.setRoom(request.isRoom());
+        table.setLocation(request.getLocation() != null ? request.getLocation().trim() : "");
+        table.setQrCodeId(UUID.randomUUID().toString());
+        table.setQrCodeUrl(qrCodeService.menuUrl(table.getId()));
+        table.setActive(true);
+        table.setCreatedAt(now);
+        return table;
+    }
+}
@@ -0,0 +1,250 @@
+package com.smartmenu.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartmenu.model.VisitorSketch;
+import com.smartmenu.util.HyperLogLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Unique Visitor Service - "how many different customers today / this week?"
+ *
+ * TEACHING MOMENT - Counting distinct things cheaply
+ *
+ * The exact answer is SELECT COUNT(DISTINCT deviceId) ... over every session,
+ * which gets slower every day. Instead, each scan adds the deviceId to a
+ * HyperLogLog sketch (util/HyperLogLog): one per restaurant per day and one per
+ * table per day. Adding is a hash plus a couple of array writes, in memory.
+ * Any date range = merge the daily sketches and estimate (~0.8% error).
+ *
+ * Persistence: every minute, changed sketches are merged into visitor_sketches.
+ * Several servers may write the same day; merging is a per-register max, so each
+ * server just merges its sketch with what's stored (compare-and-set on version,
+ * retry on conflict). Writing the same data twice changes nothing.
+ *
+ * Reads: past days are cached for a minute, so a dashboard asking for "last 30
+ * days" merges 30 in-memory sketches - microseconds, no query.
+ */
+@Service
+public class UniqueVisitorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UniqueVisitorService.class);
+
+    public static final int MAX_RANGE_DAYS = 366;
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+
+    private final MongoTemplate mongoTemplate;
+
+    // Sketches this instance is writing (today, and yesterday until flushed), by VisitorSketch id
+    private final Map<String, LiveSketch> live = new ConcurrentHashMap<>();
+
+    // Stored sketches by id (Optional.empty() = no visitors that day)
+    private final Cache<String, Optional<HyperLogLog>> stored = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    public UniqueVisitorService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Count a scan (called from the public menu/scan/session endpoints)
+     */
+    public void record(String userId, String tableId, String deviceId) {
+        if (userId == null || deviceId == null || deviceId.isEmpty()) {
+            return;
+        }
+        long hash = HyperLogLog.hash(deviceId);  // Hash once, add to both sketches
+        LocalDate today = LocalDate.now();
+        add(VisitorSketch.TENANT, userId, userId, null, today, hash);
+        if (tableId != null) {
+            add(VisitorSketch.TABLE, tableId, userId, tableId, today, hash);
+        }
+    }
+
+    /**
+     * Estimated unique visitors of a restaurant between two days (inclusive)
+     */
+    public long countForTenant(String userId, LocalDate from, LocalDate to) {
+        return count(VisitorSketch.TENANT, userId, from, to);
+    }
+
+    /**
+     * Estimated unique visitors of a table between two days (inclusive)
+     */
+    public long countForTable(String tableId, LocalDate from, LocalDate to) {
+        return count(VisitorSketch.TABLE, tableId, from, to);
+    }
+
+    private long count(String scope, String ownerId, LocalDate from, LocalDate to) {
+        List<String> ids = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            ids.add(VisitorSketch.idFor(scope, ownerId, day));
+        }
+
+        HyperLogLog total = new HyperLogLog();
+        for (Optional<HyperLogLog> sketch : stored.getAll(ids, this::load).values()) {
+            sketch.ifPresent(total::merge);
+        }
+        // Plus what this instance has seen but not flushed yet
+        for (String id : ids) {
+            LiveSketch sketch = live.get(id);
+            if (sketch != null) {
+                synchronized (sketch) {
+                    total.merge(sketch.sketch);
+                }
+            }
+        }
+        return total.estimate();
+    }
+
+    private Map<String, Optional<HyperLogLog>> load(Set<? extends String> ids) {
+        Map<String, Optional<HyperLogLog>> sketches = new HashMap<>();
+        for (String id : ids) {
+            sketches.put(id, Optional.empty());
+        }
+        Query query = Query.query(Criteria.where("_id").in(ids));
+        query.fields().include("registers");
+        for (VisitorSketch sketch : mongoTemplate.find(query, VisitorSketch.class)) {
+            sketches.put(sketch.getId(), Optional.of(HyperLogLog.fromBytes(sketch.getRegisters())));
+        }
+        return sketches;
+    }
+
+    /**
+     * Write changed sketches to MongoDB; forget days that are over and saved
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.visitors.flush-interval-ms:60000}")
+    public void flush() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        int written = 0;
+        for (Map.Entry<String, LiveSketch> entry : live.entrySet()) {
+            LiveSketch sketch = entry.getValue();
+            HyperLogLog snapshot = null;
+            synchronized (sketch) {
+                if (sketch.dirty) {
+                    snapshot = sketch.sketch.copy();
+                    sketch.dirty = false;
+                }
+            }
+
+            if (snapshot != null) {
+                try {
+                    HyperLogLog merged = persist(entry.getKey(), sketch, snapshot);
+                    synchronized (sketch) {
+                        sketch.sketch.merge(merged);  // Pick up other instances' visitors too
+                    }
+                    written++;
+                } catch (RuntimeException e) {
+                    synchronized (sketch) {
+                        sketch.dirty = true;  // Try again next time
+                    }
+                    logger.warn("Could not save visitor sketch {}: {}", entry.getKey(), e.getMessage());
+                }
+            }
+
+            synchronized (sketch) {
+                if (!sketch.dirty && sketch.day.isBefore(yesterday)) {
+                    live.remove(entry.getKey());
+                }
+            }
+        }
+        if (written > 0) {
+            logger.debug("Saved {} visitor sketches", written);
+        }
+    }
+
+    /**
+     * Merge into the stored sketch (insert if new), retrying if another instance wrote meanwhile
+     *
+     * @return the merged sketch as stored
+     */
+    private HyperLogLog persist(String id, LiveSketch meta, HyperLogLog sketch) {
+        for (int attempt = 0; attempt < MAX_WRITE_ATTEMPTS; attempt++) {
+            VisitorSketch current = mongoTemplate.findById(id, VisitorSketch.class);
+            HyperLogLog merged = sketch.copy();
+            if (current != null) {
+                merged.merge(HyperLogLog.fromBytes(current.getRegisters()));
+            }
+            byte[] registers = merged.toBytes();
+            LocalDateTime now = LocalDateTime.now();
+
+            if (current == null) {
+                VisitorSketch created = new VisitorSketch();
+                created.setId(id);
+                created.setUserId(meta.userId);
+                created.setTableId(meta.tableId);
+                created.setDay(meta.day);
+                created.setRegisters(registers);
+                created.setEstimate(merged.estimate());
+                created.setUpdatedAt(now);
+                try {
+                    mongoTemplate.insert(created);
+                    return merged;
+                } catch (DuplicateKeyException e) {
+                    continue;  // Another instance created it first - merge with theirs
+                }
+            }
+
+            long matched = mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(id).and("version").is(current.getVersion())),
+                    new Update()
+                            .set("registers", registers)
+                            .set("estimate", merged.estimate())
+                            .set("updatedAt", now)
+                            .inc("version", 1),
+                    VisitorSketch.class).getMatchedCount();
+            if (matched == 1) {
+                return merged;
+            }
+        }
+        throw new RuntimeException("Visitor sketch " + id + " changed " + MAX_WRITE_ATTEMPTS + " times while saving");
+    }
+
+    private void add(String scope, String ownerId, String userId, String tableId, LocalDate day, long hash) {
+        LiveSketch sketch = live.computeIfAbsent(VisitorSketch.idFor(scope, ownerId, day),
+                id -> new LiveSketch(userId, tableId, day));
+        synchronized (sketch) {
+            if (sketch.sketch.addHash(hash)) {
+                sketch.dirty = true;  // Repeat visitors usually change nothing - and cost no write
+            }
+        }
+    }
+
+    /**
+     * A sketch being updated in memory (guarded by its own monitor)
+     */
+    private static final class LiveSketch {
+        final String userId;
+        final String tableId;
+        final LocalDate day;
+        final HyperLogLog sketch = new HyperLogLog();
+        boolean dirty;
+
+        LiveSketch(String userId, String tableId, LocalDate day) {
+            this.userId = userId;
+            this.tableId = tableId;
+            this.day = day;
+        }
+    }
+}
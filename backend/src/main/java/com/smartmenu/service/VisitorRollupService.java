@@ -0,0 +1,182 @@
+package com.smartmenu.service;
+
+import com.smartmenu.model.CustomerSession;
+import com.smartmenu.model.VisitorDailyStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Visitor Rollup Service - Folds customer sessions into daily visitor counts
+ *
+ * TEACHING MOMENT - Raw data vs aggregates
+ *
+ * customer_sessions has one document per device, and walk-in customers mostly
+ * come once. Keeping them forever makes the deviceId index (used by every scan)
+ * grow without limit, so sessions now expire via a TTL index on lastVisit.
+ * What we want to keep is the story: "restaurant X had 40 new and 12 returning
+ * visitors on Monday". That's one tiny VisitorDailyStats document per restaurant
+ * per day, like a nightly "INSERT INTO daily_stats SELECT COUNT(*) ... GROUP BY"
+ * job in PHP/MySQL.
+ *
+ * How a visit gets counted:
+ *   - every scan sets pendingRollup=true on the session (partial index: only
+ *     pending sessions are indexed, so finding them is cheap)
+ *   - every 15 minutes we read pending sessions, count each device once per day
+ *     (countedDay remembers the last day it was counted): new if its first visit
+ *     was that day, otherwise returning
+ *   - $inc the day's stats, then clear pendingRollup
+ *
+ * A crash between the $inc and clearing the flags counts that one batch twice on
+ * the next run - acceptable for visitor stats, and much simpler than a transaction.
+ */
+@Service
+public class VisitorRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VisitorRollupService.class);
+
+    private static final String JOB = "visitor-rollup";
+
+    // Leave the last minute alone: sessions being written right now
+    private static final Duration SETTLE_TIME = Duration.ofMinutes(1);
+
+    private final MongoTemplate mongoTemplate;
+    private final JobLockService jobLockService;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public VisitorRollupService(
+            MongoTemplate mongoTemplate,
+            JobLockService jobLockService,
+            @Value("${app.sessions.rollup.enabled:true}") boolean enabled,
+            @Value("${app.sessions.rollup.batch-size:1000}") int batchSize,
+            @Value("${app.sessions.rollup.max-batches-per-run:1000}") int maxBatchesPerRun
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.jobLockService = jobLockService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(cron = "${app.sessions.rollup.cron:0 */15 * * * *}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rollup();
+        } catch (RuntimeException e) {
+            logger.error("Visitor rollup failed (pending sessions are picked up next run): {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Count all pending visits (up to max-batches-per-run batches)
+     *
+     * @return sessions processed, or -1 if another instance is running the rollup
+     */
+    public long rollup() {
+        if (!jobLockService.tryLock(JOB, Duration.ofMinutes(10))) {
+            return -1;
+        }
+        try {
+            long processed = 0;
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int sessions = rollupBatch(LocalDateTime.now().minus(SETTLE_TIME));
+                processed += sessions;
+                if (sessions < batchSize) {
+                    break;
+                }
+                // Still going: extend. If it expired and another instance took it, stop here
+                if (!jobLockService.tryLock(JOB, Duration.ofMinutes(10))) {
+                    logger.warn("Visitor rollup lost its job lock after {} sessions; stopping", processed);
+                    break;
+                }
+            }
+            if (processed > 0) {
+                logger.info("Visitor rollup: {} sessions counted", processed);
+            }
+            return processed;
+        } finally {
+            jobLockService.unlock(JOB);
+        }
+    }
+
+    private int rollupBatch(LocalDateTime before) {
+        Query query = Query.query(Criteria.where("pendingRollup").is(true).and("lastVisit").lt(before))
+                .with(Sort.by(Sort.Direction.ASC, "lastVisit"))
+                .limit(batchSize);
+        query.fields().include("userId", "firstVisit", "lastVisit", "countedDay");
+        List<CustomerSession> sessions = mongoTemplate.find(query, CustomerSession.class);
+        if (sessions.isEmpty()) {
+            return 0;
+        }
+
+        // Visits per restaurant + day, by VisitorDailyStats id
+        Map<String, VisitorDailyStats> days = new HashMap<>();
+        for (CustomerSession session : sessions) {
+            LocalDate day = session.getLastVisit().toLocalDate();
+            if (session.getUserId() == null || day.equals(session.getCountedDay())) {
+                continue;  // Already counted that day
+            }
+            VisitorDailyStats stats = days.computeIfAbsent(VisitorDailyStats.idFor(session.getUserId(), day), id -> {
+                VisitorDailyStats row = new VisitorDailyStats();
+                row.setUserId(session.getUserId());
+                row.setDay(day);
+                return row;
+            });
+            if (session.getFirstVisit() == null || session.getFirstVisit().toLocalDate().equals(day)) {
+                stats.setNewVisitors(stats.getNewVisitors() + 1);
+            } else {
+                stats.setReturningVisitors(stats.getReturningVisitors() + 1);
+            }
+        }
+
+        // 1. Add to the daily stats
+        if (!days.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, VisitorDailyStats.class);
+            for (Map.Entry<String, VisitorDailyStats> entry : days.entrySet()) {
+                VisitorDailyStats stats = entry.getValue();
+                bulk.upsert(Query.query(Criteria.where("_id").is(entry.getKey())), new Update()
+                        .setOnInsert("userId", stats.getUserId())
+                        .setOnInsert("day", stats.getDay())
+                        .inc("newVisitors", stats.getNewVisitors())
+                        .inc("returningVisitors", stats.getReturningVisitors())
+                        .set("updatedAt", now));
+            }
+            bulk.execute();
+        }
+
+        // 2. Mark the sessions counted. pendingRollup is only cleared if the device
+        // hasn't visited again meanwhile - otherwise that newer visit is still pending.
+        BulkOperations marks = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CustomerSession.class);
+        for (CustomerSession session : sessions) {
+            LocalDate day = session.getLastVisit().toLocalDate();
+            marks.updateOne(Query.query(Criteria.where("_id").is(session.getId())),
+                    new Update().set("countedDay", day));
+            marks.updateOne(Query.query(Criteria.where("_id").is(session.getId())
+                            .and("lastVisit").is(session.getLastVisit())),
+                    new Update().unset("pendingRollup"));
+        }
+        marks.execute();
+        return sessions.size();
+    }
+}
@@ -0,0 +1,50 @@
+package com.smartmenu.util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * FileTransfer - copy part of a file to a channel without reading the whole file into a byte[]
+ *
+ * TEACHING MOMENT - Zero-copy
+ *
+ * The naive way to send a file: read it into a byte[] (kernel → Java heap),
+ * then write the byte[] to the socket (Java heap → kernel). Two copies, and a
+ * garbage array per request. FileChannel.transferTo asks the OS to move the
+ * bytes itself: when the target is a socket, Linux uses sendfile() and the
+ * data goes from the page cache to the network card without ever entering Java.
+ *
+ * That is zero-copy only when the target is a real socket or file channel. For
+ * any other target - like Channels.newChannel(response.getOutputStream()) in
+ * ImageController's fallback - the JDK reads the file into a buffer chunk by
+ * chunk and writes that: still a copy, but in small pieces, never a whole-file array.
+ *
+ * transferTo may move fewer bytes than asked, so we loop.
+ */
+public final class FileTransfer {
+
+    private FileTransfer() {
+    }
+
+    /**
+     * Write count bytes of the file, starting at position, to target
+     *
+     * @return bytes written (less than count only if the file is shorter)
+     */
+    public static long transfer(FileChannel file, long position, long count, WritableByteChannel target) throws IOException {
+        long written = 0;
+        while (written < count) {
+            long sent = file.transferTo(position + written, count - written, target);
+            if (sent <= 0) {
+                if (position + written >= file.size()) {
+                    break;  // File got shorter than expected
+                }
+                // Only a non-blocking target can take 0 bytes; retrying would spin
+                throw new IOException("Target accepted no bytes at offset " + (position + written));
+            }
+            written += sent;
+        }
+        return written;
+    }
+}
@@ -0,0 +1,272 @@
+package com.smartmenu.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog - count distinct values in a few KB, with ~0.8% error
+ *
+ * TEACHING MOMENT - How can 12 KB count millions of distinct devices?
+ *
+ * Hash every deviceId to 64 random-looking bits. The first 14 bits pick one of
+ * 16384 "registers"; the rest is used to count leading zeros. Seeing a hash that
+ * starts with 20 zeros is a 1-in-a-million event, so a register that has seen
+ * one has probably seen ~a million values. Each register keeps only the longest
+ * run it has seen (a number up to 51 = 6 bits), and combining all 16384
+ * registers gives an estimate with a standard error of 1.04 / sqrt(16384) ≈ 0.8%.
+ *
+ * Two properties make it ideal for analytics:
+ *   - adding the same device twice changes nothing (no need to remember devices)
+ *   - merge = per-register max, so "this week" = merge(7 daily sketches), and
+ *     merging the same sketch twice is harmless (safe to retry, any order)
+ *
+ * Storage is sparse while few devices have been seen (3 bytes per used register,
+ * e.g. ~300 bytes for a table with 100 customers) and switches to a packed dense
+ * form (6 bits per register, 12 KB) once that becomes smaller.
+ *
+ * Estimator: Otmar Ertl's "improved raw estimator" (2017), accurate from 0 to
+ * billions without the empirical bias tables of HyperLogLog++.
+ *
+ * Not thread-safe: callers synchronize on the instance.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 14;
+    public static final int REGISTERS = 1 << PRECISION;
+    /** Standard error of an estimate */
+    public static final double STANDARD_ERROR = 1.04 / Math.sqrt(REGISTERS);
+
+    private static final int MAX_RANK = 64 - PRECISION + 1;  // 51
+    private static final int SPARSE_ENTRY_BYTES = 3;          // 14-bit index + 6-bit rank
+    private static final int DENSE_BYTES = REGISTERS * 6 / 8;
+    private static final int SPARSE_LIMIT = DENSE_BYTES / SPARSE_ENTRY_BYTES;
+    private static final byte FORMAT_SPARSE = 1;
+    private static final byte FORMAT_DENSE = 2;
+
+    // Sparse: sorted (index << 6 | rank) entries, at most one per index
+    private int[] sparse = new int[8];
+    private int sparseSize;
+    // Dense: one byte per register (null while sparse)
+    private byte[] dense;
+
+    /**
+     * Add a value (e.g. a deviceId)
+     *
+     * @return true if the sketch changed
+     */
+    public boolean add(String value) {
+        return addHash(hash(value));
+    }
+
+    public boolean addHash(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        // Leading zeros of the remaining 50 bits, +1; the marker bit caps it at MAX_RANK
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        return set(index, rank);
+    }
+
+    /**
+     * Fold another sketch into this one (per-register max)
+     */
+    public void merge(HyperLogLog other) {
+        if (other.dense != null) {
+            toDense();
+            byte[] mine = dense;
+            byte[] theirs = other.dense;
+            for (int i = 0; i < REGISTERS; i++) {
+                mine[i] = (byte) Math.max(mine[i], theirs[i]);  // Branch-free, vectorizes
+            }
+        } else {
+            for (int i = 0; i < other.sparseSize; i++) {
+                set(other.sparse[i] >>> 6, other.sparse[i] & 0x3F);
+            }
+        }
+    }
+
+    /**
+     * Estimated number of distinct values added
+     */
+    public long estimate() {
+        int[] histogram = new int[MAX_RANK + 1];
+        if (dense != null) {
+            for (byte register : dense) {
+                histogram[register]++;
+            }
+        } else {
+            histogram[0] = REGISTERS - sparseSize;
+            for (int i = 0; i < sparseSize; i++) {
+                histogram[sparse[i] & 0x3F]++;
+            }
+        }
+
+        double m = REGISTERS;
+        double z = m * tau(1 - histogram[MAX_RANK] / m);
+        for (int k = MAX_RANK - 1; k >= 1; k--) {
+            z = 0.5 * (z + histogram[k]);
+        }
+        z += m * sigma(histogram[0] / m);
+        return Math.round(m * m / (2 * Math.log(2)) / z);
+    }
+
+    public HyperLogLog copy() {
+        HyperLogLog copy = new HyperLogLog();
+        copy.sparse = Arrays.copyOf(sparse, sparse.length);
+        copy.sparseSize = sparseSize;
+        copy.dense = dense != null ? dense.clone() : null;
+        return copy;
+    }
+
+    /**
+     * Compact binary form: [format][precision][payload]
+     *   sparse: entry count (int) + 3 bytes per entry
+     *   dense:  registers packed 6 bits each
+     */
+    public byte[] toBytes() {
+        if (dense == null) {
+            ByteBuffer buffer = ByteBuffer.allocate(2 + 4 + sparseSize * SPARSE_ENTRY_BYTES);
+            buffer.put(FORMAT_SPARSE).put((byte) PRECISION).putInt(sparseSize);
+            for (int i = 0; i < sparseSize; i++) {
+                int entry = sparse[i];
+                buffer.put((byte) (entry >>> 16)).put((byte) (entry >>> 8)).put((byte) entry);
+            }
+            return buffer.array();
+        }
+
+        byte[] bytes = new byte[2 + DENSE_BYTES];
+        bytes[0] = FORMAT_DENSE;
+        bytes[1] = PRECISION;
+        // 4 registers (4 × 6 bits) fit exactly in 3 bytes
+        for (int i = 0, out = 2; i < REGISTERS; i += 4, out += 3) {
+            int packed = dense[i] << 18 | dense[i + 1] << 12 | dense[i + 2] << 6 | dense[i + 3];
+            bytes[out] = (byte) (packed >>> 16);
+            bytes[out + 1] = (byte) (packed >>> 8);
+            bytes[out + 2] = (byte) packed;
+        }
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes.length < 2 || bytes[1] != PRECISION) {
+            throw new IllegalArgumentException("Not a HyperLogLog sketch with precision " + PRECISION);
+        }
+        HyperLogLog sketch = new HyperLogLog();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+        if (bytes[0] == FORMAT_SPARSE) {
+            int size = buffer.getInt();
+            sketch.sparse = new int[Math.max(8, size)];
+            for (int i = 0; i < size; i++) {
+                sketch.sparse[i] = (buffer.get() & 0xFF) << 16 | (buffer.get() & 0xFF) << 8 | (buffer.get() & 0xFF);
+            }
+            sketch.sparseSize = size;
+        } else if (bytes[0] == FORMAT_DENSE && bytes.length == 2 + DENSE_BYTES) {
+            sketch.dense = new byte[REGISTERS];
+            for (int i = 0, in = 2; i < REGISTERS; i += 4, in += 3) {
+                int packed = (bytes[in] & 0xFF) << 16 | (bytes[in + 1] & 0xFF) << 8 | (bytes[in + 2] & 0xFF);
+                sketch.dense[i] = (byte) (packed >>> 18 & 0x3F);
+                sketch.dense[i + 1] = (byte) (packed >>> 12 & 0x3F);
+                sketch.dense[i + 2] = (byte) (packed >>> 6 & 0x3F);
+                sketch.dense[i + 3] = (byte) (packed & 0x3F);
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown HyperLogLog format " + bytes[0]);
+        }
+        return sketch;
+    }
+
+    /**
+     * 64-bit hash of a string: FNV-1a over the UTF-8 bytes, then MurmurHash3's
+     * finalizer so every input bit affects every output bit (HLL needs uniform bits)
+     */
+    public static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private boolean set(int index, int rank) {
+        if (dense != null) {
+            if (rank > dense[index]) {
+                dense[index] = (byte) rank;
+                return true;
+            }
+            return false;
+        }
+
+        int position = Arrays.binarySearch(sparse, 0, sparseSize, index << 6);
+        // Entries sort by index first, so the match (if any) is at the insertion point
+        int slot = position >= 0 ? position : -position - 1;
+        if (slot < sparseSize && sparse[slot] >>> 6 == index) {
+            if (rank > (sparse[slot] & 0x3F)) {
+                sparse[slot] = index << 6 | rank;
+                return true;
+            }
+            return false;
+        }
+
+        if (sparseSize == SPARSE_LIMIT) {
+            toDense();
+            return set(index, rank);
+        }
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, Math.min(sparse.length * 2, SPARSE_LIMIT));
+        }
+        System.arraycopy(sparse, slot, sparse, slot + 1, sparseSize - slot);
+        sparse[slot] = index << 6 | rank;
+        sparseSize++;
+        return true;
+    }
+
+    private void toDense() {
+        if (dense != null) {
+            return;
+        }
+        dense = new byte[REGISTERS];
+        for (int i = 0; i < sparseSize; i++) {
+            dense[sparse[i] >>> 6] = (byte) (sparse[i] & 0x3F);
+        }
+        sparse = new int[0];
+        sparseSize = 0;
+    }
+
+    // Ertl, "New cardinality estimation algorithms for HyperLogLog sketches", Algorithm 6
+    private static double sigma(double x) {
+        if (x == 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double y = 1;
+        double z = x;
+        double previous;
+        do {
+            x *= x;
+            previous = z;
+            z += x * y;
+            y += y;
+        } while (z != previous);
+        return z;
+    }
+
+    private static double tau(double x) {
+        if (x == 0 || x == 1) {
+            return 0;
+        }
+        double y = 1;
+        double z = 1 - x;
+        double previous;
+        do {
+            x = Math.sqrt(x);
+            previous = z;
+            y *= 0.5;
+            z -= Math.pow(1 - x, 2) * y;
+        } while (z != previous);
+        return z / 3;
+    }
+}
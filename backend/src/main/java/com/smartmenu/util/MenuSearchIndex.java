@@ -0,0 +1,407 @@
+package com.smartmenu.util;
+
+import com.smartmenu.model.MenuItem;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Menu Search Index - one restaurant's menu, searchable in microseconds
+ *
+ * TEACHING MOMENT - Bitsets
+ *
+ * Every item gets a number (its "ordinal", 0..n-1). For each allergen and each
+ * category we keep a BitSet with a 1 at the ordinals of the items that have it:
+ *
+ *   nuts   0100 1000 ...      (items 1 and 4 contain nuts)
+ *   dairy  1100 0010 ...
+ *
+ * "No nuts, no dairy" is then: all items AND NOT nuts AND NOT dairy - a handful
+ * of 64-bit operations for a 200-item menu, instead of checking every item's
+ * allergen list. In PHP/MySQL terms it's a WHERE clause the CPU does 64 rows
+ * at a time.
+ *
+ * Ordinals are assigned in price order (cheapest first), so "under 10,000 TZS"
+ * is a binary search for the first item above the limit and then a range of
+ * ordinals [0, k) - another bitset.
+ *
+ * Name search: names are split into lowercase words (accents removed) in a
+ * sorted map word → items. A query word matches:
+ *   - exactly                                   "pilau"  → Pilau ya Kuku
+ *   - as a prefix (the customer is still typing) "pil"   → Pilau ya Kuku
+ *   - with a typo (edit distance 1, or 2 for long words) "pilua" → Pilau ya Kuku
+ * Every query word must match; exact matches rank above prefix above typo.
+ *
+ * Immutable: a change builds a new index (with/without), and readers keep
+ * using the old one until the reference is swapped. Rebuilding a 200-item
+ * menu takes well under a millisecond, so no locks are needed anywhere.
+ */
+public final class MenuSearchIndex {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final int SCORE_EXACT = 3;
+    private static final int SCORE_PREFIX = 2;
+    private static final int SCORE_FUZZY = 1;
+
+    private static final Comparator<MenuItem> BY_PRICE = Comparator
+            .comparing(MenuItem::getPrice, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(MenuItem::getName, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(MenuItem::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private static final MenuSearchIndex EMPTY = new MenuSearchIndex(List.of());
+
+    private final MenuItem[] items;              // ordinal → item, cheapest first
+    private final BigDecimal[] prices;           // ordinal → price (null sorts last)
+    private final Map<String, Integer> ordinals; // id → ordinal
+    private final BitSet available;
+    private final Map<String, BitSet> allergens; // normalized allergen → items
+    private final Map<String, BitSet> categories;
+    private final Map<String, String> categoryNames;      // normalized → as written by the restaurant
+    private final NavigableMap<String, BitSet> words;     // normalized name word → items
+
+    private MenuSearchIndex(Collection<MenuItem> menu) {
+        this.items = menu.stream().filter(Objects::nonNull).sorted(BY_PRICE).toArray(MenuItem[]::new);
+        this.prices = new BigDecimal[items.length];
+        this.ordinals = new HashMap<>(items.length * 2);
+        this.available = new BitSet(items.length);
+        this.allergens = new HashMap<>();
+        this.categories = new HashMap<>();
+        this.categoryNames = new TreeMap<>();
+        this.words = new TreeMap<>();
+
+        for (int i = 0; i < items.length; i++) {
+            MenuItem item = items[i];
+            prices[i] = item.getPrice();
+            ordinals.put(item.getId(), i);
+            available.set(i, item.isAvailable());
+            if (item.getAllergens() != null) {
+                for (String allergen : item.getAllergens()) {
+                    String key = normalize(allergen);
+                    if (!key.isEmpty()) {
+                        allergens.computeIfAbsent(key, k -> new BitSet(items.length)).set(i);
+                    }
+                }
+            }
+            String category = normalize(item.getCategory());
+            if (!category.isEmpty()) {
+                categories.computeIfAbsent(category, k -> new BitSet(items.length)).set(i);
+                categoryNames.putIfAbsent(category, item.getCategory().trim());
+            }
+            for (String word : words(item.getName())) {
+                words.computeIfAbsent(word, k -> new BitSet(items.length)).set(i);
+            }
+        }
+    }
+
+    public static MenuSearchIndex of(Collection<MenuItem> menu) {
+        return menu.isEmpty() ? EMPTY : new MenuSearchIndex(menu);
+    }
+
+    /**
+     * A new index with this item added, or replacing the item with the same id
+     */
+    public MenuSearchIndex with(MenuItem item) {
+        return with(List.of(item));
+    }
+
+    /**
+     * A new index with these items added or replaced (one rebuild for all of them)
+     *
+     * An item older (lower MenuItem.version) than the one already indexed is
+     * skipped: two saves of the same item can reach the index in the opposite
+     * order of their writes, and the older one must not win. This index is
+     * returned as is when nothing is newer.
+     */
+    public MenuSearchIndex with(Collection<MenuItem> changed) {
+        Map<String, MenuItem> newer = new HashMap<>();
+        for (MenuItem item : changed) {
+            Integer ordinal = ordinals.get(item.getId());
+            if (ordinal != null && isOlder(item, items[ordinal])) {
+                continue;
+            }
+            newer.merge(item.getId(), item, (a, b) -> isOlder(b, a) ? a : b);
+        }
+        if (newer.isEmpty()) {
+            return this;
+        }
+        Set<String> changedIds = newer.keySet();
+        List<MenuItem> menu = new ArrayList<>(items.length + newer.size());
+        for (MenuItem existing : items) {
+            if (!changedIds.contains(existing.getId())) {
+                menu.add(existing);
+            }
+        }
+        menu.addAll(newer.values());
+        return of(menu);
+    }
+
+    /**
+     * A new index without the item (this index if it isn't in it)
+     */
+    public MenuSearchIndex without(String itemId) {
+        if (!ordinals.containsKey(itemId)) {
+            return this;
+        }
+        List<MenuItem> menu = new ArrayList<>(items.length);
+        for (MenuItem existing : items) {
+            if (!Objects.equals(existing.getId(), itemId)) {
+                menu.add(existing);
+            }
+        }
+        return of(menu);
+    }
+
+    // Unsaved items (no version) are never treated as older
+    private static boolean isOlder(MenuItem item, MenuItem than) {
+        return item.getVersion() != null && than.getVersion() != null && item.getVersion() < than.getVersion();
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Allergens that appear on the menu (for filter chips), alphabetically
+     */
+    public List<String> allergens() {
+        return allergens.keySet().stream().sorted().toList();
+    }
+
+    /**
+     * Categories as the restaurant wrote them, alphabetically
+     */
+    public List<String> categories() {
+        return List.copyOf(categoryNames.values());
+    }
+
+    /**
+     * What the customer asked for. Everything is optional: an empty query
+     * returns the whole (available) menu, cheapest first.
+     *
+     * @param text             words to match in item names
+     * @param excludeAllergens items containing any of these are left out
+     * @param category         only this category (case and accents ignored)
+     * @param maxPrice         price at most this (items without a price are left out)
+     * @param availableOnly    leave out items the restaurant switched off
+     * @param limit            at most this many results
+     */
+    public record Query(
+            String text,
+            Collection<String> excludeAllergens,
+            String category,
+            BigDecimal maxPrice,
+            boolean availableOnly,
+            int limit
+    ) {
+    }
+
+    /**
+     * @param items best match first (for a text query), otherwise cheapest first
+     * @param total how many items matched before the limit was applied
+     */
+    public record Result(List<MenuItem> items, int total) {
+    }
+
+    public Result search(Query query) {
+        // 1. Filters: pure bitset operations
+        BitSet candidates = new BitSet(items.length);
+        candidates.set(0, items.length);
+        if (query.availableOnly()) {
+            candidates.and(available);
+        }
+        if (query.category() != null && !query.category().isBlank()) {
+            BitSet inCategory = categories.get(normalize(query.category()));
+            if (inCategory == null) {
+                return new Result(List.of(), 0);
+            }
+            candidates.and(inCategory);
+        }
+        if (query.excludeAllergens() != null) {
+            for (String allergen : query.excludeAllergens()) {
+                BitSet containing = allergens.get(normalize(allergen));
+                if (containing != null) {
+                    candidates.andNot(containing);
+                }
+            }
+        }
+        if (query.maxPrice() != null) {
+            candidates.clear(affordableUpTo(query.maxPrice()), items.length);
+        }
+
+        // 2. Name words: every query word must match, scores add up
+        List<String> queryWords = words(query.text());
+        int[] scores = null;
+        if (!queryWords.isEmpty()) {
+            scores = new int[items.length];
+            for (String queryWord : queryWords) {
+                if (candidates.isEmpty()) {
+                    break;
+                }
+                int[] wordScores = new int[items.length];
+                BitSet matched = match(queryWord, wordScores);
+                candidates.and(matched);
+                for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                    scores[i] += wordScores[i];
+                }
+            }
+        }
+
+        // 3. Results: ordinals are already cheapest first; a text query sorts by score
+        int total = candidates.cardinality();
+        int limit = Math.max(0, Math.min(query.limit(), total));
+        List<MenuItem> results = new ArrayList<>(limit);
+        if (scores == null) {
+            for (int i = candidates.nextSetBit(0); i >= 0 && results.size() < limit; i = candidates.nextSetBit(i + 1)) {
+                results.add(items[i]);
+            }
+        } else {
+            int[] found = candidates.stream().toArray();
+            int[] ranked = rank(found, scores);
+            for (int i = 0; i < limit; i++) {
+                results.add(items[ranked[i]]);
+            }
+        }
+        return new Result(Collections.unmodifiableList(results), total);
+    }
+
+    /**
+     * Items matching one query word, with the best score per item in {@code scores}
+     */
+    private BitSet match(String queryWord, int[] scores) {
+        BitSet matched = new BitSet(items.length);
+        // Exact and prefix: a range of the sorted word map
+        for (Map.Entry<String, BitSet> entry : words.subMap(queryWord, true, queryWord + Character.MAX_VALUE, false).entrySet()) {
+            int score = entry.getKey().length() == queryWord.length() ? SCORE_EXACT : SCORE_PREFIX;
+            addMatches(entry.getValue(), score, matched, scores);
+        }
+        // Typos: compare against every word (a menu has a few hundred)
+        int maxEdits = queryWord.length() >= 8 ? 2 : queryWord.length() >= 4 ? 1 : 0;
+        if (maxEdits > 0) {
+            for (Map.Entry<String, BitSet> entry : words.entrySet()) {
+                String word = entry.getKey();
+                if (Math.abs(word.length() - queryWord.length()) <= maxEdits
+                        && !word.startsWith(queryWord)
+                        && withinEdits(queryWord, word, maxEdits)) {
+                    addMatches(entry.getValue(), SCORE_FUZZY, matched, scores);
+                }
+            }
+        }
+        return matched;
+    }
+
+    private static void addMatches(BitSet itemsWithWord, int score, BitSet matched, int[] scores) {
+        matched.or(itemsWithWord);
+        for (int i = itemsWithWord.nextSetBit(0); i >= 0; i = itemsWithWord.nextSetBit(i + 1)) {
+            scores[i] = Math.max(scores[i], score);
+        }
+    }
+
+    /**
+     * Sort ordinals by score (highest first); equal scores stay cheapest first
+     */
+    private static int[] rank(int[] ordinals, int[] scores) {
+        return Arrays.stream(ordinals).boxed()
+                .sorted(Comparator.comparingInt((Integer i) -> -scores[i]).thenComparingInt(i -> i))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * Number of items with a price of at most {@code maxPrice} (binary search over the price order)
+     */
+    private int affordableUpTo(BigDecimal maxPrice) {
+        int low = 0;
+        int high = items.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] != null && prices[mid].compareTo(maxPrice) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Edit distance of at most {@code maxEdits}, where swapping two neighbouring
+     * letters counts as one edit ("pilua" → "pilau"). Only cells near the
+     * diagonal are computed, and it stops as soon as a whole row is over the limit.
+     */
+    static boolean withinEdits(String a, String b, int maxEdits) {
+        int outside = maxEdits + 1;
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int from = Math.max(1, i - maxEdits);
+            int to = Math.min(b.length(), i + maxEdits);
+            Arrays.fill(current, outside);
+            current[0] = i;
+            int rowMin = i;
+            for (int j = from; j <= to; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, beforePrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+
+    /**
+     * Lowercase, trimmed, accents removed ("Crème Brûlée" → "creme brulee")
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> words(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        Set<String> unique = Collections.newSetFromMap(new LinkedHashMap<>());
+        for (String word : WORD_SEPARATOR.split(normalized)) {
+            if (!word.isEmpty()) {
+                unique.add(word);
+            }
+        }
+        return List.copyOf(unique);
+    }
+}
@@ -0,0 +1,105 @@
+package com.smartmenu.benchmarks;
+
+import com.smartmenu.model.MenuItem;
+import com.smartmenu.model.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Test data for the benchmarks
+ *
+ * Always built from a fixed seed and a fixed clock, so every run (and every
+ * commit) measures exactly the same input.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 42L;
+    static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 12, 30);
+
+    private static final String[] CATEGORIES = {"Appetizer", "Main Course", "Dessert", "Drinks", "Sides"};
+    private static final String[] ALLERGENS = {"nuts", "dairy", "gluten", "eggs", "soy", "shellfish"};
+    private static final String[] WORDS = {
+            "grilled", "chicken", "pilau", "spicy", "coconut", "beef", "mishkaki", "chips", "fresh",
+            "mango", "juice", "ugali", "fish", "samaki", "chapati", "beans", "rice", "salad", "tea", "masala"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * A restaurant menu of {@code count} items, like a real one
+     */
+    static List<MenuItem> menu(int count) {
+        Random random = new Random(SEED);
+        List<MenuItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MenuItem item = new MenuItem();
+            item.setId(String.format("65a1f0c2e4b0%012d", i));
+            item.setUserId("65a1f0c2e4b0aa0000000001");
+            item.setName(words(random, 2 + random.nextInt(3)));
+            item.setDescription(words(random, 12 + random.nextInt(20)));
+            item.setPrice(BigDecimal.valueOf(500 + random.nextInt(30_000), 2));
+            item.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            item.setImageUrl("https://cdn.example.com/menu/" + i + ".jpg");
+            item.setAvailable(random.nextInt(10) != 0);
+            List<String> allergens = new ArrayList<>();
+            for (String allergen : ALLERGENS) {
+                if (random.nextInt(4) == 0) {
+                    allergens.add(allergen);
+                }
+            }
+            item.setAllergens(allergens);
+            item.setPrepTimeMinutes(5 + random.nextInt(40));
+            item.setFeatured(random.nextInt(8) == 0);
+            item.setCreatedAt(NOW.minusDays(random.nextInt(365)));
+            item.setUpdatedAt(NOW);
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * A cart in the shape PublicMenuController.placeOrder receives it
+     */
+    static List<Map<String, Object>> cart(List<MenuItem> menu, int lines) {
+        Random random = new Random(SEED);
+        List<Map<String, Object>> cart = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            MenuItem item = menu.get(random.nextInt(menu.size()));
+            Map<String, Object> line = new HashMap<>();
+            line.put("id", item.getId());
+            line.put("name", item.getName());
+            line.put("price", item.getPrice().doubleValue());  // JSON numbers arrive as Double
+            line.put("quantity", 1 + random.nextInt(4));
+            line.put("specialInstructions", random.nextBoolean() ? "no onions" : null);
+            cart.add(line);
+        }
+        return cart;
+    }
+
+    static Table table() {
+        Table table = new Table();
+        table.setId("65a1f0c2e4b0bb0000000007");
+        table.setUserId("65a1f0c2e4b0aa0000000001");
+        table.setTableNumber("7");
+        table.setQrCodeId("qr-7");
+        return table;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package com.smartmenu.benchmarks;
+
+import com.smartmenu.util.HyperLogLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HyperLogLog: add on every scan (UniqueVisitorService.record), merge + estimate
+ * per dashboard query ("unique visitors, last 30 days")
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class HyperLogLogBenchmark {
+
+    private HyperLogLog today;
+    private HyperLogLog[] month;        // 30 busy days (dense sketches)
+    private HyperLogLog[] quietMonth;   // 30 days of one table (sparse sketches)
+    private byte[] denseBytes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        today = new HyperLogLog();
+        month = new HyperLogLog[30];
+        quietMonth = new HyperLogLog[30];
+        for (int day = 0; day < 30; day++) {
+            month[day] = new HyperLogLog();
+            quietMonth[day] = new HyperLogLog();
+            // Busy restaurant: 20k devices a day, a third of them regulars
+            for (int i = 0; i < 20_000; i++) {
+                month[day].add(i < 7_000 ? "regular-" + i : "device-" + day + "-" + i);
+            }
+            for (int i = 0; i < 60; i++) {
+                quietMonth[day].add(i < 20 ? "regular-" + i : "device-" + day + "-" + i);
+            }
+        }
+        denseBytes = month[0].toBytes();
+    }
+
+    @Benchmark
+    public boolean add() {
+        return today.add("device-" + (next++ & 0xFFFF));
+    }
+
+    @Benchmark
+    public long mergeAndEstimate30Days() {
+        HyperLogLog total = new HyperLogLog();
+        for (HyperLogLog day : month) {
+            total.merge(day);
+        }
+        return total.estimate();
+    }
+
+    @Benchmark
+    public long mergeAndEstimate30SparseDays() {
+        HyperLogLog total = new HyperLogLog();
+        for (HyperLogLog day : quietMonth) {
+            total.merge(day);
+        }
+        return total.estimate();
+    }
+
+    /**
+     * Loading a stored day (12 KB packed registers)
+     */
+    @Benchmark
+    public HyperLogLog deserializeDense() {
+        return HyperLogLog.fromBytes(denseBytes);
+    }
+}
@@ -0,0 +1,167 @@
+package com.smartmenu.benchmarks;
+
+import com.smartmenu.controller.ImageController;
+import com.smartmenu.service.ImageStore;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Image serving over HTTP: the real ImageController in an embedded Tomcat
+ * against the naive ResponseEntity<byte[]> endpoint it replaced, fetched by an
+ * HTTP client over loopback (keep-alive, body read and discarded).
+ *
+ * endpoint:
+ *   sendfile   ImageController, connector with sendfile (production default):
+ *              files >= app.images.sendfile-min-bytes (16 KB) go through Tomcat's sendfile
+ *   stream     ImageController, sendfile off: its fallback, FileChannel.transferTo
+ *              into the response's OutputStream (copied through a small buffer)
+ *   byteArray  Files.readAllBytes + ResponseEntity<byte[]>
+ *
+ * Sizes: 13 KB (full.jpg of a phone photo), 256 KB and 2 MB (large originals).
+ * Score = responses per second; multiply by the size for bytes/s. The client
+ * side costs the same in every mode, so compare the modes, not the absolute numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ImageServingBenchmark {
+
+    @Param({"13312", "262144", "2097152"})
+    public int fileSize;
+
+    @Param({"sendfile", "stream", "byteArray"})
+    public String endpoint;
+
+    private Path dir;
+    private Tomcat tomcat;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setup() throws IOException, LifecycleException {
+        dir = Files.createTempDirectory("image-bench");
+        byte[] content = new byte[fileSize];
+        new Random(42).nextBytes(content);
+        String hash = ImageStore.hash(content);
+        ImageStore imageStore = new ImageStore(dir.resolve("images").toString());
+        imageStore.write(hash, "full.jpg", content);
+
+        AnnotationConfigWebApplicationContext spring = new AnnotationConfigWebApplicationContext();
+        spring.addBeanFactoryPostProcessor(beanFactory -> beanFactory.registerSingleton("imageStore", imageStore));
+        spring.register(WebConfig.class);
+
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(dir.resolve("tomcat").toString());
+        Connector connector = new Connector();  // NIO, like Spring Boot's
+        connector.setPort(0);
+        connector.setProperty("useSendfile", String.valueOf(endpoint.equals("sendfile")));
+        tomcat.getService().addConnector(connector);
+        tomcat.setConnector(connector);
+        Context context = tomcat.addContext("", dir.toString());
+        Tomcat.addServlet(context, "dispatcher", new DispatcherServlet(spring)).setLoadOnStartup(1);
+        context.addServletMappingDecoded("/", "dispatcher");
+        tomcat.start();
+
+        String path = endpoint.equals("byteArray")
+                ? "/naive/images/" + hash + "/full.jpg"
+                : "/api/public/images/" + hash + "/full.jpg";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + connector.getLocalPort() + path)).build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, LifecycleException {
+        tomcat.stop();
+        tomcat.destroy();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long fetch() throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            long read = body.transferTo(OutputStream.nullOutputStream());
+            if (response.statusCode() != 200 || read != fileSize) {
+                throw new IllegalStateException("Got " + response.statusCode() + " with " + read + " bytes");
+            }
+            return read;
+        }
+    }
+
+    /**
+     * The endpoint ImageController replaced: read the whole file, return it
+     */
+    @RestController
+    public static class NaiveImageController {
+
+        private final ImageStore imageStore;
+
+        public NaiveImageController(ImageStore imageStore) {
+            this.imageStore = imageStore;
+        }
+
+        @GetMapping("/naive/images/{hash}/{variant}.jpg")
+        public ResponseEntity<byte[]> image(@PathVariable String hash, @PathVariable String variant) throws IOException {
+            byte[] bytes = Files.readAllBytes(imageStore.path(hash, variant + ".jpg"));
+            return ResponseEntity.ok().contentType(MediaType.IMAGE_JPEG).body(bytes);
+        }
+    }
+
+    @Configuration
+    @EnableWebMvc
+    public static class WebConfig {
+
+        @Bean
+        public ImageController imageController(ImageStore imageStore) {
+            return new ImageController(imageStore);
+        }
+
+        @Bean
+        public NaiveImageController naiveImageController(ImageStore imageStore) {
+            return new NaiveImageController(imageStore);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.smartmenu.benchmarks;
+
+import com.smartmenu.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil: sign on login, verify on EVERY authenticated request
+ * (JwtAuthenticationFilter calls validateToken + getUsernameFromToken)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        jwtUtil = new JwtUtil();
+        // Normally injected by Spring from jwt.secret / jwt.expiration
+        set(jwtUtil, "jwtSecret", "benchmark-secret-key-that-is-at-least-256-bits-long-for-hs256");
+        set(jwtUtil, "jwtExpirationMs", 86_400_000L);
+        token = jwtUtil.generateToken("waiter1");
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtil.generateToken("waiter1");
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return jwtUtil.validateToken(token);
+    }
+
+    /**
+     * What the filter does per request: validate, then parse again for the username
+     */
+    @Benchmark
+    public String verifyAndExtractUsername() {
+        return jwtUtil.validateToken(token) ? jwtUtil.getUsernameFromToken(token) : null;
+    }
+
+    private static void set(Object target, String fieldName, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
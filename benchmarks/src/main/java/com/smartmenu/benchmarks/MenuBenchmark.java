@@ -0,0 +1,95 @@
+package com.smartmenu.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartmenu.dto.MenuItemResponse;
+import com.smartmenu.model.MenuItem;
+import com.smartmenu.service.MenuItemMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Menu hot path: entity -> DTO mapping and JSON serialization
+ *
+ * The public menu endpoints serialize MenuItem entities directly; the staff
+ * endpoints go through MenuItemMapper.toResponse first. Both are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class MenuBenchmark {
+
+    @Param({"200"})
+    private int menuSize;
+
+    private ObjectMapper objectMapper;
+    private List<MenuItem> menu;
+    private List<MenuItemResponse> responses;
+
+    @Setup
+    public void setup() {
+        // Same builder Spring Boot uses, so dates etc. serialize like in production
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        menu = BenchmarkData.menu(menuSize);
+        responses = toResponses();
+    }
+
+    @Benchmark
+    public void toResponseSingle(Blackhole blackhole) {
+        blackhole.consume(MenuItemMapper.toResponse(menu.get(0)));
+    }
+
+    @Benchmark
+    public List<MenuItemResponse> toResponseMenu() {
+        return toResponses();
+    }
+
+    /**
+     * GET /api/public/menu/{tableId} body (entities)
+     */
+    @Benchmark
+    public byte[] serializeMenuEntities() throws Exception {
+        return objectMapper.writeValueAsBytes(menu);
+    }
+
+    /**
+     * GET /api/menu-items body (DTOs)
+     */
+    @Benchmark
+    public byte[] serializeMenuResponses() throws Exception {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    /**
+     * Mapping + serialization together, as the staff menu endpoint does it
+     */
+    @Benchmark
+    public byte[] mapAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(toResponses());
+    }
+
+    private List<MenuItemResponse> toResponses() {
+        List<MenuItemResponse> result = new ArrayList<>(menu.size());
+        for (MenuItem item : menu) {
+            result.add(MenuItemMapper.toResponse(item));
+        }
+        return result;
+    }
+}
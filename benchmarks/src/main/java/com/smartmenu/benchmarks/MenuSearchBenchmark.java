@@ -0,0 +1,81 @@
+package com.smartmenu.benchmarks;
+
+import com.smartmenu.model.MenuItem;
+import com.smartmenu.util.MenuSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Menu search (MenuSearchService): bitset filters and name matching on one
+ * restaurant's index, against the same filter written as a stream over the items.
+ * rebuildAfterEdit is what every menu item write costs the index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class MenuSearchBenchmark {
+
+    private static final Set<String> NO_NUTS_NO_DAIRY = Set.of("nuts", "dairy");
+    private static final BigDecimal MAX_PRICE = new BigDecimal("100.00");
+
+    @Param({"200"})
+    private int menuSize;
+
+    private List<MenuItem> menu;
+    private MenuSearchIndex index;
+    private MenuItem edited;
+
+    @Setup
+    public void setup() {
+        menu = BenchmarkData.menu(menuSize);
+        index = MenuSearchIndex.of(menu);
+        edited = menu.get(menuSize / 2);
+    }
+
+    @Benchmark
+    public MenuSearchIndex.Result filterAllergensAndPrice() {
+        return index.search(new MenuSearchIndex.Query(null, NO_NUTS_NO_DAIRY, null, MAX_PRICE, true, 50));
+    }
+
+    @Benchmark
+    public List<MenuItem> filterAllergensAndPriceStream() {
+        return menu.stream()
+                .filter(MenuItem::isAvailable)
+                .filter(item -> item.getAllergens().stream().noneMatch(NO_NUTS_NO_DAIRY::contains))
+                .filter(item -> item.getPrice().compareTo(MAX_PRICE) <= 0)
+                .limit(50)
+                .toList();
+    }
+
+    @Benchmark
+    public MenuSearchIndex.Result prefixSearch() {
+        return index.search(new MenuSearchIndex.Query("chi", null, null, null, true, 50));
+    }
+
+    @Benchmark
+    public MenuSearchIndex.Result fuzzySearchWithFilters() {
+        return index.search(new MenuSearchIndex.Query("chiken masla", NO_NUTS_NO_DAIRY, "Main Course", null, true, 50));
+    }
+
+    @Benchmark
+    public MenuSearchIndex rebuildAfterEdit() {
+        return index.with(edited);
+    }
+}
@@ -0,0 +1,65 @@
+package com.smartmenu.benchmarks;
+
+import com.smartmenu.model.Order;
+import com.smartmenu.model.Table;
+import com.smartmenu.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * placeOrder without the database: cart -> Order, totals, order number
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class OrderBenchmark {
+
+    // Cart lines: a coffee, a family dinner, a big group
+    @Param({"1", "5", "20"})
+    private int cartLines;
+
+    private OrderService orderService;
+    private Table table;
+    private List<Map<String, Object>> cart;
+    private List<Order.OrderItem> orderItems;
+
+    @Setup
+    public void setup() {
+        orderService = new OrderService();
+        table = BenchmarkData.table();
+        cart = BenchmarkData.cart(BenchmarkData.menu(200), cartLines);
+        orderItems = orderService.buildOrder(table, "device-1", null, cart).getItems();
+    }
+
+    @Benchmark
+    public Order buildOrder() {
+        return orderService.buildOrder(table, "device-1", "Asha", cart);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotal() {
+        return orderService.calculateTotal(orderItems);
+    }
+
+    @Benchmark
+    public String generateOrderNumber() {
+        return orderService.generateOrderNumber();
+    }
+}
@@ -0,0 +1,64 @@
+package com.smartmenu.benchmarks;
+
+import com.smartmenu.service.QrCodeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QR rendering: one table code (PNG / SVG) and a 500-room hotel in parallel
+ * (GET /api/tables/qr-codes). The cache is disabled so every call renders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class QrCodeBenchmark {
+
+    private QrCodeService qrCodeService;
+    private List<String> hotel;
+
+    @Setup
+    public void setup() {
+        qrCodeService = new QrCodeService(new SimpleMeterRegistry(), "https://smartmenu.example.com", 0, 0);
+        hotel = new ArrayList<>();
+        for (int room = 0; room < 500; room++) {
+            hotel.add("https://smartmenu.example.com/customer-menu?table=65a1f0c2e4b0a1b2c3d4" + String.format("%04d", room));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        qrCodeService.shutdown();
+    }
+
+    @Benchmark
+    public byte[] renderPng() {
+        return qrCodeService.render(hotel.get(0), QrCodeService.Format.PNG, 300).bytes();
+    }
+
+    @Benchmark
+    public byte[] renderSvg() {
+        return qrCodeService.render(hotel.get(0), QrCodeService.Format.SVG, 300).bytes();
+    }
+
+    @Benchmark
+    public int renderHotel500Png() {
+        return qrCodeService.renderAll(hotel, QrCodeService.Format.PNG, 300).size();
+    }
+}
@@ -0,0 +1,182 @@
+package com.smartmenu.datagen;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.smartmenu.model.CustomerSession;
+import com.smartmenu.model.Feedback;
+import com.smartmenu.model.MenuItem;
+import com.smartmenu.model.Order;
+import com.smartmenu.model.Table;
+import com.smartmenu.model.User;
+import com.smartmenu.model.UserRole;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SmartMenu data generator - production-sized, multi-tenant data straight into MongoDB
+ *
+ * Replaces the curl-based scripts/populate-*.sh (a handful of records through
+ * the API) for performance work: index choices, pagination and reports only
+ * show their real behavior with millions of documents.
+ *
+ * What you get (defaults):
+ *   50 restaurants (owner accounts, password "password123"), 20 tables and 60
+ *   menu items each, 1,000,000 orders over 180 days, feedback on ~20% of
+ *   completed orders, one customer session per device.
+ *
+ * Realism:
+ *   - restaurant size is skewed (a few big restaurants, many small ones)
+ *   - dish popularity is Zipf-distributed (a few dishes in most orders)
+ *   - lunch and dinner peaks, returning customers, mostly-happy ratings
+ *
+ * Same --seed and --end-date = identical data (ids included), whatever --threads is.
+ * Except with --owner-username: that account's data is added to, not replaced
+ * (see owners()), so its ids differ on every run.
+ *
+ * Usage:
+ *   cd backend && mvn -B install -DskipTests && cd ../datagen && mvn -B package
+ *   java -jar target/datagen.jar --uri=mongodb://localhost:27017/smartmenu --orders=5000000
+ */
+public final class DataGenerator {
+
+    private static final String PASSWORD = "password123";
+
+    public static void main(String[] args) throws Exception {
+        GeneratorOptions options = GeneratorOptions.fromArgs(args);
+        System.out.println("Options: " + options);
+
+        ConnectionString connectionString = new ConnectionString(options.uri());
+        String database = connectionString.getDatabase() != null ? connectionString.getDatabase() : "smartmenu";
+
+        try (MongoClient client = MongoClients.create(connectionString)) {
+            MongoTemplate mongoTemplate = new MongoTemplate(client, database);
+            new DataGenerator().generate(options, mongoTemplate);
+        }
+    }
+
+    private void generate(GeneratorOptions options, MongoTemplate mongoTemplate) throws Exception {
+        long startNanos = System.nanoTime();
+        List<String> tenantIds = owners(options, mongoTemplate);
+        // Appending to an existing account: new ids every run, or a second run collides with the first
+        long ownerRun = options.ownerUsername().isEmpty() ? 0 : System.currentTimeMillis();
+
+        // Split the orders over tenants with a skew: tenant 0 is the busiest
+        Zipf tenantSize = new Zipf(options.tenants(), 0.8);
+        long assigned = 0;
+        long[] ordersPerTenant = new long[options.tenants()];
+        for (int t = 0; t < options.tenants(); t++) {
+            ordersPerTenant[t] = t == options.tenants() - 1
+                    ? options.orders() - assigned
+                    : Math.round(options.orders() * tenantSize.weight(t));
+            assigned += ordersPerTenant[t];
+        }
+
+        AtomicLong ordersWritten = new AtomicLong();
+        AtomicLong documentsWritten = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads());
+        List<Future<?>> tasks = new ArrayList<>();
+        // Biggest tenants first, so one huge tenant doesn't start last and run alone
+        for (int t = 0; t < options.tenants(); t++) {
+            long run = t == 0 ? ownerRun : 0;
+            tasks.add(executor.submit(new TenantGenerator(options, mongoTemplate, t, tenantIds.get(t), run,
+                    ordersPerTenant[t], ordersWritten, documentsWritten)));
+        }
+        executor.shutdown();
+
+        while (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            System.out.printf("  %,d / %,d orders (%,.0f docs/s)%n",
+                    ordersWritten.get(), options.orders(), documentsWritten.get() / seconds);
+        }
+        for (Future<?> task : tasks) {
+            task.get();  // Surface any failure
+        }
+
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("✅ %,d documents (%,d orders) in %.1fs - %,.0f docs/s%n",
+                documentsWritten.get(), ordersWritten.get(), seconds, documentsWritten.get() / seconds);
+        System.out.println("   Log in as gen" + options.seed() + "t0 (busiest restaurant) / " + PASSWORD);
+        System.out.println("   Start the backend to build indexes (IndexManagementService).");
+    }
+
+    /**
+     * Create the owner accounts (ids derived from the seed) and clear anything a
+     * previous run with the same seed generated for them
+     *
+     * An existing --owner-username account is never cleared: it has its own, hand-made
+     * data, which can't be told apart from ours. Its tenant appends instead - its
+     * existing tables and menu are reused, and its orders, feedback and sessions
+     * get ids from a per-run random (TenantGenerator), so runs don't collide.
+     */
+    private List<String> owners(GeneratorOptions options, MongoTemplate mongoTemplate) {
+        Random random = new Random(options.seed());
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+        LocalDateTime createdAt = options.endDate().minusDays(options.days()).atStartOfDay();
+
+        List<String> tenantIds = new ArrayList<>();
+        List<User> owners = new ArrayList<>();
+        for (int t = 0; t < options.tenants(); t++) {
+            byte[] bytes = new byte[12];
+            random.nextBytes(bytes);
+            int seconds = (int) createdAt.toEpochSecond(ZoneOffset.UTC);
+            bytes[0] = (byte) (seconds >>> 24);
+            bytes[1] = (byte) (seconds >>> 16);
+            bytes[2] = (byte) (seconds >>> 8);
+            bytes[3] = (byte) seconds;
+            String id = new ObjectId(bytes).toHexString();
+
+            if (t == 0 && !options.ownerUsername().isEmpty()) {
+                User existing = mongoTemplate.findOne(
+                        Query.query(Criteria.where("username").is(options.ownerUsername())), User.class);
+                if (existing == null) {
+                    throw new IllegalArgumentException("No user named " + options.ownerUsername());
+                }
+                tenantIds.add(existing.getId());  // Add to this account; its existing data is kept
+                continue;
+            }
+
+            User owner = new User();
+            owner.setId(id);
+            owner.setUsername("gen" + options.seed() + "t" + t);
+            owner.setEmail(owner.getUsername() + "@datagen.local");
+            owner.setPassword(hash);
+            owner.setRestaurantName("Generated Restaurant " + t);
+            owner.setRole(UserRole.RESTAURANT_OWNER);
+            owner.setActive(true);
+            owner.setCreatedAt(createdAt);
+            owner.setUpdatedAt(createdAt);
+            owners.add(owner);
+            tenantIds.add(id);
+        }
+
+        // Re-running with the same seed replaces that seed's data instead of duplicating it
+        List<String> generatedIds = owners.stream().map(User::getId).toList();
+        Query previous = Query.query(Criteria.where("userId").in(generatedIds));
+        for (Class<?> type : List.of(Table.class, MenuItem.class, Order.class, Feedback.class, CustomerSession.class)) {
+            mongoTemplate.remove(previous, type);
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(generatedIds.stream().map(ObjectId::new).toList())),
+                User.class);
+
+        if (!owners.isEmpty()) {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class).insert(owners).execute();
+        }
+        return tenantIds;
+    }
+}
@@ -0,0 +1,74 @@
+package com.smartmenu.datagen;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Data generator options, passed as --name=value
+ *
+ * @param uri               MongoDB connection string (database taken from it, default "smartmenu")
+ * @param tenants           restaurants to generate
+ * @param orders            orders in total, spread unevenly over the tenants
+ * @param tables            tables per tenant
+ * @param menuItems         menu items per tenant
+ * @param days              history length; orders fall between endDate - days and endDate
+ * @param endDate           last day of history (default today, so the data is as fresh as the app
+ *                          expects; pass it to get the same data again)
+ * @param feedbackRatio     share of completed orders that get feedback
+ * @param seed              random seed
+ * @param threads           tenants generated in parallel
+ * @param batchSize         documents per bulk insert
+ * @param ownerUsername     add tenant 0's data to this existing account instead of a new one
+ */
+record GeneratorOptions(
+        String uri,
+        int tenants,
+        long orders,
+        int tables,
+        int menuItems,
+        int days,
+        LocalDate endDate,
+        double feedbackRatio,
+        long seed,
+        int threads,
+        int batchSize,
+        String ownerUsername
+) {
+
+    static GeneratorOptions fromArgs(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        GeneratorOptions options = new GeneratorOptions(
+                take(values, "uri", "mongodb://localhost:27017/smartmenu"),
+                Integer.parseInt(take(values, "tenants", "50")),
+                Long.parseLong(take(values, "orders", "1000000")),
+                Integer.parseInt(take(values, "tables", "20")),
+                Integer.parseInt(take(values, "menu-items", "60")),
+                Integer.parseInt(take(values, "days", "180")),
+                LocalDate.parse(take(values, "end-date", LocalDate.now().toString())),
+                Double.parseDouble(take(values, "feedback-ratio", "0.2")),
+                Long.parseLong(take(values, "seed", "42")),
+                Integer.parseInt(take(values, "threads", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                Integer.parseInt(take(values, "batch-size", "5000")),
+                take(values, "owner-username", "")
+        );
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        return options;
+    }
+
+    private static String take(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value != null ? value : defaultValue;
+    }
+}
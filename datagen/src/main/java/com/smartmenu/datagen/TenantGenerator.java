@@ -0,0 +1,373 @@
+package com.smartmenu.datagen;
+
+import com.smartmenu.model.CustomerSession;
+import com.smartmenu.model.Feedback;
+import com.smartmenu.model.MenuItem;
+import com.smartmenu.model.Order;
+import com.smartmenu.model.Table;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates one restaurant's data: tables, menu, orders, feedback, sessions
+ *
+ * Everything comes from one Random seeded with (seed, tenant index), so the
+ * output doesn't depend on which thread runs it or in which order.
+ * Orders are streamed in batches - memory stays flat no matter how many.
+ *
+ * With a run id (appending to an existing account, --owner-username) the run id
+ * is mixed into the seed and the device ids, and the account's own tables and
+ * menu are used if it has any: each run adds orders, feedback and sessions.
+ */
+final class TenantGenerator implements Runnable {
+
+    private static final DateTimeFormatter ORDER_NUMBER_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final String[] CATEGORIES = {"Appetizer", "Main Course", "Dessert", "Drinks", "Sides", "Breakfast"};
+    private static final String[] ALLERGENS = {"nuts", "dairy", "gluten", "eggs", "soy", "shellfish"};
+    private static final String[] DISH_WORDS = {
+            "Grilled", "Chicken", "Pilau", "Spicy", "Coconut", "Beef", "Mishkaki", "Chips", "Fresh", "Mango",
+            "Juice", "Ugali", "Fish", "Chapati", "Beans", "Rice", "Salad", "Chai", "Masala", "Samosa",
+            "Mandazi", "Biryani", "Octopus", "Banana", "Avocado", "Lemon", "Ginger", "Tilapia", "Kachumbari", "Soup"
+    };
+    private static final String[] NAMES = {"Asha", "Baraka", "Neema", "Juma", "Rehema", "Daudi", "Zawadi", "Omari"};
+    private static final String[] COMMENTS = {
+            "Great food!", "A bit slow tonight", "Loved the pilau", "Too salty", "Will come again",
+            "Friendly staff", "Cold when it arrived", "Best chips in town", null, null
+    };
+    // Rating 1..5 - most customers are happy, a few are not
+    private static final double[] RATING_CDF = {0.05, 0.12, 0.27, 0.60, 1.0};
+    // Hour of day an order is placed: breakfast, lunch peak, dinner peak
+    private static final double[] HOUR_WEIGHTS = {
+            0, 0, 0, 0, 0, 0, 1, 3, 4, 2, 2, 4, 9, 10, 6, 3, 3, 5, 9, 11, 10, 7, 4, 1
+    };
+
+    private final GeneratorOptions options;
+    private final MongoTemplate mongoTemplate;
+    private final int tenantIndex;
+    private final String userId;
+    private final long run;
+    private final long orderCount;
+    private final AtomicLong ordersWritten;
+    private final AtomicLong documentsWritten;
+    private final Random random;
+
+    /**
+     * @param run 0 for a generated tenant (same seed = same data), otherwise unique per run
+     */
+    TenantGenerator(GeneratorOptions options, MongoTemplate mongoTemplate, int tenantIndex, String userId, long run,
+                    long orderCount, AtomicLong ordersWritten, AtomicLong documentsWritten) {
+        this.options = options;
+        this.mongoTemplate = mongoTemplate;
+        this.tenantIndex = tenantIndex;
+        this.userId = userId;
+        this.run = run;
+        this.orderCount = orderCount;
+        this.ordersWritten = ordersWritten;
+        this.documentsWritten = documentsWritten;
+        this.random = new Random(options.seed() * 1_000_003L + tenantIndex + run);
+    }
+
+    @Override
+    public void run() {
+        LocalDateTime end = options.endDate().plusDays(1).atStartOfDay();
+        LocalDateTime start = end.minusDays(options.days());
+
+        Query own = Query.query(Criteria.where("userId").is(userId));
+        List<Table> tables = run != 0 ? mongoTemplate.find(own, Table.class) : List.of();
+        List<MenuItem> menu = run != 0 ? mongoTemplate.find(own, MenuItem.class) : List.of();
+        if (tables.isEmpty()) {
+            tables = tables(start);
+            insert(tables, Table.class);
+        }
+        if (menu.isEmpty()) {
+            menu = menu(start, end);
+            insert(menu, MenuItem.class);
+        }
+
+        // Returning customers: a pool of devices, a few of which come back often
+        int deviceCount = (int) Math.max(1, Math.min(Integer.MAX_VALUE - 8, orderCount / 3));
+        Zipf devicePopularity = new Zipf(deviceCount, 0.8);
+        Zipf itemPopularity = new Zipf(menu.size(), 1.07);
+        Devices devices = new Devices(deviceCount);
+
+        List<Order> orders = new ArrayList<>(options.batchSize());
+        List<Feedback> feedback = new ArrayList<>();
+        long spanDays = Duration.between(start, end).toDays();
+
+        for (long n = 0; n < orderCount; n++) {
+            LocalDateTime createdAt = orderTime(start, spanDays);
+            Table table = tables.get(random.nextInt(tables.size()));
+            int device = devicePopularity.sample(random);
+            devices.visit(device, table, createdAt);
+
+            Order order = order(createdAt, table, device, menu, itemPopularity, end);
+            orders.add(order);
+
+            if (order.getStatus() == Order.OrderStatus.COMPLETED && random.nextDouble() < options.feedbackRatio()) {
+                feedback.add(feedback(order));
+            }
+            if (orders.size() == options.batchSize()) {
+                insert(orders, Order.class);
+                ordersWritten.addAndGet(orders.size());
+                orders = new ArrayList<>(options.batchSize());
+            }
+            if (feedback.size() == options.batchSize()) {
+                insert(feedback, Feedback.class);
+                feedback = new ArrayList<>();
+            }
+        }
+        insert(orders, Order.class);
+        ordersWritten.addAndGet(orders.size());
+        insert(feedback, Feedback.class);
+
+        insertSessions(devices, start);
+    }
+
+    // ========== TABLES & MENU ==========
+
+    private List<Table> tables(LocalDateTime createdAt) {
+        List<Table> tables = new ArrayList<>();
+        for (int t = 0; t < options.tables(); t++) {
+            Table table = new Table();
+            table.setId(id(createdAt));
+            table.setUserId(userId);
+            table.setTableNumber(t < options.tables() - 2 ? String.valueOf(t + 1) : "Room " + (t + 1));
+            table.setRoom(t >= options.tables() - 2);
+            table.setLocation(t % 2 == 0 ? "Indoor" : "Terrace");
+            table.setQrCodeId(new UUID(random.nextLong(), random.nextLong()).toString());
+            table.setQrCodeUrl("http://localhost:5173/customer-menu?table=" + table.getId());
+            table.setActive(true);
+            table.setCreatedAt(createdAt);
+            tables.add(table);
+        }
+        return tables;
+    }
+
+    private List<MenuItem> menu(LocalDateTime start, LocalDateTime end) {
+        List<MenuItem> menu = new ArrayList<>();
+        for (int i = 0; i < options.menuItems(); i++) {
+            MenuItem item = new MenuItem();
+            item.setId(id(start));
+            item.setUserId(userId);
+            item.setName(DISH_WORDS[random.nextInt(DISH_WORDS.length)] + " "
+                    + DISH_WORDS[random.nextInt(DISH_WORDS.length)] + " " + (i + 1));
+            item.setDescription("House special with " + DISH_WORDS[random.nextInt(DISH_WORDS.length)].toLowerCase()
+                    + " and " + DISH_WORDS[random.nextInt(DISH_WORDS.length)].toLowerCase());
+            // Prices in TZS, rounded to 500
+            item.setPrice(BigDecimal.valueOf(1_000 + 500L * random.nextInt(60)));
+            item.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            item.setImageUrl("");
+            item.setAvailable(random.nextInt(12) != 0);
+            List<String> allergens = new ArrayList<>();
+            for (String allergen : ALLERGENS) {
+                if (random.nextInt(5) == 0) {
+                    allergens.add(allergen);
+                }
+            }
+            item.setAllergens(allergens);
+            item.setPrepTimeMinutes(5 + random.nextInt(40));
+            item.setFeatured(random.nextInt(10) == 0);
+            item.setCreatedAt(start);
+            item.setUpdatedAt(start.plusDays(random.nextInt((int) Math.max(1, Duration.between(start, end).toDays()))));
+            item.setVersion(0L);  // Bulk insert doesn't initialize @Version; the app's saves need it
+            menu.add(item);
+        }
+        return menu;
+    }
+
+    // ========== ORDERS ==========
+
+    private LocalDateTime orderTime(LocalDateTime start, long spanDays) {
+        // Business grows: later days get a few more orders (sqrt skews towards the end)
+        long day = Math.min(spanDays - 1, (long) (spanDays * Math.sqrt(random.nextDouble())));
+        int hour = weightedHour();
+        return start.plusDays(day).plusHours(hour).plusMinutes(random.nextInt(60)).plusSeconds(random.nextInt(60));
+    }
+
+    private int weightedHour() {
+        double total = 0;
+        for (double weight : HOUR_WEIGHTS) {
+            total += weight;
+        }
+        double pick = random.nextDouble() * total;
+        for (int hour = 0; hour < HOUR_WEIGHTS.length; hour++) {
+            pick -= HOUR_WEIGHTS[hour];
+            if (pick < 0) {
+                return hour;
+            }
+        }
+        return 19;
+    }
+
+    private Order order(LocalDateTime createdAt, Table table, int device, List<MenuItem> menu, Zipf popularity,
+                        LocalDateTime end) {
+        Order order = new Order();
+        order.setId(id(createdAt));
+        order.setUserId(userId);
+        order.setTableId(table.getId());
+        order.setTableNumber(table.getTableNumber());
+        order.setDeviceId(deviceId(device));
+        order.setCustomerName(random.nextInt(3) == 0 ? NAMES[random.nextInt(NAMES.length)] : null);
+        order.setOrderNumber("ORD" + createdAt.format(ORDER_NUMBER_FORMAT) + String.format("%03d", random.nextInt(1000)));
+
+        List<Order.OrderItem> items = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        int lines = 1 + Math.min(4, (int) Math.abs(random.nextGaussian() * 1.5));
+        for (int i = 0; i < lines; i++) {
+            MenuItem menuItem = menu.get(popularity.sample(random));
+            Order.OrderItem item = new Order.OrderItem();
+            item.setMenuItemId(menuItem.getId());
+            item.setMenuItemName(menuItem.getName());
+            item.setPrice(menuItem.getPrice());
+            item.setQuantity(1 + (random.nextInt(10) == 0 ? random.nextInt(4) : 0));
+            item.setSpecialInstructions(random.nextInt(8) == 0 ? "No onions" : null);
+            items.add(item);
+            total = total.add(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        order.setItems(items);
+        order.setSubtotal(total);
+        order.setTotal(total);
+
+        // Orders from the last 2 hours of history are still in the kitchen
+        if (createdAt.isAfter(end.minusHours(2))) {
+            order.setStatus(Order.OrderStatus.values()[random.nextInt(4)]);  // PENDING..READY
+            order.setUpdatedAt(createdAt);
+        } else if (random.nextInt(25) == 0) {
+            order.setStatus(Order.OrderStatus.CANCELLED);
+            order.setUpdatedAt(createdAt.plusMinutes(2 + random.nextInt(10)));
+        } else {
+            LocalDateTime completedAt = createdAt.plusMinutes(15 + random.nextInt(45));
+            order.setStatus(Order.OrderStatus.COMPLETED);
+            order.setCompletedAt(completedAt);
+            order.setUpdatedAt(completedAt);
+        }
+        order.setCreatedAt(createdAt);
+        return order;
+    }
+
+    private Feedback feedback(Order order) {
+        Feedback feedback = new Feedback();
+        LocalDateTime createdAt = order.getCompletedAt().plusMinutes(1 + random.nextInt(30));
+        feedback.setId(id(createdAt));
+        feedback.setUserId(userId);
+        feedback.setOrderId(order.getId());
+        feedback.setOrderNumber(order.getOrderNumber());
+        feedback.setTableNumber(order.getTableNumber());
+        feedback.setTotalAmount(order.getTotal().setScale(2, RoundingMode.HALF_UP).doubleValue());
+        double pick = random.nextDouble();
+        int rating = 1;
+        while (pick > RATING_CDF[rating - 1]) {
+            rating++;
+        }
+        feedback.setRating(rating);
+        feedback.setComments(COMMENTS[random.nextInt(COMMENTS.length)]);
+        feedback.setCreatedAt(createdAt);
+        return feedback;
+    }
+
+    // ========== SESSIONS ==========
+
+    private void insertSessions(Devices devices, LocalDateTime start) {
+        List<CustomerSession> sessions = new ArrayList<>(options.batchSize());
+        for (int device = 0; device < devices.visitCount.length; device++) {
+            if (devices.visitCount[device] == 0) {
+                continue;
+            }
+            LocalDateTime first = LocalDateTime.ofEpochSecond(devices.firstVisit[device], 0, ZoneOffset.UTC);
+            LocalDateTime last = LocalDateTime.ofEpochSecond(devices.lastVisit[device], 0, ZoneOffset.UTC);
+
+            CustomerSession session = new CustomerSession();
+            session.setId(id(first));
+            session.setDeviceId(deviceId(device));
+            session.setTableId(devices.lastTable[device]);
+            session.setUserId(userId);
+            session.setCustomerName(random.nextInt(4) == 0 ? NAMES[random.nextInt(NAMES.length)] : null);
+            session.setVisitCount(devices.visitCount[device]);
+            session.setFirstVisit(first);
+            session.setLastVisit(last);
+            session.setCreatedAt(first);
+            session.setUpdatedAt(last);
+            sessions.add(session);
+
+            if (sessions.size() == options.batchSize()) {
+                insert(sessions, CustomerSession.class);
+                sessions = new ArrayList<>(options.batchSize());
+            }
+        }
+        insert(sessions, CustomerSession.class);
+    }
+
+    /**
+     * Per-device visit stats, kept in arrays (millions of devices, no objects)
+     */
+    private static final class Devices {
+        final int[] visitCount;
+        final long[] firstVisit;
+        final long[] lastVisit;
+        final String[] lastTable;
+
+        Devices(int count) {
+            visitCount = new int[count];
+            firstVisit = new long[count];
+            lastVisit = new long[count];
+            lastTable = new String[count];
+        }
+
+        void visit(int device, Table table, LocalDateTime at) {
+            long epoch = at.toEpochSecond(ZoneOffset.UTC);
+            if (visitCount[device] == 0 || epoch < firstVisit[device]) {
+                firstVisit[device] = epoch;
+            }
+            if (epoch >= lastVisit[device]) {
+                lastVisit[device] = epoch;
+                lastTable[device] = table.getId();
+            }
+            visitCount[device]++;
+        }
+    }
+
+    // ========== HELPERS ==========
+
+    private String deviceId(int device) {
+        String prefix = run != 0 ? "gen-" + options.seed() + "-" + run : "gen-" + options.seed();
+        return prefix + "-" + tenantIndex + "-" + device;
+    }
+
+    /**
+     * Deterministic ObjectId: timestamp part = the document's own date, rest from the seed
+     */
+    private String id(LocalDateTime at) {
+        byte[] bytes = new byte[12];
+        random.nextBytes(bytes);
+        int seconds = (int) at.toEpochSecond(ZoneOffset.UTC);
+        bytes[0] = (byte) (seconds >>> 24);
+        bytes[1] = (byte) (seconds >>> 16);
+        bytes[2] = (byte) (seconds >>> 8);
+        bytes[3] = (byte) seconds;
+        return new ObjectId(bytes).toHexString();
+    }
+
+    private <T> void insert(List<T> documents, Class<T> type) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        // Unordered: the server may apply the batch in parallel
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type).insert(documents).execute();
+        documentsWritten.addAndGet(documents.size());
+    }
+}
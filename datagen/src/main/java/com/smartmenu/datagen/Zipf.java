@@ -0,0 +1,38 @@
+package com.smartmenu.datagen;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Zipf distribution over 0..n-1: item 0 is the most popular, item 1 half as
+ * popular (for exponent 1), and so on. Real menus look like this - a few dishes
+ * sell all the time, most rarely.
+ */
+final class Zipf {
+
+    private final double[] cdf;
+
+    Zipf(int n, double exponent) {
+        cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    int sample(Random random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+
+    /**
+     * Share of the total that falls on item i
+     */
+    double weight(int i) {
+        return i == 0 ? cdf[0] : cdf[i] - cdf[i - 1];
+    }
+}
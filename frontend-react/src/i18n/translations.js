@@ -156,6 +156,7 @@ export const translations = {
     manageQRCodes: 'Manage QR Codes',
     noTables: 'No tables/rooms added yet.',
     printSelectedQRCodes: 'Print Selected QR Codes',
+    downloadQRCodesZip: 'Download QR Codes (ZIP)',
     viewQR: 'View',
     tableTypeRoom: 'Room',
     tableTypeTable: 'Table',
@@ -373,6 +374,7 @@ export const translations = {
     manageQRCodes: 'Simamia Msimbo wa QR',
     noTables: 'Hakuna meza/vyumba vilivyoongezwa bado.',
     printSelectedQRCodes: 'Chapisha Msimbo wa QR Uliochaguliwa',
+    downloadQRCodesZip: 'Pakua Misimbo ya QR (ZIP)',
     viewQR: 'Ona',
     tableTypeRoom: 'Chumba',
     tableTypeTable: 'Meza',
@@ -590,6 +592,7 @@ export const translations = {
     manageQRCodes: 'Gérer les Codes QR',
     noTables: 'Aucune table/salle ajoutée pour l\'instant.',
     printSelectedQRCodes: 'Imprimer les Codes QR Sélectionnés',
+    downloadQRCodesZip: 'Télécharger les Codes QR (ZIP)',
     viewQR: 'Voir',
     tableTypeRoom: 'Salle',
     tableTypeTable: 'Table',
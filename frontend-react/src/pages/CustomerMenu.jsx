@@ -51,24 +51,19 @@ function CustomerMenu() {
         try {
             setLoading(true);
             
-            // Load menu
-            const menuResponse = await axios.get(
-                `http://localhost:8080/api/public/menu/${tableId}?deviceId=${deviceId}`
+            // Load table, menu and session in one request
+            const scanResponse = await axios.get(
+                `http://localhost:8080/api/public/scan/${tableId}?deviceId=${deviceId}`
             );
             
             setTableInfo({
-                tableId: menuResponse.data.tableId,
-                tableNumber: menuResponse.data.tableNumber
+                tableId: scanResponse.data.table.id,
+                tableNumber: scanResponse.data.table.tableNumber
             });
-            setMenuItems(menuResponse.data.menuItems || []);
+            setMenuItems(scanResponse.data.menuItems || []);
             
-            // Check existing session
-            const sessionResponse = await axios.get(
-                `http://localhost:8080/api/public/session/${deviceId}`
-            );
-            
-            if (sessionResponse.data.isReturningCustomer) {
-                setSession(sessionResponse.data);
+            if (scanResponse.data.session.isReturningCustomer) {
+                setSession(scanResponse.data.session);
                 setShowWelcome(true);
                 setTimeout(() => setShowWelcome(false), 5000);
             }
@@ -336,7 +331,10 @@ function MenuItem({ item, onAddToCart }) {
             <div className="menu-item-image">
                 {item.imageUrl ? (
                     <img 
-                        src={item.imageUrl} 
+                        src={item.imageVariants?.card || item.imageUrl} 
+                        srcSet={item.imageVariants ? `${item.imageVariants.thumb} 160w, ${item.imageVariants.card} 480w, ${item.imageVariants.full} 1200w` : undefined}
+                        sizes={item.imageVariants ? '(max-width: 600px) 50vw, 300px' : undefined}
+                        loading="lazy"
                         alt={item.name}
                         onError={(e) => {
                             e.target.style.display = 'none';
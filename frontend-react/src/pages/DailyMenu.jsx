@@ -12,7 +12,7 @@
 
 import { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
-import api, { getUserData, isLoggedIn } from '../services/api';
+import api, { getUserData, isLoggedIn, syncMenuItems } from '../services/api';
 import { useLanguage } from '../i18n/LanguageContext';
 import Sidebar from '../components/Sidebar';
 import Navbar from '../components/Navbar';
@@ -74,8 +74,7 @@ function DailyMenu() {
     const loadAllMenuItems = async () => {
         try {
             // Real API call - gets all menu items for the logged-in user
-            const response = await api.get('/menu-items');
-            setAllMenuItems(response.data);
+            setAllMenuItems(await syncMenuItems());
         } catch (err) {
             console.error('Error loading menu items:', err);
             setError('Failed to load menu items');
@@ -90,10 +89,10 @@ function DailyMenu() {
             // For now, show all available menu items from the database
             // In the future, you can create a dedicated daily menu collection
             // that stores date-specific menus with special pricing
-            const response = await api.get('/menu-items');
+            const menuItems = await syncMenuItems();  // Only what changed since last time
             
             // Transform the data to match the expected format
-            const transformedItems = response.data.map(item => ({
+            const transformedItems = menuItems.map(item => ({
                 id: item.id,
                 menu_item_id: item.id,
                 item_name: item.name,
@@ -216,8 +215,8 @@ function DailyMenu() {
             const item = dailyMenuItems.find(i => i.id === id);
             if (!item) return;
             
-            // Update via API
-            await api.put(`/menu-items/${id}`, {
+            // Update via API (PATCH: only this field changes)
+            await api.patch(`/menu-items/${id}`, {
                 available: !item.is_available
             });
             
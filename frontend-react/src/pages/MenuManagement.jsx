@@ -91,9 +91,9 @@ function MenuManagement() {
             setLoading(true);
             
             // Real API call to get menu items
-            const api = (await import('../services/api')).default;
-            const response = await api.get('/menu-items');
-            setMenuItems(response.data);
+            // Only items changed since the last visit are downloaded
+            const { syncMenuItems } = await import('../services/api');
+            setMenuItems(await syncMenuItems());
             setError('');
         } catch (err) {
             setError('Failed to load menu items. Please try again.');
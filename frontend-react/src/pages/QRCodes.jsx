@@ -73,11 +73,38 @@ function QRCodes() {
     setTimeout(() => setSuccess(''), 3000);
   };
 
+  // Printable sheet (html) or ZIP of PNGs, streamed by the backend page by page.
+  // Selected tables only; nothing selected = the whole venue.
+  const handleExport = async (format) => {
+    const ids = Array.from(document.querySelectorAll('.table-checkbox:checked')).map(cb => cb.value);
+    if (tables.length === 0) { alert(t('noData')); return; }
+    // Open the print window now: browsers block window.open after an await
+    const printWindow = format === 'html' ? window.open('', '_blank', 'width=800,height=600') : null;
+    try {
+      const resp = await api.get('/tables/qr-codes/export', {
+        params: { format, ids: ids.length ? ids.join(',') : undefined },
+        responseType: 'blob'
+      });
+      const url = URL.createObjectURL(resp.data);
+      if (printWindow) {
+        printWindow.location.href = url;
+      } else {
+        const link = document.createElement('a');
+        link.href = url;
+        link.download = 'qr-codes.zip';
+        link.click();
+        setTimeout(() => URL.revokeObjectURL(url), 10000);
+      }
+    } catch (err) {
+      console.error('QR export error', err);
+      if (printWindow) printWindow.close();
+      setErrors(['Failed to export QR codes']);
+    }
+  };
+
   const generateQR = (id) => {
-    // Use the qrCodeUrl from the backend if available, otherwise construct full URL
-    const table = tables.find(t => String(t.id) === String(id));
-    const dataUrl = table?.qrCodeUrl || `${window.location.origin}/customer-menu?table=${id}`;
-    return `https://api.qrserver.com/v1/create-qr-code/?size=200x200&data=${encodeURIComponent(dataUrl)}`;
+    // Rendered by our backend (cached, ETag) instead of a third-party QR service
+    return `${api.defaults.baseURL}/public/table/${encodeURIComponent(id)}/qr?format=png&size=300`;
   };
 
   const toggleSidebar = () => setSidebarOpen(!sidebarOpen);
@@ -174,24 +201,12 @@ function QRCodes() {
               )}
 
               <div className="form-actions" style={{ marginTop: 12 }}>
-                <button className="btn btn-secondary" onClick={(e) => {
-                  e.preventDefault();
-                  // Print selected - open simple print window similar to PHP
-                  const selected = Array.from(document.querySelectorAll('.table-checkbox:checked'));
-                  if (selected.length === 0) { alert(t('noData')); return; }
-                  const printWindow = window.open('', '_blank', 'width=800,height=600');
-                  printWindow.document.write('<html><head><title>Print QR Codes</title>');
-                  printWindow.document.write('<style>body{font-family:Arial,Helvetica,sans-serif}.qr-container{display:inline-block;margin:20px;text-align:center}.qr-code{border:1px solid #ddd;padding:15px;background:#fff}.qr-code img{width:200px;height:200px}</style>');
-                  printWindow.document.write('</head><body>');
-                  selected.forEach(cb => {
-                    const row = cb.closest('tr');
-                    const number = row.querySelector('td:nth-child(2)').textContent;
-                    const img = row.querySelector('.qr-preview img').src;
-                    printWindow.document.write(`<div class="qr-container"><div class="qr-code"><img src="${img}"/></div><div class="qr-info">${number}</div></div>`);
-                  });
-                  printWindow.document.write('</body></html>');
-                  printWindow.document.close();
-                }}>{t('printSelectedQRCodes')}</button>
+                <button className="btn btn-secondary" onClick={(e) => { e.preventDefault(); handleExport('html'); }}>
+                  {t('printSelectedQRCodes')}
+                </button>
+                <button className="btn btn-secondary" style={{ marginLeft: 8 }} onClick={(e) => { e.preventDefault(); handleExport('zip'); }}>
+                  {t('downloadQRCodesZip')}
+                </button>
               </div>
             </div>
           </div>
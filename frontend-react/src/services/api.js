@@ -99,12 +99,75 @@ export const getCurrentUser = async () => {
 // ============================================================================
 
 /**
- * Get all menu items
- * GET /api/menu-items
+ * Get all menu items of the logged-in restaurant
+ * GET /api/menu-items?after=<cursor>  (pages of up to 200)
+ *
+ * Pass options.category to get one category only, and options.fields
+ * (e.g. ['name', 'price']) to get only those fields of each item.
  */
-export const getMenuItems = async () => {
-    const response = await api.get('/menu-items');
-    return response.data;
+export const getMenuItems = async ({ category, fields } = {}) => {
+    const items = [];
+    let after = null;
+    do {
+        const response = await api.get('/menu-items', {
+            params: {
+                limit: 200,
+                after: after || undefined,
+                category: category || undefined,
+                fields: fields ? fields.join(',') : undefined
+            }
+        });
+        items.push(...response.data.items);
+        after = response.data.nextCursor;
+    } while (after);
+    return items;
+};
+
+/**
+ * Get the logged-in restaurant's menu items, downloading only what changed
+ * GET /api/menu-items/changes?since=<version>
+ *
+ * TEACHING MOMENT:
+ * The last menu we got is kept in localStorage with its version number.
+ * Next time the server only sends the items changed since that version,
+ * plus the ids of deleted ones. If it can't tell what changed, it sends
+ * the whole menu (full: true) and we replace our copy.
+ */
+export const syncMenuItems = async () => {
+    const cacheKey = `menu_sync_${localStorage.getItem('user_id')}`;
+    let cached = null;
+    try {
+        cached = JSON.parse(localStorage.getItem(cacheKey));
+    } catch {
+        cached = null;
+    }
+
+    const response = await api.get('/menu-items/changes', {
+        params: cached ? { since: cached.version } : {}
+    });
+    const { version, full, items: changed, deleted } = response.data;
+
+    let items = changed;
+    if (!full && cached) {
+        const changedById = new Map(changed.map(item => [item.id, item]));
+        const removed = new Set(deleted);
+        // Keep the order we had; changed items replace theirs, new ones go last
+        items = cached.items
+            .filter(item => !removed.has(item.id))
+            .map(item => {
+                const latest = changedById.get(item.id);
+                changedById.delete(item.id);
+                return latest || item;
+            })
+            .concat([...changedById.values()]);
+    }
+
+    try {
+        localStorage.setItem(cacheKey, JSON.stringify({ version, items }));
+    } catch {
+        // Storage full: next time we just download the whole menu again
+    }
+    return items;
 };
 
 /**
@@ -0,0 +1,124 @@
+package com.smartmenu.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Small blocking JSON client for the backend API
+ *
+ * Blocking is fine: every simulated customer runs on its own virtual thread,
+ * so a waiting request costs a few KB of heap, not an OS thread.
+ */
+final class ApiClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final LatencyStats stats;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    ApiClient(String baseUrl, LatencyStats stats) {
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+    }
+
+    /**
+     * Response status (0 = no response) and parsed JSON body
+     */
+    record Response(int status, JsonNode body) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    /**
+     * Call the API and record latency under {@code endpoint}
+     *
+     * @param intendedNanos when the schedule wanted this request sent (System.nanoTime)
+     */
+    Response call(String endpoint, long intendedNanos, String method, String path, Object body, String token) {
+        HttpRequest request = build(method, path, body, token, null);
+        long sent = System.nanoTime();
+        Response response = send(request);
+        stats.record(endpoint, intendedNanos, sent, System.nanoTime(), response.status());
+        return response;
+    }
+
+    /**
+     * Call the API without recording (setup requests)
+     */
+    Response setup(String method, String path, Object body, String token, String forwardedFor) {
+        return send(build(method, path, body, token, forwardedFor));
+    }
+
+    /**
+     * True once the backend answers HTTP at all (any status)
+     */
+    boolean reachable() {
+        try {
+            http.send(build("GET", "/api/health", null, null, null), HttpResponse.BodyHandlers.discarding());
+            return true;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private HttpRequest build(String method, String path, Object body, String token, String forwardedFor) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        if (forwardedFor != null) {
+            builder.header("X-Forwarded-For", forwardedFor);
+        }
+        if (body == null) {
+            return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+        }
+        try {
+            return builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialize request body", e);
+        }
+    }
+
+    private Response send(HttpRequest request) {
+        try {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            byte[] bytes = response.body();
+            JsonNode json = bytes.length == 0 ? MissingNode.getInstance() : parse(bytes);
+            return new Response(response.statusCode(), json);
+        } catch (IOException e) {
+            return new Response(0, MissingNode.getInstance());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(0, MissingNode.getInstance());
+        }
+    }
+
+    private JsonNode parse(byte[] bytes) {
+        try {
+            return objectMapper.readTree(bytes);
+        } catch (IOException e) {
+            return MissingNode.getInstance();  // Not JSON (e.g. an HTML error page)
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.smartmenu.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histograms per endpoint
+ *
+ * TEACHING MOMENT - Coordinated omission
+ *
+ * A naive load tester measures "send -> response". If the server stalls for 2
+ * seconds, the tester stalls too and simply doesn't send the requests it should
+ * have sent during those 2 seconds - so the stall shows up as ONE slow request
+ * instead of hundreds. The tester "coordinated" with the server and omitted the
+ * bad samples.
+ *
+ * Fix: every request has an intended start time from the schedule. We record
+ * both:
+ *   - response time = response - INTENDED start   (what a real user would feel)
+ *   - service time  = response - ACTUAL send      (what the server spent)
+ * When the two diverge, the load generator was being held back.
+ *
+ * Values are stored in microseconds, up to 1 hour, 3 significant digits.
+ */
+final class LatencyStats {
+
+    private static final long HIGHEST_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long intendedNanos, long sentNanos, long doneNanos, int status) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.response.recordValue(clamp(doneNanos - intendedNanos));
+        stats.service.recordValue(clamp(doneNanos - sentNanos));
+        stats.statuses.computeIfAbsent(status, s -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Move everything recorded since the last call into the totals;
+     * returns this interval's response-time histograms (for progress lines)
+     */
+    Map<String, Histogram> roll() {
+        Map<String, Histogram> interval = new TreeMap<>();
+        endpoints.forEach((name, stats) -> {
+            Histogram response;
+            synchronized (stats) {
+                response = stats.response.getIntervalHistogram();
+                stats.totalResponse.add(response);
+                stats.totalService.add(stats.service.getIntervalHistogram());
+            }
+            interval.put(name, response);
+        });
+        return interval;
+    }
+
+    /**
+     * Print the final table, write one .hgrm file per endpoint and return the summary
+     */
+    Map<String, Object> report(PrintStream out, Path reportDir, double seconds) throws IOException {
+        roll();
+        Files.createDirectories(reportDir);
+
+        out.printf("%n%-20s %8s %8s %8s | %9s %9s %9s %9s %9s | %9s %9s%n",
+                "endpoint", "count", "req/s", "errors",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99", "svc max");
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            String name = entry.getKey();
+            Endpoint stats = entry.getValue();
+            Histogram response = stats.totalResponse;
+            Histogram service = stats.totalService;
+            long errors = stats.errors();
+
+            out.printf("%-20s %8d %8.1f %8d | %9.1f %9.1f %9.1f %9.1f %9.1f | %9.1f %9.1f%n",
+                    name, response.getTotalCount(), response.getTotalCount() / seconds, errors,
+                    ms(response.getValueAtPercentile(50)), ms(response.getValueAtPercentile(90)),
+                    ms(response.getValueAtPercentile(99)), ms(response.getValueAtPercentile(99.9)),
+                    ms(response.getMaxValue()),
+                    ms(service.getValueAtPercentile(99)), ms(service.getMaxValue()));
+
+            writeHgrm(reportDir.resolve(name + ".response.hgrm"), response);
+            writeHgrm(reportDir.resolve(name + ".service.hgrm"), service);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("count", response.getTotalCount());
+            row.put("requestsPerSecond", response.getTotalCount() / seconds);
+            row.put("errors", errors);
+            row.put("statuses", stats.statusCounts());
+            row.put("responseTimeMs", percentiles(response));
+            row.put("serviceTimeMs", percentiles(service));
+            summary.put(name, row);
+        }
+        out.println("\nresponse = from intended start (coordinated-omission corrected), svc = from actual send");
+        return summary;
+    }
+
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        values.put("p50", ms(histogram.getValueAtPercentile(50)));
+        values.put("p90", ms(histogram.getValueAtPercentile(90)));
+        values.put("p99", ms(histogram.getValueAtPercentile(99)));
+        values.put("p99.9", ms(histogram.getValueAtPercentile(99.9)));
+        values.put("max", ms(histogram.getMaxValue()));
+        values.put("mean", histogram.getMean() / 1000.0);
+        return values;
+    }
+
+    private static void writeHgrm(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1000.0);  // micros -> ms
+        }
+    }
+
+    private static long clamp(long nanos) {
+        return Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0), HIGHEST_MICROS);
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Endpoint {
+        final Recorder response = new Recorder(HIGHEST_MICROS, 3);
+        final Recorder service = new Recorder(HIGHEST_MICROS, 3);
+        final Histogram totalResponse = new Histogram(HIGHEST_MICROS, 3);
+        final Histogram totalService = new Histogram(HIGHEST_MICROS, 3);
+        final Map<Integer, AtomicLong> statuses = new ConcurrentHashMap<>();
+
+        // Anything that isn't 2xx (0 = connection error / timeout)
+        long errors() {
+            return statuses.entrySet().stream()
+                    .filter(e -> e.getKey() < 200 || e.getKey() >= 300)
+                    .mapToLong(e -> e.getValue().get())
+                    .sum();
+        }
+
+        Map<Integer, Long> statusCounts() {
+            Map<Integer, Long> counts = new TreeMap<>();
+            statuses.forEach((status, count) -> counts.put(status, count.get()));
+            return counts;
+        }
+    }
+}
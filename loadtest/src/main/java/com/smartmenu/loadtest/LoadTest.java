@@ -0,0 +1,398 @@
+package com.smartmenu.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * SmartMenu load test - replays a restaurant evening against the backend
+ *
+ * 1. Environment: starts an in-memory MongoDB stand-in and the backend jar
+ *    (unless --base-url / --mongo-uri point at real ones). Everything stays on
+ *    127.0.0.1, so it runs on one Linux box with no network.
+ * 2. Setup: N restaurants, each with M tables and a menu, through the normal API.
+ * 3. Load: customers arrive at --customers-per-second (Poisson). Each one, on its
+ *    own virtual thread:  scan -> browse the menu -> order -> poll status -> feedback.
+ *    Meanwhile each restaurant's staff refresh the order list and move orders
+ *    along PENDING -> CONFIRMED -> PREPARING -> READY -> COMPLETED.
+ * 4. Report: per-endpoint latency, corrected for coordinated omission (see LatencyStats).
+ *
+ * Usage:
+ *   cd backend && mvn -B package -DskipTests && cd ../loadtest && mvn -B package
+ *   java -jar target/loadtest.jar --restaurants=10 --customers-per-second=50 --duration=2m
+ */
+public final class LoadTest {
+
+    private static final String PASSWORD = "loadtest123";
+    private static final String[] CATEGORIES = {"Appetizer", "Main Course", "Dessert", "Drinks"};
+    private static final String[] NEXT_STATUS = {"PENDING", "CONFIRMED", "PREPARING", "READY", "COMPLETED"};
+
+    private final Scenario scenario;
+    private final LatencyStats stats = new LatencyStats();
+    private final AtomicLong customersStarted = new AtomicLong();
+    private final AtomicLong customersFinished = new AtomicLong();
+    private ApiClient api;
+    private volatile boolean staffRunning = true;
+
+    private LoadTest(Scenario scenario) {
+        this.scenario = scenario;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Scenario scenario = Scenario.fromArgs(args);
+        System.out.println("Scenario: " + scenario);
+        new LoadTest(scenario).run();
+    }
+
+    private record Restaurant(String id, String token, List<String> tableIds) {
+    }
+
+    private void run() throws Exception {
+        Files.createDirectories(scenario.reportDir());
+        MongoServer mongo = null;
+        Process backend = null;
+        try {
+            String baseUrl = scenario.baseUrl();
+            if (baseUrl.isEmpty()) {
+                String mongoUri = scenario.mongoUri();
+                if (mongoUri.isEmpty()) {
+                    mongo = new MongoServer(new MemoryBackend());
+                    InetSocketAddress address = mongo.bind();
+                    mongoUri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/smartmenu";
+                    System.out.println("🍃 In-memory MongoDB stand-in on " + address);
+                }
+                backend = startBackend(mongoUri);
+                baseUrl = "http://127.0.0.1:" + scenario.backendPort();
+            }
+
+            api = new ApiClient(baseUrl, stats);
+            waitForBackend(backend);
+
+            System.out.println("🏗️  Creating " + scenario.restaurants() + " restaurants...");
+            List<Restaurant> restaurants = setupRestaurants();
+
+            System.out.println("🚀 Running load for " + scenario.duration().toSeconds() + "s...");
+            long startNanos = System.nanoTime();
+            runLoad(restaurants);
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("scenario", scenario.toString());
+            summary.put("seconds", seconds);
+            summary.put("customersStarted", customersStarted.get());
+            summary.put("customersFinished", customersFinished.get());
+            summary.put("endpoints", stats.report(System.out, scenario.reportDir(), seconds));
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(scenario.reportDir().resolve("summary.json").toFile(), summary);
+            System.out.println("📄 Report written to " + scenario.reportDir().toAbsolutePath());
+        } finally {
+            if (backend != null) {
+                backend.destroy();
+                backend.waitFor(30, TimeUnit.SECONDS);
+            }
+            if (mongo != null) {
+                mongo.shutdownNow();
+            }
+        }
+    }
+
+    // ========== ENVIRONMENT ==========
+
+    private Process startBackend(String mongoUri) throws IOException {
+        if (!Files.exists(scenario.backendJar())) {
+            throw new IllegalStateException("Backend jar not found: " + scenario.backendJar()
+                    + " (run: cd backend && mvn -B package -DskipTests)");
+        }
+        ProcessBuilder builder = new ProcessBuilder(
+                "java", "-jar", scenario.backendJar().toString(),
+                "--server.port=" + scenario.backendPort());
+        builder.environment().put("MONGODB_URI", mongoUri);
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(scenario.reportDir().resolve("backend.log").toFile());
+        System.out.println("☕ Starting backend on port " + scenario.backendPort() + " (log: backend.log)");
+        return builder.start();
+    }
+
+    private void waitForBackend(Process backend) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (!api.reachable()) {
+            if (backend != null && !backend.isAlive()) {
+                throw new IllegalStateException("Backend exited during startup, see backend.log");
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Backend did not start within 2 minutes");
+            }
+            Thread.sleep(500);
+        }
+    }
+
+    // ========== SETUP ==========
+
+    private List<Restaurant> setupRestaurants() throws InterruptedException {
+        Restaurant[] restaurants = new Restaurant[scenario.restaurants()];
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int r = 0; r < restaurants.length; r++) {
+                int index = r;
+                executor.submit(() -> {
+                    restaurants[index] = setupRestaurant(index);
+                    return null;
+                });
+            }
+        }
+        for (Restaurant restaurant : restaurants) {
+            if (restaurant == null) {
+                throw new IllegalStateException("Restaurant setup failed, see messages above");
+            }
+        }
+        return List.of(restaurants);
+    }
+
+    private Restaurant setupRestaurant(int index) {
+        String username = "lt" + (scenario.seed() % 1000) + "r" + index;
+        // One fake client IP per restaurant, so the login throttle sees separate clients
+        String clientIp = "10.77." + (index / 256) + "." + (index % 256);
+
+        Map<String, Object> register = new HashMap<>();
+        register.put("username", username);
+        register.put("email", username + "@loadtest.local");
+        register.put("password", PASSWORD);
+        register.put("restaurantName", "Load Test Restaurant " + index);
+        api.setup("POST", "/api/auth/register", register, null, clientIp);  // "already taken" is fine on re-runs
+
+        ApiClient.Response login = api.setup("POST", "/api/auth/login",
+                Map.of("username", username, "password", PASSWORD), null, clientIp);
+        if (!login.ok()) {
+            System.err.println("❌ Login failed for " + username + ": HTTP " + login.status() + " " + login.body());
+            return null;
+        }
+        String token = login.body().path("token").asText();
+        String userId = login.body().path("id").asText();
+
+        Random random = new Random(scenario.seed() + index);
+        JsonNode existingItems = api.setup("GET", "/api/menu-items/user/" + userId, null, token, null).body();
+        for (int i = existingItems.size(); i < scenario.menuItems(); i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("userId", userId);
+            item.put("name", "Dish " + i);
+            item.put("description", "Load test dish number " + i);
+            item.put("price", 2.0 + random.nextInt(3000) / 100.0);
+            item.put("category", CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            item.put("available", true);
+            item.put("prepTimeMinutes", 5 + random.nextInt(30));
+            api.setup("POST", "/api/menu-items", item, token, null);
+        }
+
+        for (int t = 0; t < scenario.tablesPerRestaurant(); t++) {
+            api.setup("POST", "/api/tables", Map.of("tableNumber", "T" + t, "location", "Floor 1"), token, null);
+        }
+        List<String> tableIds = new ArrayList<>();
+        for (JsonNode table : api.setup("GET", "/api/tables", null, token, null).body()) {
+            tableIds.add(table.path("id").asText());
+        }
+        if (tableIds.isEmpty()) {
+            System.err.println("❌ No tables for " + username);
+            return null;
+        }
+        return new Restaurant(userId, token, tableIds);
+    }
+
+    // ========== LOAD ==========
+
+    private void runLoad(List<Restaurant> restaurants) throws InterruptedException {
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        progress.scheduleAtFixedRate(this::printProgress, 10, 10, TimeUnit.SECONDS);
+
+        ExecutorService staff = Executors.newVirtualThreadPerTaskExecutor();
+        long t0 = System.nanoTime();
+        for (Restaurant restaurant : restaurants) {
+            staff.submit(() -> staffLoop(restaurant, t0));
+        }
+
+        ExecutorService customers = Executors.newVirtualThreadPerTaskExecutor();
+        Random arrivals = new Random(scenario.seed());
+        long end = t0 + scenario.duration().toNanos();
+        long meanGapNanos = (long) (1e9 / scenario.customersPerSecond());
+        long intended = t0;
+        long customerIndex = 0;
+        while (intended < end) {
+            sleepUntil(intended);
+            long customer = customerIndex++;
+            long start = intended;
+            customers.submit(() -> customerJourney(customer, start, restaurants));
+            intended += exponential(arrivals, meanGapNanos);
+        }
+
+        // Let customers in the middle of their journey finish
+        customers.shutdown();
+        if (!customers.awaitTermination(scenario.drain().toMillis(), TimeUnit.MILLISECONDS)) {
+            System.out.println("⚠️  Drain time over, abandoning " + (customersStarted.get() - customersFinished.get())
+                    + " customers");
+            customers.shutdownNow();
+        }
+        staffRunning = false;
+        staff.shutdown();
+        staff.awaitTermination(30, TimeUnit.SECONDS);
+        progress.shutdownNow();
+    }
+
+    /**
+     * One customer: scan -> browse -> order -> poll -> (feedback)
+     *
+     * Each step's intended time = previous step's intended time + think time.
+     * If the backend is slow, later steps start late, and that lateness is
+     * counted in their response time (coordinated omission correction).
+     */
+    private void customerJourney(long customer, long intended, List<Restaurant> restaurants) {
+        customersStarted.incrementAndGet();
+        Random random = new Random(scenario.seed() * 31 + customer);
+        try {
+            // A few restaurants get most customers (skewed like real life)
+            Restaurant restaurant = restaurants.get((int) (restaurants.size() * Math.pow(random.nextDouble(), 2)));
+            String tableId = restaurant.tableIds().get(random.nextInt(restaurant.tableIds().size()));
+            String deviceId = "lt-device-" + scenario.seed() + "-" + customer;
+            long thinkNanos = scenario.thinkTime().toNanos();
+
+            ApiClient.Response scan = api.call("scan", intended, "GET",
+                    "/api/public/scan/" + tableId + "?deviceId=" + deviceId, null, null);
+            JsonNode menu = scan.body().path("menuItems");
+            if (!scan.ok() || menu.isEmpty()) {
+                return;
+            }
+
+            for (int i = 0; i < scenario.browseViews(); i++) {
+                intended = sleepUntil(intended + exponential(random, thinkNanos));
+                api.call("menu", intended, "GET", "/api/public/menu/" + tableId + "?deviceId=" + deviceId, null, null);
+            }
+
+            List<Map<String, Object>> items = new ArrayList<>();
+            int lines = 1 + random.nextInt(4);
+            for (int i = 0; i < lines; i++) {
+                JsonNode item = menu.get(random.nextInt(menu.size()));
+                Map<String, Object> line = new HashMap<>();
+                line.put("id", item.path("id").asText());
+                line.put("name", item.path("name").asText());
+                line.put("price", item.path("price").asDouble());
+                line.put("quantity", 1 + random.nextInt(3));
+                items.add(line);
+            }
+            Map<String, Object> order = new HashMap<>();
+            order.put("tableId", tableId);
+            order.put("deviceId", deviceId);
+            order.put("items", items);
+
+            intended = sleepUntil(intended + exponential(random, thinkNanos));
+            ApiClient.Response placed = api.call("order.place", intended, "POST", "/api/public/order", order, null);
+            String orderNumber = placed.body().path("orderNumber").asText(null);
+            if (!placed.ok() || orderNumber == null) {
+                return;
+            }
+
+            for (int i = 0; i < scenario.maxPolls(); i++) {
+                intended = sleepUntil(intended + scenario.pollInterval().toNanos());
+                ApiClient.Response status = api.call("order.status", intended, "GET",
+                        "/api/public/order/" + orderNumber, null, null);
+                String current = status.body().path("status").asText("");
+                if (current.equals("READY") || current.equals("COMPLETED")) {
+                    break;
+                }
+            }
+
+            if (random.nextDouble() < scenario.feedbackRatio()) {
+                intended = sleepUntil(intended + exponential(random, thinkNanos));
+                api.call("feedback", intended, "POST", "/api/public/feedback", Map.of(
+                        "orderNumber", orderNumber,
+                        "deviceId", deviceId,
+                        "rating", 1 + random.nextInt(5),
+                        "comments", "Load test feedback"), null);
+            }
+        } finally {
+            customersFinished.incrementAndGet();
+        }
+    }
+
+    /**
+     * Staff screen: refresh the order list on a fixed schedule and move a few
+     * of this restaurant's open orders to their next status
+     */
+    private void staffLoop(Restaurant restaurant, long t0) {
+        long intended = t0;
+        long interval = scenario.staffInterval().toNanos();
+        while (staffRunning) {
+            sleepUntil(intended);
+            ApiClient.Response orders = api.call("staff.orders", intended, "GET", "/api/orders", null, restaurant.token());
+
+            int updated = 0;
+            for (JsonNode order : orders.body()) {
+                if (updated == 3) {
+                    break;
+                }
+                String next = nextStatus(order.path("status").asText(""));
+                if (next != null && restaurant.id().equals(order.path("userId").asText())) {
+                    api.call("staff.order.update", System.nanoTime(), "PUT", "/api/orders/" + order.path("id").asText(),
+                            Map.of("status", next), restaurant.token());
+                    updated++;
+                }
+            }
+            intended += interval;
+        }
+    }
+
+    private static String nextStatus(String status) {
+        for (int i = 0; i < NEXT_STATUS.length - 1; i++) {
+            if (NEXT_STATUS[i].equals(status)) {
+                return NEXT_STATUS[i + 1];
+            }
+        }
+        return null;
+    }
+
+    private void printProgress() {
+        StringBuilder line = new StringBuilder(String.format("[%d customers] ", customersStarted.get()));
+        for (Map.Entry<String, Histogram> entry : stats.roll().entrySet()) {
+            Histogram histogram = entry.getValue();
+            line.append(String.format("%s n=%d p99=%.1fms  ", entry.getKey(), histogram.getTotalCount(),
+                    histogram.getValueAtPercentile(99) / 1000.0));
+        }
+        System.out.println(line);
+    }
+
+    // ========== TIMING ==========
+
+    /**
+     * Sleep until the given System.nanoTime() (returns immediately if already late)
+     */
+    private static long sleepUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+        return nanoTime;
+    }
+
+    private static long exponential(Random random, long meanNanos) {
+        return (long) (-meanNanos * Math.log(1 - random.nextDouble()));
+    }
+}
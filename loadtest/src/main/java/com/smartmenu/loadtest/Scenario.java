@@ -0,0 +1,112 @@
+package com.smartmenu.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load test scenario - every knob, with defaults
+ *
+ * Passed on the command line as --name=value, e.g.
+ *
+ *   java -jar loadtest.jar --restaurants=20 --customers-per-second=100 --duration=5m
+ *
+ * @param baseUrl              backend to test; empty = start backendJar ourselves
+ * @param backendJar           Spring Boot jar to start when baseUrl is empty
+ * @param backendPort          port for the started backend
+ * @param mongoUri             MongoDB for the started backend; empty = in-memory stand-in
+ * @param restaurants          tenants (owner accounts) to create
+ * @param tablesPerRestaurant  tables per restaurant
+ * @param menuItems            menu items per restaurant
+ * @param customersPerSecond   mean customer arrival rate (Poisson arrivals)
+ * @param duration             how long new customers keep arriving
+ * @param drain                how long to wait for customers still in their journey
+ * @param browseViews          extra menu views per customer after the scan
+ * @param thinkTime            mean pause between a customer's requests
+ * @param pollInterval         pause between order status polls
+ * @param maxPolls             status polls per order (stops early at READY/COMPLETED)
+ * @param feedbackRatio        share of customers who leave feedback
+ * @param staffInterval        how often each restaurant's staff refresh their order list
+ * @param seed                 random seed (same seed = same customers, carts and think times)
+ * @param reportDir            where histograms, summary.json and backend.log go
+ */
+public record Scenario(
+        String baseUrl,
+        Path backendJar,
+        int backendPort,
+        String mongoUri,
+        int restaurants,
+        int tablesPerRestaurant,
+        int menuItems,
+        double customersPerSecond,
+        Duration duration,
+        Duration drain,
+        int browseViews,
+        Duration thinkTime,
+        Duration pollInterval,
+        int maxPolls,
+        double feedbackRatio,
+        Duration staffInterval,
+        long seed,
+        Path reportDir
+) {
+
+    static Scenario fromArgs(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        Scenario scenario = new Scenario(
+                take(values, "base-url", ""),
+                Path.of(take(values, "backend-jar", "../backend/target/smartmenu-backend-1.0.0.jar")),
+                Integer.parseInt(take(values, "backend-port", "18080")),
+                take(values, "mongo-uri", ""),
+                Integer.parseInt(take(values, "restaurants", "5")),
+                Integer.parseInt(take(values, "tables", "20")),
+                Integer.parseInt(take(values, "menu-items", "40")),
+                Double.parseDouble(take(values, "customers-per-second", "20")),
+                duration(take(values, "duration", "60s")),
+                duration(take(values, "drain", "60s")),
+                Integer.parseInt(take(values, "browse-views", "2")),
+                duration(take(values, "think-time", "1500ms")),
+                duration(take(values, "poll-interval", "2s")),
+                Integer.parseInt(take(values, "max-polls", "5")),
+                Double.parseDouble(take(values, "feedback-ratio", "0.3")),
+                duration(take(values, "staff-interval", "1s")),
+                Long.parseLong(take(values, "seed", "42")),
+                Path.of(take(values, "report-dir", "target/loadtest-report"))
+        );
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        return scenario;
+    }
+
+    private static String take(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * 1500ms, 30s, 5m
+     */
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Bad duration: " + value + " (use ms, s, m or h)");
+        };
+    }
+}
@@ -0,0 +1,44 @@
+#!/bin/bash
+# Run the JMH micro-benchmarks and save the results as JSON, named after the commit.
+#
+# Requirements: JDK 21, Maven. No database or network needed once dependencies are cached.
+#
+# Usage: ./scripts/bench-jmh.sh
+#   Optional: BENCH (regex, default all), BASELINE (a previous results JSON to compare
+#   against, needs `jq`), JMH_ARGS (extra JMH flags, e.g. "-f 1 -wi 2 -i 3" for a quick run)
+
+set -e
+
+COMMIT=$(git rev-parse --short HEAD)
+if [ -n "$(git status --porcelain -- backend benchmarks)" ]; then
+    COMMIT="$COMMIT-dirty"
+fi
+RESULTS_DIR=benchmarks/results
+RESULT_FILE=$RESULTS_DIR/jmh-$COMMIT.json
+mkdir -p "$RESULTS_DIR"
+
+echo "🔨 Building backend classes (lib jar) and benchmarks..."
+(cd backend && mvn -B -q install -DskipTests)
+(cd benchmarks && mvn -B -q package)
+
+echo "⏱️  Running JMH (commit $COMMIT)..."
+# Forks, warmup, heap size and data seed are fixed in the benchmark classes
+java -jar benchmarks/target/benchmarks.jar ${BENCH:-} $JMH_ARGS -rf json -rff "$RESULT_FILE"
+
+if [ ! -s "$RESULT_FILE" ]; then
+    echo "❌ JMH produced no results"
+    exit 1
+fi
+echo "✅ Results: $RESULT_FILE"
+
+if [ -n "$BASELINE" ]; then
+    echo ""
+    echo "📊 Compared with $BASELINE (score, lower is better):"
+    jq -r -n --slurpfile base "$BASELINE" --slurpfile head "$RESULT_FILE" '
+        ($base[0] | map({key: (.benchmark + " " + (.params // {} | tostring)), value: .primaryMetric.score}) | from_entries) as $b
+        | $head[0][]
+        | (.benchmark + " " + (.params // {} | tostring)) as $k
+        | select($b[$k] != null)
+        | "\(.benchmark | split(".") | .[-2:] | join("."))\t\(.params // {} | tostring)\t\($b[$k] * 1000 | round / 1000) -> \(.primaryMetric.score * 1000 | round / 1000) \(.primaryMetric.scoreUnit)\t\(((.primaryMetric.score / $b[$k] - 1) * 100) | round)%"
+    ' | column -t -s $'\t'
+fi
@@ -0,0 +1,53 @@
+#!/bin/bash
+# Compare the MVC and reactive implementations of /api/public/** under many concurrent clients.
+#
+# Requirements: local MongoDB, `hey` (https://github.com/rakyll/hey), a built jar
+#   cd backend && mvn -B package -DskipTests
+#
+# Usage: TABLE_ID=<existing table id> ./scripts/bench-public-api.sh
+#   Optional: CONCURRENCY (default 10000), DURATION (default 60s),
+#             MONGO_URI (default local mongod; point it at a latency proxy such as toxiproxy
+#             to simulate a far-away database - see PERFORMANCE.md)
+#
+# No MONGO_INJECTED_LATENCY_MS here: it only slows the blocking client, so mvc vs reactive
+# would not be a fair comparison.
+
+set -e
+
+JAR=${JAR:-backend/target/smartmenu-backend-1.0.0.jar}
+CONCURRENCY=${CONCURRENCY:-10000}
+DURATION=${DURATION:-60s}
+MONGO_URI=${MONGO_URI:-mongodb://localhost:27017/smartmenu?maxPoolSize=1000}
+BASE_URL=http://localhost:8080/api/public
+
+if [ -z "$TABLE_ID" ]; then
+    echo "❌ Set TABLE_ID to an existing table id (create one in the dashboard first)."
+    exit 1
+fi
+
+# 10k clients need 10k+ file descriptors on both sides
+ulimit -n 65536 || echo "⚠️  Could not raise open-file limit; results above ~1000 clients may show socket errors."
+
+run_mode() {
+    local mode=$1
+    echo "=== PUBLIC_API_MODE=$mode, $CONCURRENCY clients, Mongo at $MONGO_URI ==="
+
+    PUBLIC_API_MODE=$mode TOMCAT_MAX_CONNECTIONS=20000 MONGO_INJECTED_LATENCY_MS=0 \
+        MONGODB_URI="$MONGO_URI" \
+        java -jar "$JAR" > "/tmp/smartmenu-$mode.log" 2>&1 &
+    local pid=$!
+    until curl -s http://localhost:8080/api/health > /dev/null; do sleep 1; done
+
+    echo "--- GET /menu/{tableId} ---"
+    hey -z "$DURATION" -c "$CONCURRENCY" "$BASE_URL/menu/$TABLE_ID?deviceId=bench-device" | grep -E "Requests/sec|Average|99%|Status code|\["
+
+    echo "--- GET /table/{tableId} ---"
+    hey -z "$DURATION" -c "$CONCURRENCY" "$BASE_URL/table/$TABLE_ID" | grep -E "Requests/sec|Average|99%|Status code|\["
+
+    kill $pid
+    wait $pid 2>/dev/null || true
+    echo ""
+}
+
+run_mode mvc
+run_mode reactive
@@ -0,0 +1,48 @@
+#!/bin/bash
+# Compare platform-thread vs virtual-thread Tomcat with artificial Mongo latency.
+#
+# Requirements: local MongoDB, `hey` (https://github.com/rakyll/hey), a built jar
+#   cd backend && mvn -B package -DskipTests
+#
+# Usage: TABLE_ID=<existing table id> ./scripts/bench-virtual-threads.sh
+#   Optional: LATENCY_MS (default 50), CONCURRENCY (default 1000), DURATION (default 30s)
+
+set -e
+
+JAR=${JAR:-backend/target/smartmenu-backend-1.0.0.jar}
+LATENCY_MS=${LATENCY_MS:-50}
+CONCURRENCY=${CONCURRENCY:-1000}
+DURATION=${DURATION:-30s}
+BASE_URL=http://localhost:8080/api/public
+
+if [ -z "$TABLE_ID" ]; then
+    echo "❌ Set TABLE_ID to an existing table id (create one in the dashboard first)."
+    exit 1
+fi
+
+ORDER_BODY='{"tableId":"'"$TABLE_ID"'","deviceId":"bench-device","items":[{"id":"bench","name":"Bench Item","price":1000,"quantity":2}]}'
+
+run_mode() {
+    local mode=$1
+    echo "=== Mode: $mode (virtual threads = $2, injected Mongo latency = ${LATENCY_MS}ms) ==="
+
+    VIRTUAL_THREADS=$2 MONGO_INJECTED_LATENCY_MS=$LATENCY_MS java -jar "$JAR" > "/tmp/smartmenu-$mode.log" 2>&1 &
+    local pid=$!
+    until curl -s http://localhost:8080/api/health > /dev/null; do sleep 1; done
+
+    echo "--- GET /menu/{tableId} (getMenuForTable) ---"
+    hey -z "$DURATION" -c "$CONCURRENCY" "$BASE_URL/menu/$TABLE_ID?deviceId=bench-device" | grep -E "Requests/sec|Average|99%|Status code|\[" 
+
+    echo "--- POST /order (placeOrder) ---"
+    hey -z "$DURATION" -c "$CONCURRENCY" -m POST -T application/json -d "$ORDER_BODY" "$BASE_URL/order" | grep -E "Requests/sec|Average|99%|Status code|\["
+
+    echo "--- Pinning events (virtual mode only) ---"
+    grep -c "Virtual thread pinned" "/tmp/smartmenu-$mode.log" || true
+
+    kill $pid
+    wait $pid 2>/dev/null || true
+    echo ""
+}
+
+run_mode platform false
+run_mode virtual true
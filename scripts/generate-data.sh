@@ -0,0 +1,30 @@
+#!/bin/bash
+# Generate multi-tenant test data straight into MongoDB with the Java data generator.
+#
+# Requirements: JDK 21, Maven, a reachable MongoDB. The backend does NOT need to be running
+# (start it afterwards - it creates the indexes at startup).
+#
+# Usage: ./scripts/generate-data.sh [--name=value ...]
+#   e.g. ./scripts/generate-data.sh --tenants=200 --orders=10000000
+#   MONGODB_URI is used as --uri unless you pass one. All options: datagen/.../GeneratorOptions.java
+
+set -e
+
+# Paths below are relative to the repo root, wherever the script is called from
+cd "$(dirname "$0")/.."
+
+JAR=datagen/target/datagen.jar
+
+echo "🔨 Building backend classes (lib jar) and data generator..."
+(cd backend && mvn -B -q install -DskipTests)
+(cd datagen && mvn -B -q package)
+
+URI_ARG="--uri=${MONGODB_URI:-mongodb://localhost:27017/smartmenu}"
+for arg in "$@"; do
+    if [[ "$arg" == --uri=* ]]; then
+        URI_ARG=""
+    fi
+done
+
+echo "🌱 Generating data..."
+java -jar "$JAR" $URI_ARG "$@"